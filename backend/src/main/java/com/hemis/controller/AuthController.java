@@ -2,9 +2,16 @@ package com.hemis.controller;
 
 import com.hemis.dto.LoginRequest;
 import com.hemis.dto.LoginResponse;
+import com.hemis.dto.RefreshRequest;
 import com.hemis.service.AuthService;
+import com.hemis.service.InvalidRefreshTokenException;
+import com.hemis.service.LoginAdmissionService;
+import com.hemis.service.TooManyLoginAttemptsException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,16 +22,40 @@ public class AuthController {
     @Autowired
     private AuthService authService;
     
+    @Autowired
+    private LoginAdmissionService loginAdmissionService;
+    
+    /** The remote address is the client's, resolved from X-Forwarded-For when behind a trusted proxy. */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         try {
-            LoginResponse response = authService.login(request);
+            LoginResponse response = loginAdmissionService.login(request, httpRequest.getRemoteAddr());
             return ResponseEntity.ok(response);
+        } catch (TooManyLoginAttemptsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(new ErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(401)
                     .body(new ErrorResponse("Invalid username or password"));
         }
     }
     
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequest request) {
+        try {
+            return ResponseEntity.ok(authService.refresh(request));
+        } catch (InvalidRefreshTokenException e) {
+            return ResponseEntity.status(401).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshRequest request,
+                                       @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        authService.logout(request, authHeader);
+        return ResponseEntity.noContent().build();
+    }
+    
     private record ErrorResponse(String message) {}
 }
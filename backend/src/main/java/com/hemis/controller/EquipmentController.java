@@ -1,27 +1,81 @@
 package com.hemis.controller;
 
+import com.hemis.dto.CursorPage;
+import com.hemis.dto.EquipmentView;
+import com.hemis.dto.ImportResult;
 import com.hemis.entity.Equipment;
 import com.hemis.repository.EquipmentRepository;
+import com.hemis.service.BulkImportService;
+import com.hemis.service.MaintenanceSchedulerService;
+import com.hemis.service.ExportColumns;
+import com.hemis.service.ExportService;
+import com.hemis.service.SearchService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDate;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/equipment")
 public class EquipmentController {
     
+    @Value("${pagination.max-page-size:200}")
+    private int maxPageSize;
+    
     @Autowired
     private EquipmentRepository equipmentRepository;
     
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private SearchService searchService;
+    
+    @Autowired
+    private BulkImportService bulkImportService;
+    
+    @Autowired
+    private MaintenanceSchedulerService maintenanceSchedulerService;
+    
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'TECHNICIAN')")
-    public ResponseEntity<List<Equipment>> getAllEquipment() {
-        return ResponseEntity.ok(equipmentRepository.findByActiveTrue());
+    public ResponseEntity<CursorPage<EquipmentView>> getAllEquipment(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = "50") Integer size) {
+        int pageSize = CursorPage.limit(size, maxPageSize);
+        Limit limit = Limit.of(pageSize + 1);
+        List<Equipment> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = equipmentRepository.findByActiveTrueOrderByNameAscEquipmentIdAsc(limit);
+        } else {
+            CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+            rows = equipmentRepository.findActivePageAfter(after.key(), after.id(), limit);
+        }
+        return ResponseEntity.ok(CursorPage.of(rows, pageSize,
+                e -> CursorPage.Cursor.of(e.getName(), e.getEquipmentId())).map(EquipmentView::from));
+    }
+    
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TECHNICIAN')")
+    public ResponseEntity<StreamingResponseBody> exportEquipment(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding) {
+        return exportService.export("equipment", equipmentRepository::streamAll, ExportColumns.EQUIPMENT, format, acceptEncoding);
+    }
+    
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TECHNICIAN')")
+    public ResponseEntity<List<EquipmentView>> searchEquipment(@RequestParam String q,
+                                                               @RequestParam(defaultValue = "20") Integer limit) {
+        return ResponseEntity.ok(searchService.searchEquipment(q, CursorPage.limit(limit, maxPageSize)).stream()
+                .map(EquipmentView::from).toList());
     }
     
     @GetMapping("/{id}")
@@ -39,6 +93,13 @@ public class EquipmentController {
         return ResponseEntity.ok(saved);
     }
     
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/json"})
+    @PreAuthorize("hasAnyRole('ADMIN', 'TECHNICIAN')")
+    public ResponseEntity<ImportResult> importEquipment(InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+        return ResponseEntity.ok(bulkImportService.importEquipment(body, contentType));
+    }
+    
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TECHNICIAN')")
     public ResponseEntity<Equipment> updateEquipment(@PathVariable Long id, @Valid @RequestBody Equipment equipment) {
@@ -64,8 +125,8 @@ public class EquipmentController {
     
     @GetMapping("/maintenance-due")
     @PreAuthorize("hasAnyRole('ADMIN', 'TECHNICIAN')")
-    public ResponseEntity<List<Equipment>> getMaintenanceDue(@RequestParam(defaultValue = "30") Integer days) {
-        LocalDate dueDate = LocalDate.now().plusDays(days);
-        return ResponseEntity.ok(equipmentRepository.findMaintenanceDue(dueDate));
+    public ResponseEntity<List<EquipmentView>> getMaintenanceDue(@RequestParam(defaultValue = "30") Integer days) {
+        return ResponseEntity.ok(maintenanceSchedulerService.findDue(days).stream()
+                .map(EquipmentView::from).toList());
     }
 }
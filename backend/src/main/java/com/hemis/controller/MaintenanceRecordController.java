@@ -1,12 +1,22 @@
 package com.hemis.controller;
 
+import com.hemis.dto.CursorPage;
+import com.hemis.dto.MaintenanceRecordView;
 import com.hemis.entity.MaintenanceRecord;
 import com.hemis.repository.MaintenanceRecordRepository;
+import com.hemis.service.ExportColumns;
+import com.hemis.service.ExportService;
+import com.hemis.service.MaintenanceSchedulerService;
+import com.hemis.service.ReliabilityService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -14,13 +24,68 @@ import java.util.List;
 @RequestMapping("/api/maintenance")
 public class MaintenanceRecordController {
     
+    @Value("${pagination.max-page-size:200}")
+    private int maxPageSize;
+    
     @Autowired
     private MaintenanceRecordRepository maintenanceRecordRepository;
     
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private MaintenanceSchedulerService maintenanceSchedulerService;
+    
+    @Autowired
+    private ReliabilityService reliabilityService;
+    
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'TECHNICIAN')")
-    public ResponseEntity<List<MaintenanceRecord>> getAllRecords() {
-        return ResponseEntity.ok(maintenanceRecordRepository.findAll());
+    public ResponseEntity<CursorPage<MaintenanceRecordView>> getAllRecords(@RequestParam(required = false) String cursor,
+                                                                           @RequestParam(defaultValue = "50") Integer size) {
+        int pageSize = CursorPage.limit(size, maxPageSize);
+        Limit limit = Limit.of(pageSize + 1);
+        List<MaintenanceRecord> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = maintenanceRecordRepository.findAllByOrderByMaintenanceDateDescRecordIdDesc(limit);
+        } else {
+            CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+            rows = maintenanceRecordRepository.findPageAfter(after.dateKey(), after.id(), limit);
+        }
+        return ResponseEntity.ok(CursorPage.of(rows, pageSize,
+                r -> CursorPage.Cursor.of(r.getMaintenanceDate(), r.getRecordId())).map(MaintenanceRecordView::from));
+    }
+    
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TECHNICIAN')")
+    public ResponseEntity<StreamingResponseBody> exportMaintenance(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding) {
+        return exportService.export("maintenance", maintenanceRecordRepository::streamAll,
+                ExportColumns.MAINTENANCE, format, acceptEncoding);
+    }
+    
+    @GetMapping("/reliability")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TECHNICIAN')")
+    public ResponseEntity<?> getReliability(
+            @RequestParam(defaultValue = "CATEGORY") ReliabilityService.GroupBy groupBy) {
+        try {
+            return ResponseEntity.ok(reliabilityService.byGroup(groupBy));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/reliability/equipment/{equipmentId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TECHNICIAN')")
+    public ResponseEntity<?> getEquipmentReliability(@PathVariable Long equipmentId) {
+        try {
+            return reliabilityService.forEquipment(equipmentId)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(e.getMessage()));
+        }
     }
     
     @GetMapping("/{id}")
@@ -33,14 +98,15 @@ public class MaintenanceRecordController {
     
     @GetMapping("/equipment/{equipmentId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'TECHNICIAN')")
-    public ResponseEntity<List<MaintenanceRecord>> getRecordsByEquipment(@PathVariable Long equipmentId) {
-        return ResponseEntity.ok(maintenanceRecordRepository.findByEquipment_EquipmentId(equipmentId));
+    public ResponseEntity<List<MaintenanceRecordView>> getRecordsByEquipment(@PathVariable Long equipmentId) {
+        return ResponseEntity.ok(maintenanceRecordRepository.findByEquipment_EquipmentId(equipmentId).stream()
+                .map(MaintenanceRecordView::from).toList());
     }
     
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'TECHNICIAN')")
     public ResponseEntity<MaintenanceRecord> createRecord(@Valid @RequestBody MaintenanceRecord record) {
-        MaintenanceRecord saved = maintenanceRecordRepository.save(record);
+        MaintenanceRecord saved = maintenanceSchedulerService.save(record);
         return ResponseEntity.ok(saved);
     }
     
@@ -51,7 +117,7 @@ public class MaintenanceRecordController {
             return ResponseEntity.notFound().build();
         }
         record.setRecordId(id);
-        MaintenanceRecord updated = maintenanceRecordRepository.save(record);
+        MaintenanceRecord updated = maintenanceSchedulerService.save(record);
         return ResponseEntity.ok(updated);
     }
     
@@ -64,4 +130,6 @@ public class MaintenanceRecordController {
         maintenanceRecordRepository.deleteById(id);
         return ResponseEntity.ok().build();
     }
+    
+    private record ErrorResponse(String message) {}
 }
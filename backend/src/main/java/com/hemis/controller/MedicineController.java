@@ -1,27 +1,98 @@
 package com.hemis.controller;
 
+import com.hemis.dto.AllocationRequest;
+import com.hemis.dto.BatchStockRequest;
+import com.hemis.dto.CursorPage;
+import com.hemis.dto.ImportResult;
+import com.hemis.dto.MedicineView;
+import com.hemis.dto.StockRequest;
+import com.hemis.entity.ExpiryAlert;
+import com.hemis.entity.ExpiryAlert.AlertType;
 import com.hemis.entity.Medicine;
+import com.hemis.entity.StockMovement.MovementType;
 import com.hemis.repository.MedicineRepository;
+import com.hemis.service.BulkImportService;
+import com.hemis.service.ExpiryCheckService;
+import com.hemis.service.JobAlreadyRunningException;
+import com.hemis.service.ExportColumns;
+import com.hemis.service.ExportService;
+import com.hemis.service.InsufficientStockException;
+import com.hemis.service.LockLostException;
+import com.hemis.service.SearchService;
+import com.hemis.service.StockService;
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDate;
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/medicines")
 public class MedicineController {
     
+    @Value("${pagination.max-page-size:200}")
+    private int maxPageSize;
+    
     @Autowired
     private MedicineRepository medicineRepository;
     
+    @Autowired
+    private ExpiryCheckService expiryCheckService;
+    
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private SearchService searchService;
+    
+    @Autowired
+    private BulkImportService bulkImportService;
+    
+    @Autowired
+    private StockService stockService;
+    
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
-    public ResponseEntity<List<Medicine>> getAllMedicines() {
-        return ResponseEntity.ok(medicineRepository.findByActiveTrue());
+    public ResponseEntity<CursorPage<MedicineView>> getAllMedicines(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "50") Integer size) {
+        int pageSize = CursorPage.limit(size, maxPageSize);
+        Limit limit = Limit.of(pageSize + 1);
+        List<Medicine> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = medicineRepository.findByActiveTrueOrderByNameAscMedicineIdAsc(limit);
+        } else {
+            CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+            rows = medicineRepository.findActivePageAfter(after.key(), after.id(), limit);
+        }
+        return ResponseEntity.ok(CursorPage.of(rows, pageSize,
+                m -> CursorPage.Cursor.of(m.getName(), m.getMedicineId())).map(MedicineView::from));
+    }
+    
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<StreamingResponseBody> exportMedicines(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding) {
+        return exportService.export("medicines", medicineRepository::streamAll, ExportColumns.MEDICINES, format, acceptEncoding);
+    }
+    
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<List<MedicineView>> searchMedicines(@RequestParam String q,
+                                                              @RequestParam(defaultValue = "20") Integer limit) {
+        return ResponseEntity.ok(searchService.searchMedicines(q, CursorPage.limit(limit, maxPageSize)).stream()
+                .map(MedicineView::from).toList());
     }
     
     @GetMapping("/{id}")
@@ -39,15 +110,61 @@ public class MedicineController {
         return ResponseEntity.ok(saved);
     }
     
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/json"})
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<ImportResult> importMedicines(InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+        return ResponseEntity.ok(bulkImportService.importMedicines(body, contentType));
+    }
+    
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
-    public ResponseEntity<Medicine> updateMedicine(@PathVariable Long id, @Valid @RequestBody Medicine medicine) {
-        if (!medicineRepository.existsById(id)) {
+    public ResponseEntity<?> updateMedicine(@PathVariable Long id, @Valid @RequestBody Medicine medicine) {
+        Medicine existing = medicineRepository.findById(id).orElse(null);
+        if (existing == null) {
             return ResponseEntity.notFound().build();
         }
         medicine.setMedicineId(id);
-        Medicine updated = medicineRepository.save(medicine);
-        return ResponseEntity.ok(updated);
+        if (medicine.getVersion() == null) {
+            medicine.setVersion(existing.getVersion());
+        }
+        try {
+            Medicine updated = medicineRepository.save(medicine);
+            return ResponseEntity.ok(updated);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("Medicine was modified by another user; reload and retry"));
+        }
+    }
+    
+    @PostMapping("/{id}/dispense")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<?> dispense(@PathVariable Long id, @Valid @RequestBody StockRequest request) {
+        return stockOperation(() -> stockService.dispense(id, request.getQuantity(), request.getReference()));
+    }
+    
+    @PostMapping("/{id}/receive")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<?> receive(@PathVariable Long id, @Valid @RequestBody StockRequest request) {
+        return stockOperation(() -> stockService.receive(id, request.getQuantity(), request.getReference()));
+    }
+    
+    @PostMapping("/dispense")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<?> dispenseBatch(@Valid @RequestBody BatchStockRequest request) {
+        return stockOperation(() -> stockService.applyBatch(MovementType.DISPENSE, request));
+    }
+    
+    @PostMapping("/receive")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<?> receiveBatch(@Valid @RequestBody BatchStockRequest request) {
+        return stockOperation(() -> stockService.applyBatch(MovementType.RECEIVE, request));
+    }
+    
+    @PostMapping("/allocate")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<?> allocate(@Valid @RequestBody AllocationRequest request) {
+        return stockOperation(() -> stockService.allocate(request));
     }
     
     @DeleteMapping("/{id}")
@@ -64,15 +181,66 @@ public class MedicineController {
     
     @GetMapping("/low-stock")
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
-    public ResponseEntity<List<Medicine>> getLowStockMedicines(@RequestParam(defaultValue = "50") Integer threshold) {
-        return ResponseEntity.ok(medicineRepository.findByQuantityLessThan(threshold));
+    public ResponseEntity<List<MedicineView>> getLowStockMedicines(@RequestParam(defaultValue = "50") Integer threshold) {
+        return ResponseEntity.ok(medicineRepository.findByQuantityLessThan(threshold).stream()
+                .map(MedicineView::from).toList());
     }
     
     @GetMapping("/expiring")
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
-    public ResponseEntity<List<Medicine>> getExpiringMedicines(@RequestParam(defaultValue = "30") Integer days) {
-        LocalDate startDate = LocalDate.now();
-        LocalDate endDate = startDate.plusDays(days);
-        return ResponseEntity.ok(medicineRepository.findExpiringBetween(startDate, endDate));
+    public ResponseEntity<?> getExpiringMedicines(@RequestParam(defaultValue = "30") Integer days,
+                                                  @RequestParam(defaultValue = "0") Integer page,
+                                                  @RequestParam(defaultValue = "50") Integer size) {
+        if (page < 0) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Page must not be negative"));
+        }
+        return ResponseEntity.ok(expiryCheckService.findExpiring(days, page, CursorPage.limit(size, maxPageSize))
+                .map(MedicineView::from));
     }
+    
+    @GetMapping("/expired")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<?> getExpiredMedicines(@RequestParam(defaultValue = "0") Integer page,
+                                                 @RequestParam(defaultValue = "50") Integer size) {
+        if (page < 0) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Page must not be negative"));
+        }
+        return ResponseEntity.ok(expiryCheckService.findExpired(page, CursorPage.limit(size, maxPageSize))
+                .map(MedicineView::from));
+    }
+    
+    @GetMapping("/expiry-alerts")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<CursorPage<ExpiryAlert>> getExpiryAlerts(@RequestParam(required = false) AlertType type,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "50") Integer size) {
+        int pageSize = CursorPage.limit(size, maxPageSize);
+        Long beforeId = cursor == null || cursor.isBlank() ? null : CursorPage.Cursor.decode(cursor).id();
+        return ResponseEntity.ok(CursorPage.of(expiryCheckService.findAlerts(type, beforeId, pageSize + 1), pageSize,
+                a -> CursorPage.Cursor.of(a.getRunDate(), a.getAlertId())));
+    }
+    
+    @PostMapping("/expiry-check")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> runExpiryCheck() {
+        try {
+            return ResponseEntity.ok(expiryCheckService.runCheck());
+        } catch (JobAlreadyRunningException | LockLostException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    private ResponseEntity<?> stockOperation(Supplier<?> operation) {
+        try {
+            return ResponseEntity.ok(operation.get());
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorResponse(e.getMessage()));
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    private record ErrorResponse(String message) {}
 }
@@ -1,27 +1,90 @@
 package com.hemis.controller;
 
+import com.hemis.dto.CursorPage;
+import com.hemis.dto.OrderTransitionRequest;
+import com.hemis.dto.OrderTransitionResult;
+import com.hemis.dto.PurchaseOrderView;
+import com.hemis.dto.ReorderSuggestion;
 import com.hemis.entity.PurchaseOrder;
 import com.hemis.repository.PurchaseOrderRepository;
+import com.hemis.service.ExportColumns;
+import com.hemis.service.ExportService;
+import com.hemis.service.OrderNumberAllocator;
+import com.hemis.service.OrderTransitionService;
+import com.hemis.service.ReorderService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/orders")
 public class PurchaseOrderController {
     
+    @Value("${pagination.max-page-size:200}")
+    private int maxPageSize;
+    
     @Autowired
     private PurchaseOrderRepository purchaseOrderRepository;
     
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private ReorderService reorderService;
+    
+    @Autowired
+    private OrderNumberAllocator orderNumberAllocator;
+    
+    @Autowired
+    private OrderTransitionService orderTransitionService;
+    
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
-    public ResponseEntity<List<PurchaseOrder>> getAllOrders() {
-        return ResponseEntity.ok(purchaseOrderRepository.findAll());
+    public ResponseEntity<CursorPage<PurchaseOrderView>> getAllOrders(@RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "50") Integer size) {
+        int pageSize = CursorPage.limit(size, maxPageSize);
+        Limit limit = Limit.of(pageSize + 1);
+        List<PurchaseOrder> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = purchaseOrderRepository.findAllByOrderByOrderDateDescOrderIdDesc(limit);
+        } else {
+            CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+            rows = purchaseOrderRepository.findPageAfter(after.dateKey(), after.id(), limit);
+        }
+        return ResponseEntity.ok(CursorPage.of(rows, pageSize,
+                o -> CursorPage.Cursor.of(o.getOrderDate(), o.getOrderId())).map(PurchaseOrderView::from));
+    }
+    
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding) {
+        return exportService.export("orders", purchaseOrderRepository::streamAll, ExportColumns.ORDERS, format, acceptEncoding);
+    }
+    
+    @GetMapping("/reorder")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<List<ReorderSuggestion>> getReorderSuggestions() {
+        return ResponseEntity.ok(reorderService.suggest());
+    }
+    
+    @PostMapping("/reorder")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> generateReorders() {
+        try {
+            return ResponseEntity.ok(reorderService.generateDraftOrders());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(e.getMessage()));
+        }
     }
     
     @GetMapping("/{id}")
@@ -36,18 +99,30 @@ public class PurchaseOrderController {
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
     public ResponseEntity<PurchaseOrder> createOrder(@Valid @RequestBody PurchaseOrder order) {
         if (order.getOrderNumber() == null || order.getOrderNumber().isEmpty()) {
-            order.setOrderNumber("PO-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+            order.setOrderNumber(orderNumberAllocator.nextOrderNumber());
         }
         PurchaseOrder saved = purchaseOrderRepository.save(order);
         return ResponseEntity.ok(saved);
     }
     
+    @PostMapping("/transitions")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<OrderTransitionResult> transitionOrders(@Valid @RequestBody OrderTransitionRequest request) {
+        return ResponseEntity.ok(orderTransitionService.transition(request.getOrderIds(), request.getStatus()));
+    }
+    
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
-    public ResponseEntity<PurchaseOrder> updateOrder(@PathVariable Long id, @Valid @RequestBody PurchaseOrder order) {
-        if (!purchaseOrderRepository.existsById(id)) {
+    public ResponseEntity<?> updateOrder(@PathVariable Long id, @Valid @RequestBody PurchaseOrder order) {
+        PurchaseOrder existing = purchaseOrderRepository.findById(id).orElse(null);
+        if (existing == null) {
             return ResponseEntity.notFound().build();
         }
+        if (order.getStatus() != existing.getStatus() && !existing.getStatus().canTransitionTo(order.getStatus())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("Cannot change order status from " + existing.getStatus()
+                            + " to " + order.getStatus()));
+        }
         order.setOrderId(id);
         PurchaseOrder updated = purchaseOrderRepository.save(order);
         return ResponseEntity.ok(updated);
@@ -62,4 +137,6 @@ public class PurchaseOrderController {
         purchaseOrderRepository.deleteById(id);
         return ResponseEntity.ok().build();
     }
+    
+    private record ErrorResponse(String message) {}
 }
@@ -1,9 +1,16 @@
 package com.hemis.controller;
 
+import com.hemis.dto.CursorPage;
+import com.hemis.dto.SupplierRanking;
+import com.hemis.dto.SupplierStats;
 import com.hemis.entity.Supplier;
 import com.hemis.repository.SupplierRepository;
+import com.hemis.service.SearchService;
+import com.hemis.service.SupplierStatsService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -14,15 +21,64 @@ import java.util.List;
 @RequestMapping("/api/suppliers")
 public class SupplierController {
     
+    private static final int MAX_STATS_MONTHS = 120;
+    
+    @Value("${pagination.max-page-size:200}")
+    private int maxPageSize;
+    
     @Autowired
     private SupplierRepository supplierRepository;
     
+    @Autowired
+    private SearchService searchService;
+    
+    @Autowired
+    private SupplierStatsService supplierStatsService;
+    
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
     public ResponseEntity<List<Supplier>> getAllSuppliers() {
         return ResponseEntity.ok(supplierRepository.findByActiveTrue());
     }
     
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<List<Supplier>> searchSuppliers(@RequestParam String q,
+                                                          @RequestParam(defaultValue = "20") Integer limit) {
+        return ResponseEntity.ok(searchService.searchSuppliers(q, CursorPage.limit(limit, maxPageSize)));
+    }
+    
+    @GetMapping("/ranking")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<List<SupplierRanking>> getSupplierRanking(
+            @RequestParam(defaultValue = "SPEND") SupplierStatsService.RankBy by,
+            @RequestParam(defaultValue = "12") Integer months,
+            @RequestParam(defaultValue = "10") Integer limit) {
+        return ResponseEntity.ok(supplierStatsService.rank(by, CursorPage.limit(months, MAX_STATS_MONTHS),
+                CursorPage.limit(limit, maxPageSize)));
+    }
+    
+    /** Rebuilds this node's figures, then rewrites the table unless another node is doing so. */
+    @PostMapping("/stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rebuildStats() {
+        try {
+            int orders = supplierStatsService.rebuild();
+            return ResponseEntity.ok(new RebuildResponse(orders, supplierStatsService.rewriteTable() != null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/{id}/stats")
+    @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
+    public ResponseEntity<SupplierStats> getSupplierStats(@PathVariable Long id,
+                                                          @RequestParam(defaultValue = "12") Integer months) {
+        return supplierStatsService.getStats(id, CursorPage.limit(months, MAX_STATS_MONTHS))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'PHARMACIST')")
     public ResponseEntity<Supplier> getSupplierById(@PathVariable Long id) {
@@ -60,4 +116,8 @@ public class SupplierController {
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
+    
+    private record RebuildResponse(int orders, boolean tableRewritten) {}
+    
+    private record ErrorResponse(String message) {}
 }
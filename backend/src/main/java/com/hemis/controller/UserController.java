@@ -1,9 +1,14 @@
 package com.hemis.controller;
 
+import com.hemis.dto.CursorPage;
+import com.hemis.dto.UserView;
 import com.hemis.entity.User;
 import com.hemis.repository.UserRepository;
+import com.hemis.service.TokenRevocationService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -16,27 +21,38 @@ import java.util.List;
 @PreAuthorize("hasRole('ADMIN')")  // Only admins can access user management
 public class UserController {
     
+    @Value("${pagination.max-page-size:200}")
+    private int maxPageSize;
+    
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        // Remove password from response
-        users.forEach(user -> user.setPassword(null));
-        return ResponseEntity.ok(users);
+    public ResponseEntity<CursorPage<UserView>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "50") Integer size) {
+        int pageSize = CursorPage.limit(size, maxPageSize);
+        Limit limit = Limit.of(pageSize + 1);
+        List<User> users;
+        if (cursor == null || cursor.isBlank()) {
+            users = userRepository.findAllByOrderByUsernameAscUserIdAsc(limit);
+        } else {
+            CursorPage.Cursor after = CursorPage.Cursor.decode(cursor);
+            users = userRepository.findPageAfter(after.key(), after.id(), limit);
+        }
+        return ResponseEntity.ok(CursorPage.of(users, pageSize,
+                u -> CursorPage.Cursor.of(u.getUsername(), u.getUserId())).map(UserView::from));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserView> getUserById(@PathVariable Long id) {
         return userRepository.findById(id)
-                .map(user -> {
-                    user.setPassword(null);
-                    return ResponseEntity.ok(user);
-                })
+                .map(user -> ResponseEntity.ok(UserView.from(user)))
                 .orElse(ResponseEntity.notFound().build());
     }
     
@@ -59,9 +75,7 @@ public class UserController {
         // Hash the password
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         
-        User saved = userRepository.save(user);
-        saved.setPassword(null); // Don't return password
-        return ResponseEntity.ok(saved);
+        return ResponseEntity.ok(UserView.from(userRepository.save(user)));
     }
     
     @PutMapping("/{id}")
@@ -101,9 +115,18 @@ public class UserController {
         // Preserve creation date
         user.setCreatedAt(existing.getCreatedAt());
         
+        String previousUsername = existing.getUsername();
+        boolean credentialsChanged = !existing.getUsername().equals(user.getUsername())
+                || existing.getRole() != user.getRole()
+                || !existing.getPassword().equals(user.getPassword())
+                || !Boolean.TRUE.equals(user.getActive());
+        
         User updated = userRepository.save(user);
-        updated.setPassword(null);
-        return ResponseEntity.ok(updated);
+        // Outstanding tokens carry the old username and role, so they must not outlive the change
+        if (credentialsChanged) {
+            tokenRevocationService.revokeUser(id, previousUsername);
+        }
+        return ResponseEntity.ok(UserView.from(updated));
     }
     
     @DeleteMapping("/{id}")
@@ -118,18 +141,21 @@ public class UserController {
         // Soft delete - set active to false
         user.setActive(false);
         userRepository.save(user);
+        tokenRevocationService.revokeUser(user);
         
         return ResponseEntity.ok().build();
     }
     
     @PatchMapping("/{id}/toggle-active")
-    public ResponseEntity<User> toggleUserActive(@PathVariable Long id) {
+    public ResponseEntity<UserView> toggleUserActive(@PathVariable Long id) {
         return userRepository.findById(id)
                 .map(user -> {
                     user.setActive(!user.getActive());
                     User updated = userRepository.save(user);
-                    updated.setPassword(null);
-                    return ResponseEntity.ok(updated);
+                    if (!updated.getActive()) {
+                        tokenRevocationService.revokeUser(updated);
+                    }
+                    return ResponseEntity.ok(UserView.from(updated));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -0,0 +1,32 @@
+package com.hemis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * How a requested quantity was split across batches, earliest expiry first.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Allocation {
+    private String name;
+    private String category;
+    private Integer quantity;
+    private List<Line> lines;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long medicineId;
+        private String batchNumber;
+        private LocalDate expiryDate;
+        private Integer quantity;
+        private Integer remaining;
+    }
+}
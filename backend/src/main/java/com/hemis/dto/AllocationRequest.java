@@ -0,0 +1,21 @@
+package com.hemis.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class AllocationRequest {
+    @NotBlank(message = "Medicine name is required")
+    private String name;
+    
+    @NotBlank(message = "Category is required")
+    private String category;
+    
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be positive")
+    private Integer quantity;
+    
+    private String reference;
+}
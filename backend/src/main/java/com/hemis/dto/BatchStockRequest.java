@@ -0,0 +1,32 @@
+package com.hemis.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Several stock lines applied together, e.g. a multi-line prescription. Either every
+ * line is applied or none is.
+ */
+@Data
+public class BatchStockRequest {
+    private String reference;
+    
+    @NotEmpty(message = "At least one line is required")
+    @Valid
+    private List<Line> lines;
+    
+    @Data
+    public static class Line {
+        @NotNull(message = "Medicine is required")
+        private Long medicineId;
+        
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be positive")
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,77 @@
+package com.hemis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is opaque to clients and
+ * encodes the sort key and ID of the last item, so the next page is a seek rather than an OFFSET.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    
+    /**
+     * Builds a page from rows fetched with a limit of {@code size + 1}; the extra row only
+     * signals that another page exists.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Cursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null, false);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)).encode(), true);
+    }
+    
+    /** Converts the items of this page, keeping its cursor. */
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor, hasMore);
+    }
+    
+    /** Clamps a requested page size to {@code [1, max]}. */
+    public static int limit(int requested, int max) {
+        return Math.max(1, Math.min(requested, max));
+    }
+    
+    public record Cursor(String key, Long id) {
+        
+        public static Cursor of(Object key, Long id) {
+            return new Cursor(String.valueOf(key), id);
+        }
+        
+        public LocalDate dateKey() {
+            try {
+                return LocalDate.parse(key);
+            } catch (DateTimeParseException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+        
+        public String encode() {
+            String raw = id + ":" + key;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        public static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf(':');
+                return new Cursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.hemis.dto;
+
+import com.hemis.entity.Equipment;
+
+/** The part of an equipment item that list views embed. */
+public record EquipmentRef(Long equipmentId, String name, String serialNumber) {
+    
+    public static EquipmentRef from(Equipment equipment) {
+        return equipment == null ? null
+                : new EquipmentRef(equipment.getEquipmentId(), equipment.getName(), equipment.getSerialNumber());
+    }
+}
@@ -0,0 +1,23 @@
+package com.hemis.dto;
+
+import com.hemis.entity.Equipment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Equipment as returned by list endpoints, with a supplier reference instead of the
+ * whole supplier row.
+ */
+public record EquipmentView(Long equipmentId, String name, String description, String category, String serialNumber,
+                            String model, SupplierRef supplier, LocalDate purchaseDate, Double purchasePrice,
+                            Equipment.EquipmentStatus status, LocalDate nextMaintenanceDate, String location,
+                            Boolean active, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    
+    public static EquipmentView from(Equipment e) {
+        return new EquipmentView(e.getEquipmentId(), e.getName(), e.getDescription(), e.getCategory(),
+                e.getSerialNumber(), e.getModel(), SupplierRef.from(e.getSupplier()), e.getPurchaseDate(),
+                e.getPurchasePrice(), e.getStatus(), e.getNextMaintenanceDate(), e.getLocation(), e.getActive(),
+                e.getCreatedAt(), e.getUpdatedAt());
+    }
+}
@@ -0,0 +1,21 @@
+package com.hemis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of an expiry check run. A resumed run only counts the work done after the checkpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpiryCheckResult {
+    private LocalDate runDate;
+    private Long expiredAlerts;
+    private Long deactivated;
+    private Long expiringAlerts;
+    private Boolean resumed;
+}
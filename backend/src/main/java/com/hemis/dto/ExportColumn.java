@@ -0,0 +1,8 @@
+package com.hemis.dto;
+
+import java.util.function.Function;
+
+/**
+ * A named column of an NDJSON/CSV export, read from each row by {@code value}.
+ */
+public record ExportColumn<T>(String name, Function<T, Object> value) {}
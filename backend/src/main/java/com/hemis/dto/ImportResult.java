@@ -0,0 +1,25 @@
+package com.hemis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ImportResult {
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private boolean errorsTruncated;
+    private List<RowError> errors = new ArrayList<>();
+    
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String message;
+    }
+}
@@ -7,6 +7,8 @@ import lombok.Data;
 @AllArgsConstructor
 public class LoginResponse {
     private String token;
+    private String refreshToken;
+    private Long expiresIn;
     private String username;
     private String role;
     private String fullName;
@@ -0,0 +1,22 @@
+package com.hemis.dto;
+
+import com.hemis.entity.MaintenanceRecord;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Maintenance record as returned by list endpoints, with references to the equipment
+ * and the technician.
+ */
+public record MaintenanceRecordView(Long recordId, EquipmentRef equipment, UserRef technician,
+                                    LocalDate maintenanceDate, MaintenanceRecord.MaintenanceType type,
+                                    String description, Double cost, String performedBy, LocalDate nextScheduledDate,
+                                    MaintenanceRecord.MaintenanceStatus status, LocalDateTime createdAt) {
+    
+    public static MaintenanceRecordView from(MaintenanceRecord r) {
+        return new MaintenanceRecordView(r.getRecordId(), EquipmentRef.from(r.getEquipment()),
+                UserRef.from(r.getTechnician()), r.getMaintenanceDate(), r.getType(), r.getDescription(), r.getCost(),
+                r.getPerformedBy(), r.getNextScheduledDate(), r.getStatus(), r.getCreatedAt());
+    }
+}
@@ -0,0 +1,21 @@
+package com.hemis.dto;
+
+import com.hemis.entity.Medicine;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Medicine as returned by list endpoints: every column, but only a reference to the
+ * supplier instead of the whole supplier row.
+ */
+public record MedicineView(Long medicineId, String name, String description, String category, Integer quantity,
+                           Double unitPrice, LocalDate expiryDate, String batchNumber, SupplierRef supplier,
+                           Boolean active, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+    
+    public static MedicineView from(Medicine m) {
+        return new MedicineView(m.getMedicineId(), m.getName(), m.getDescription(), m.getCategory(), m.getQuantity(),
+                m.getUnitPrice(), m.getExpiryDate(), m.getBatchNumber(), SupplierRef.from(m.getSupplier()),
+                m.getActive(), m.getCreatedAt(), m.getUpdatedAt(), m.getVersion());
+    }
+}
@@ -0,0 +1,17 @@
+package com.hemis.dto;
+
+import com.hemis.entity.PurchaseOrder;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class OrderTransitionRequest {
+    @NotEmpty(message = "At least one order is required")
+    private List<Long> orderIds;
+    
+    @NotNull(message = "Target status is required")
+    private PurchaseOrder.OrderStatus status;
+}
@@ -0,0 +1,34 @@
+package com.hemis.dto;
+
+import com.hemis.entity.PurchaseOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk status change, one entry per requested order ID.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTransitionResult {
+    private PurchaseOrder.OrderStatus status;
+    private Integer updated;
+    private List<Outcome> results;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Outcome {
+        private Long orderId;
+        private OutcomeType outcome;
+        /** Status after the request: the target if updated, otherwise unchanged. */
+        private PurchaseOrder.OrderStatus currentStatus;
+    }
+    
+    public enum OutcomeType {
+        UPDATED, UNCHANGED, INVALID_TRANSITION, NOT_FOUND
+    }
+}
@@ -0,0 +1,24 @@
+package com.hemis.dto;
+
+import com.hemis.entity.PurchaseOrder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Purchase order as returned by list endpoints, with references to the supplier and the
+ * ordering user.
+ */
+public record PurchaseOrderView(Long orderId, String orderNumber, SupplierRef supplier, UserRef orderedBy,
+                                PurchaseOrder.ItemType itemType, String itemName, String itemCategory, Integer quantity,
+                                Double unitPrice, Double totalAmount, LocalDate orderDate, LocalDate deliveryDate,
+                                PurchaseOrder.OrderStatus status, String notes, LocalDateTime createdAt,
+                                LocalDateTime updatedAt) {
+    
+    public static PurchaseOrderView from(PurchaseOrder o) {
+        return new PurchaseOrderView(o.getOrderId(), o.getOrderNumber(), SupplierRef.from(o.getSupplier()),
+                UserRef.from(o.getOrderedBy()), o.getItemType(), o.getItemName(), o.getItemCategory(), o.getQuantity(),
+                o.getUnitPrice(), o.getTotalAmount(), o.getOrderDate(), o.getDeliveryDate(), o.getStatus(),
+                o.getNotes(), o.getCreatedAt(), o.getUpdatedAt());
+    }
+}
@@ -0,0 +1,28 @@
+package com.hemis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Maintenance reliability figures for one equipment item or a group of them. MTBF is the
+ * mean number of days between consecutive REPAIR/EMERGENCY records; frequency is performed
+ * maintenance per year in service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReliabilityStats {
+    /** Equipment ID, category or location, depending on the grouping. */
+    private String key;
+    private Long assetCount;
+    private Long maintenanceCount;
+    private Double totalCost;
+    private Long failureCount;
+    private Double mtbfDays;
+    private Double maintenancePerYear;
+    /** Only set for a single equipment item. */
+    private LocalDate lastFailureDate;
+}
@@ -0,0 +1,23 @@
+package com.hemis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reorder decision for one medicine (all batches sharing a name and category).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorderSuggestion {
+    private String name;
+    private String category;
+    private Long supplierId;
+    private Integer onHand;
+    private Integer onOrder;
+    private Double averageDailyDemand;
+    private Integer reorderPoint;
+    private Integer orderQuantity;
+    private Double unitPrice;
+}
@@ -0,0 +1,14 @@
+package com.hemis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevel {
+    private Long medicineId;
+    private Integer quantity;
+    private Long version;
+}
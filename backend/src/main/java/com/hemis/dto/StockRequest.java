@@ -0,0 +1,14 @@
+package com.hemis.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class StockRequest {
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be positive")
+    private Integer quantity;
+    
+    private String reference;
+}
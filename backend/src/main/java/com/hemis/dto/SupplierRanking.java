@@ -0,0 +1,21 @@
+package com.hemis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One supplier's place in a ranking by spend, order count or lead time.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupplierRanking {
+    private Integer rank;
+    private Long supplierId;
+    private String supplierName;
+    private Long orderCount;
+    private Double totalSpend;
+    private Long deliveredCount;
+    private Double averageLeadTimeDays;
+}
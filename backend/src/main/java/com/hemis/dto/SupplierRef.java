@@ -0,0 +1,11 @@
+package com.hemis.dto;
+
+import com.hemis.entity.Supplier;
+
+/** The part of a supplier that list views embed. */
+public record SupplierRef(Long supplierId, String name) {
+    
+    public static SupplierRef from(Supplier supplier) {
+        return supplier == null ? null : new SupplierRef(supplier.getSupplierId(), supplier.getName());
+    }
+}
@@ -0,0 +1,36 @@
+package com.hemis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Purchase order figures for one supplier over a window of months, with the monthly
+ * breakdown. Lead time is delivery date minus order date, averaged over delivered orders.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupplierStats {
+    private Long supplierId;
+    private String supplierName;
+    private Long orderCount;
+    private Double totalSpend;
+    private Long deliveredCount;
+    private Double averageLeadTimeDays;
+    private List<Month> months;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Month {
+        /** Calendar month of the order date, as {@code yyyy-MM}. */
+        private String month;
+        private Long orderCount;
+        private Double totalSpend;
+        private Long deliveredCount;
+        private Double averageLeadTimeDays;
+    }
+}
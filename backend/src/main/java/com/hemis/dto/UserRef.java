@@ -0,0 +1,11 @@
+package com.hemis.dto;
+
+import com.hemis.entity.User;
+
+/** The part of a user that list views embed; never carries the password hash. */
+public record UserRef(Long userId, String username, String fullName) {
+    
+    public static UserRef from(User user) {
+        return user == null ? null : new UserRef(user.getUserId(), user.getUsername(), user.getFullName());
+    }
+}
@@ -0,0 +1,15 @@
+package com.hemis.dto;
+
+import com.hemis.entity.User;
+
+import java.time.LocalDateTime;
+
+/** User as returned by the API; the password hash is never included. */
+public record UserView(Long userId, String username, String fullName, String email, User.UserRole role,
+                       Boolean active, LocalDateTime createdAt) {
+    
+    public static UserView from(User u) {
+        return new UserView(u.getUserId(), u.getUsername(), u.getFullName(), u.getEmail(), u.getRole(), u.getActive(),
+                u.getCreatedAt());
+    }
+}
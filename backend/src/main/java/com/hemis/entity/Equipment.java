@@ -1,22 +1,31 @@
 package com.hemis.entity;
 
+import com.hemis.listener.DashboardCountersListener;
+import com.hemis.listener.MaintenanceScheduleListener;
+import com.hemis.listener.NameSearchIndexListener;
+import com.hemis.listener.ReliabilityIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners({DashboardCountersListener.class, NameSearchIndexListener.class,
+        MaintenanceScheduleListener.class, ReliabilityIndexListener.class})
 @Table(name = "equipment")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Equipment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "equipment_seq")
+    @SequenceGenerator(name = "equipment_seq", sequenceName = "equipment_seq", allocationSize = 50)
     private Long equipmentId;
 
     @NotBlank(message = "Equipment name is required")
@@ -33,6 +42,7 @@ public class Equipment {
     private String model;
 
     @ManyToOne
+    @Fetch(FetchMode.SELECT)
     @JoinColumn(name = "supplier_id")
     private Supplier supplier;
 
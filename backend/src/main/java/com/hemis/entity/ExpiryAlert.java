@@ -0,0 +1,59 @@
+package com.hemis.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One medicine flagged by the daily expiry check. At most one alert is written per
+ * medicine, type and run date, so a resumed run never duplicates alerts.
+ */
+@Entity
+@Table(name = "expiry_alerts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_expiry_alerts_medicine_run_type",
+                columnNames = {"medicine_id", "runDate", "type"}),
+        indexes = @Index(name = "idx_expiry_alerts_type_id", columnList = "type, alertId"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpiryAlert {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expiry_alert_seq")
+    @SequenceGenerator(name = "expiry_alert_seq", sequenceName = "expiry_alerts_seq", allocationSize = 50)
+    private Long alertId;
+
+    @Column(name = "medicine_id", nullable = false)
+    private Long medicineId;
+
+    @Column(nullable = false)
+    private String medicineName;
+
+    private String batchNumber;
+
+    @Column(nullable = false)
+    private LocalDate expiryDate;
+
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AlertType type;
+
+    /** True when the check took the medicine out of stock. */
+    @Column(nullable = false)
+    private Boolean deactivated = false;
+
+    @Column(nullable = false)
+    private LocalDate runDate;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public enum AlertType {
+        EXPIRED, EXPIRING
+    }
+}
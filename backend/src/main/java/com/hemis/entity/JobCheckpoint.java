@@ -0,0 +1,37 @@
+package com.hemis.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a batch job that walks a table in ID order. Everything up to {@code lastId}
+ * in {@code phase} has been committed, so a job interrupted mid-run resumes after it.
+ */
+@Entity
+@Table(name = "job_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobCheckpoint {
+    @Id
+    private String jobName;
+
+    @Column(nullable = false)
+    private LocalDate runDate;
+
+    @Column(nullable = false)
+    private String phase;
+
+    @Column(nullable = false)
+    private Long lastId = 0L;
+
+    @Column(nullable = false)
+    private Boolean completed = false;
+
+    private LocalDateTime updatedAt;
+}
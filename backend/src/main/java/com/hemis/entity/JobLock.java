@@ -0,0 +1,35 @@
+package com.hemis.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cluster-wide lease on a scheduled job. The lease is free once {@code lockedUntil} has
+ * passed; every grant increments {@code fencingToken}, so a holder whose lease ran out can
+ * tell that someone else has taken over.
+ */
+@Entity
+@Table(name = "job_locks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLock {
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(nullable = false)
+    private String lockedBy;
+
+    @Column(nullable = false)
+    private Long fencingToken;
+}
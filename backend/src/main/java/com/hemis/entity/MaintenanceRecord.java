@@ -1,22 +1,27 @@
 package com.hemis.entity;
 
+import com.hemis.listener.ReliabilityIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(ReliabilityIndexListener.class)
 @Table(name = "maintenance_records")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class MaintenanceRecord {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "maintenance_record_seq")
+    @SequenceGenerator(name = "maintenance_record_seq", sequenceName = "maintenance_records_seq", allocationSize = 50)
     private Long recordId;
 
     @NotNull
@@ -25,6 +30,7 @@ public class MaintenanceRecord {
     private Equipment equipment;
 
     @ManyToOne
+    @Fetch(FetchMode.SELECT)
     @JoinColumn(name = "technician_id")
     private User technician;
 
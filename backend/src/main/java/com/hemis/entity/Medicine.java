@@ -1,5 +1,9 @@
 package com.hemis.entity;
 
+import com.hemis.listener.DashboardCountersListener;
+import com.hemis.listener.FefoIndexListener;
+import com.hemis.listener.MedicineExpiryIndexListener;
+import com.hemis.listener.NameSearchIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -7,18 +11,23 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners({DashboardCountersListener.class, MedicineExpiryIndexListener.class, NameSearchIndexListener.class,
+        FefoIndexListener.class})
 @Table(name = "medicines")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Medicine {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "medicine_seq")
+    @SequenceGenerator(name = "medicine_seq", sequenceName = "medicines_seq", allocationSize = 50)
     private Long medicineId;
 
     @NotBlank(message = "Medicine name is required")
@@ -44,6 +53,7 @@ public class Medicine {
     private String batchNumber;
 
     @ManyToOne
+    @Fetch(FetchMode.SELECT)
     @JoinColumn(name = "supplier_id")
     private Supplier supplier;
 
@@ -55,6 +65,9 @@ public class Medicine {
 
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
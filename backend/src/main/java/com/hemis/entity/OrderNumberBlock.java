@@ -0,0 +1,24 @@
+package com.hemis.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * High-water mark of purchase order numbers handed out per year. Nodes reserve numbers
+ * from here in blocks and issue them from memory.
+ */
+@Entity
+@Table(name = "order_number_blocks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderNumberBlock {
+    @Id
+    private Integer orderYear;
+
+    /** First number not yet reserved by any node. */
+    @Column(nullable = false)
+    private Long nextValue;
+}
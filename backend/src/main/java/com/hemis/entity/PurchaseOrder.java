@@ -1,23 +1,29 @@
 package com.hemis.entity;
 
+import com.hemis.listener.DashboardCountersListener;
+import com.hemis.listener.SupplierStatsListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners({DashboardCountersListener.class, SupplierStatsListener.class})
 @Table(name = "purchase_orders")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class PurchaseOrder {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "purchase_order_seq")
+    @SequenceGenerator(name = "purchase_order_seq", sequenceName = "purchase_orders_seq", allocationSize = 50)
     private Long orderId;
 
     @Column(unique = true, nullable = false)
@@ -25,10 +31,12 @@ public class PurchaseOrder {
 
     @NotNull
     @ManyToOne
+    @Fetch(FetchMode.SELECT)
     @JoinColumn(name = "supplier_id", nullable = false)
     private Supplier supplier;
 
     @ManyToOne
+    @Fetch(FetchMode.SELECT)
     @JoinColumn(name = "user_id")
     private User orderedBy;
 
@@ -38,6 +46,8 @@ public class PurchaseOrder {
 
     private String itemName;
 
+    private String itemCategory;
+
     @Min(value = 1, message = "Quantity must be at least 1")
     private Integer quantity;
 
@@ -83,6 +93,19 @@ public class PurchaseOrder {
     }
 
     public enum OrderStatus {
-        PENDING, APPROVED, ORDERED, DELIVERED, CANCELLED
+        PENDING, APPROVED, ORDERED, DELIVERED, CANCELLED;
+
+        /**
+         * Legal lifecycle moves: PENDING -> APPROVED -> ORDERED -> DELIVERED, with
+         * cancellation allowed until delivery. DELIVERED and CANCELLED are final.
+         */
+        public boolean canTransitionTo(OrderStatus target) {
+            return switch (this) {
+                case PENDING -> target == APPROVED || target == CANCELLED;
+                case APPROVED -> target == ORDERED || target == CANCELLED;
+                case ORDERED -> target == DELIVERED || target == CANCELLED;
+                case DELIVERED, CANCELLED -> false;
+            };
+        }
     }
 }
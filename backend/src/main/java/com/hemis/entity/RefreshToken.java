@@ -0,0 +1,41 @@
+package com.hemis.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single-use refresh token. Only a hash of the token is stored. Tokens rotated from
+ * the same login share a family, so reuse of a spent token can revoke the whole chain.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = @Index(name = "idx_refresh_tokens_family", columnList = "familyId"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long tokenId;
+
+    @Column(unique = true, nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime revokedAt;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
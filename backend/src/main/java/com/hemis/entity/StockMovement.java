@@ -0,0 +1,42 @@
+package com.hemis.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "stock_movements", indexes = @Index(name = "idx_stock_movements_medicine_created", columnList = "medicine_id, createdAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovement {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movement_seq")
+    @SequenceGenerator(name = "stock_movement_seq", sequenceName = "stock_movements_seq", allocationSize = 50)
+    private Long movementId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "medicine_id", nullable = false)
+    private Medicine medicine;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MovementType type;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    private String reference;
+
+    private String performedBy;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public enum MovementType {
+        DISPENSE, RECEIVE
+    }
+}
@@ -1,15 +1,26 @@
 package com.hemis.entity;
 
+import com.hemis.listener.DashboardCountersListener;
+import com.hemis.listener.NameSearchIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
+/**
+ * Reference data read with almost every medicine, equipment and order, so it is kept in
+ * the second-level cache.
+ */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners({DashboardCountersListener.class, NameSearchIndexListener.class})
 @Table(name = "suppliers")
 @Data
 @NoArgsConstructor
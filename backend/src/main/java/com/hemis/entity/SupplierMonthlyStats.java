@@ -0,0 +1,50 @@
+package com.hemis.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Purchase order rollup for one supplier and calendar month (by order date). Cancelled
+ * orders are left out; lead time covers delivered orders only.
+ */
+@Entity
+@Table(name = "supplier_monthly_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupplierMonthlyStats {
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private Long orderCount;
+
+    @Column(nullable = false)
+    private Double totalSpend;
+
+    @Column(nullable = false)
+    private Long deliveredCount;
+
+    /** Sum of delivery minus order date, in days, over the delivered orders. */
+    @Column(nullable = false)
+    private Long leadTimeDays;
+
+    private LocalDateTime updatedAt;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long supplierId;
+
+        /** First day of the month. */
+        private LocalDate monthStart;
+    }
+}
@@ -0,0 +1,44 @@
+package com.hemis.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A revoked access token (by token ID) or a revocation of every token a user was issued
+ * up to {@code issuedBefore}. Kept until the covered tokens would have expired anyway.
+ */
+@Entity
+@Table(name = "token_revocations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long revocationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RevocationType type;
+
+    /** Token ID for TOKEN revocations, username for USER revocations. */
+    @Column(nullable = false)
+    private String subject;
+
+    /** Issued-at second at or before which a user's tokens are revoked. */
+    private Long issuedBefore;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public enum RevocationType {
+        TOKEN, USER
+    }
+}
@@ -0,0 +1,153 @@
+package com.hemis.index;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Live batches (active, in stock) of each medicine, grouped by normalized name and
+ * category and ordered first-expired-first-out. Kept in sync by
+ * {@link com.hemis.listener.FefoIndexListener} and by the stock service after quantity
+ * updates. It only says which batches to look at and in what order; quantities are
+ * always re-read under lock before anything is allocated.
+ * <p>
+ * Only this node's writes reach it, so it is reloaded from the database periodically. Writes
+ * made while a reload reads its snapshot are tracked and re-applied on top of it.
+ */
+@Component
+public class FefoIndex {
+    
+    private static final Comparator<Batch> FEFO_ORDER =
+            Comparator.comparingLong(Batch::expiryDay).thenComparingLong(Batch::id);
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, NavigableSet<Batch>> batchesByKey = new HashMap<>();
+    private final Map<Long, Batch> batchById = new HashMap<>();
+    private volatile boolean loaded = false;
+    /** Batches written since the running reload started (null = removed); null when none runs. */
+    private Map<Long, Batch> touched;
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    /** Grouping key for batches of the same medicine: trimmed, case-insensitive name and category. */
+    public static String key(String name, String category) {
+        return normalize(name) + '\u0000' + normalize(category);
+    }
+    
+    public static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Records a batch; {@code live == false} (inactive or out of stock) removes it.
+     */
+    public void put(long medicineId, String name, String category, LocalDate expiryDate, boolean live) {
+        lock.writeLock().lock();
+        try {
+            Batch previous = batchById.remove(medicineId);
+            if (previous != null) {
+                NavigableSet<Batch> batches = batchesByKey.get(previous.key());
+                if (batches != null && batches.remove(previous) && batches.isEmpty()) {
+                    batchesByKey.remove(previous.key());
+                }
+            }
+            Batch current = live && expiryDate != null
+                    ? new Batch(medicineId, expiryDate.toEpochDay(), key(name, category))
+                    : null;
+            if (current != null) {
+                add(current);
+            }
+            if (touched != null) {
+                touched.put(medicineId, current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long medicineId) {
+        put(medicineId, null, null, null, false);
+    }
+    
+    /** Starts tracking live writes so that {@link #load(Iterable)} can keep them. */
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            if (touched == null) {
+                touched = new HashMap<>();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** Replaces the whole index with the given live batches; writes seen since {@link #beginLoad()} win. */
+    public void load(Iterable<LiveBatch> batches) {
+        lock.writeLock().lock();
+        try {
+            batchesByKey.clear();
+            batchById.clear();
+            Map<Long, Batch> live = touched;
+            touched = null;
+            for (LiveBatch batch : batches) {
+                if (live == null || !live.containsKey(batch.id())) {
+                    add(new Batch(batch.id(), batch.expiryDate().toEpochDay(), key(batch.name(), batch.category())));
+                }
+            }
+            if (live != null) {
+                live.values().stream().filter(Objects::nonNull).forEach(this::add);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** IDs of live batches for the key expiring on or after {@code notBefore}, in FEFO order. */
+    public long[] candidates(String key, LocalDate notBefore) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Batch> batches = batchesByKey.get(key);
+            if (batches == null) {
+                return new long[0];
+            }
+            NavigableSet<Batch> usable = batches.tailSet(new Batch(Long.MIN_VALUE, notBefore.toEpochDay(), key), true);
+            long[] ids = new long[usable.size()];
+            int i = 0;
+            for (Batch batch : usable) {
+                ids[i++] = batch.id();
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return batchById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void add(Batch batch) {
+        batchById.put(batch.id(), batch);
+        batchesByKey.computeIfAbsent(batch.key(), k -> new TreeSet<>(FEFO_ORDER)).add(batch);
+    }
+    
+    public record LiveBatch(long id, String name, String category, LocalDate expiryDate) {}
+    
+    private record Batch(long id, long expiryDay, String key) {}
+}
@@ -0,0 +1,184 @@
+package com.hemis.index;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Active equipment ordered by next maintenance date, kept in sync by
+ * {@link com.hemis.listener.MaintenanceScheduleListener}.
+ * <p>
+ * Two sorted sets share the same (date, ID) slots: one holds every dated item and answers
+ * "due before" questions; the other is the scheduling queue, from which due items are
+ * polled once. An item re-enters the queue only when its date changes.
+ * <p>
+ * The index is reloaded from the database periodically. A reload keeps the queue state of
+ * items whose date it confirms, and writes made while it reads are re-applied on top of it.
+ */
+@Component
+public class MaintenanceScheduleIndex {
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeSet<Slot> byDate = new TreeSet<>();
+    private final TreeSet<Slot> queue = new TreeSet<>();
+    private final Map<Long, Long> dayById = new HashMap<>();
+    private volatile boolean loaded = false;
+    /** Dates written since the running reload started (null = removed); null when none runs. */
+    private Map<Long, LocalDate> touched;
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    /**
+     * Records the equipment's next maintenance date; a {@code null} date (or inactive
+     * equipment, which callers pass as {@code null}) removes it.
+     */
+    public void put(long equipmentId, LocalDate nextMaintenanceDate) {
+        lock.writeLock().lock();
+        try {
+            if (touched != null) {
+                touched.put(equipmentId, nextMaintenanceDate);
+            }
+            Long day = nextMaintenanceDate == null ? null : nextMaintenanceDate.toEpochDay();
+            Long previousDay = day == null ? dayById.remove(equipmentId) : dayById.put(equipmentId, day);
+            if (Objects.equals(previousDay, day)) {
+                return;
+            }
+            if (previousDay != null) {
+                Slot previous = new Slot(previousDay, equipmentId);
+                byDate.remove(previous);
+                queue.remove(previous);
+            }
+            if (day != null) {
+                Slot slot = new Slot(day, equipmentId);
+                byDate.add(slot);
+                queue.add(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long equipmentId) {
+        put(equipmentId, null);
+    }
+    
+    /** Starts tracking live writes so that {@link #load(Map)} can keep them. */
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            if (touched == null) {
+                touched = new HashMap<>();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Replaces the whole index. {@code dates} maps equipment ID to next maintenance date for
+     * active equipment only; writes seen since {@link #beginLoad()} win over it. On the first
+     * load every item is queued; later loads queue only items that are new or have moved.
+     */
+    public void load(Map<Long, LocalDate> dates) {
+        lock.writeLock().lock();
+        try {
+            Map<Long, LocalDate> live = touched;
+            touched = null;
+            Map<Long, Long> days = new HashMap<>();
+            dates.forEach((id, date) -> {
+                if (live == null || !live.containsKey(id)) {
+                    days.put(id, date.toEpochDay());
+                }
+            });
+            if (live != null) {
+                live.forEach((id, date) -> {
+                    if (date != null) {
+                        days.put(id, date.toEpochDay());
+                    }
+                });
+            }
+            List<Slot> queued = new ArrayList<>();
+            byDate.clear();
+            days.forEach((id, day) -> {
+                Slot slot = new Slot(day, id);
+                byDate.add(slot);
+                if (!loaded || !day.equals(dayById.get(id)) || queue.contains(slot)) {
+                    queued.add(slot);
+                }
+            });
+            queue.clear();
+            queue.addAll(queued);
+            dayById.clear();
+            dayById.putAll(days);
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** Takes up to {@code max} queued items due on or before {@code horizon}, earliest first. */
+    public List<Slot> pollDue(LocalDate horizon, int max) {
+        lock.writeLock().lock();
+        try {
+            List<Slot> due = new ArrayList<>();
+            long last = horizon.toEpochDay();
+            while (due.size() < max && !queue.isEmpty() && queue.first().day() <= last) {
+                due.add(queue.pollFirst());
+            }
+            return due;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** Puts polled items back, for when scheduling them failed, unless their date has moved on. */
+    public void requeue(Collection<Slot> slots) {
+        lock.writeLock().lock();
+        try {
+            for (Slot slot : slots) {
+                if (Objects.equals(dayById.get(slot.equipmentId()), slot.day())) {
+                    queue.add(slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** Equipment whose next maintenance date is before {@code date}, earliest first. */
+    public List<Long> dueBefore(LocalDate date) {
+        lock.readLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            for (Slot slot : byDate.headSet(new Slot(date.toEpochDay(), Long.MIN_VALUE), false)) {
+                ids.add(slot.equipmentId());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public record Slot(long day, long equipmentId) implements Comparable<Slot> {
+        
+        public LocalDate date() {
+            return LocalDate.ofEpochDay(day);
+        }
+        
+        @Override
+        public int compareTo(Slot other) {
+            int byDay = Long.compare(day, other.day);
+            return byDay != 0 ? byDay : Long.compare(equipmentId, other.equipmentId);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.hemis.index;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Active medicine IDs bucketed by expiry epoch-day, kept in sync by
+ * {@link com.hemis.listener.MedicineExpiryIndexListener}. Answers "expiring between" and
+ * "already expired" questions, including paging, without touching the database.
+ * Results are ordered by expiry date, then by ID.
+ * <p>
+ * The index is reloaded from the database periodically. Writes made while a reload reads
+ * its snapshot are tracked and re-applied on top of it, so the reload cannot undo them.
+ */
+@Component
+public class MedicineExpiryIndex {
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Long, IdBucket> buckets = new TreeMap<>();
+    private final Map<Long, Long> dayById = new HashMap<>();
+    private volatile boolean loaded = false;
+    /** Expiry dates written since the running reload started (null = removed); null when none runs. */
+    private Map<Long, LocalDate> touched;
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    /**
+     * Records the medicine's current expiry date; a {@code null} date (or an inactive
+     * medicine, which callers pass as {@code null}) removes it from the index.
+     */
+    public void put(long medicineId, LocalDate expiryDate) {
+        lock.writeLock().lock();
+        try {
+            if (touched != null) {
+                touched.put(medicineId, expiryDate);
+            }
+            Long previousDay = expiryDate == null ? dayById.remove(medicineId)
+                    : dayById.put(medicineId, expiryDate.toEpochDay());
+            if (previousDay != null) {
+                IdBucket bucket = buckets.get(previousDay);
+                if (bucket != null && bucket.remove(medicineId) && bucket.size == 0) {
+                    buckets.remove(previousDay);
+                }
+            }
+            if (expiryDate != null) {
+                buckets.computeIfAbsent(expiryDate.toEpochDay(), d -> new IdBucket()).add(medicineId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long medicineId) {
+        put(medicineId, null);
+    }
+    
+    /** Starts tracking live writes so that {@link #load(Map)} can keep them. */
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            if (touched == null) {
+                touched = new HashMap<>();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Replaces the whole index. {@code expiryDates} maps medicine ID to expiry date for
+     * active medicines only; writes seen since {@link #beginLoad()} win over it.
+     */
+    public void load(Map<Long, LocalDate> expiryDates) {
+        lock.writeLock().lock();
+        try {
+            buckets.clear();
+            dayById.clear();
+            Map<Long, LocalDate> live = touched;
+            touched = null;
+            expiryDates.forEach((id, date) -> {
+                if (live == null || !live.containsKey(id)) {
+                    dayById.put(id, date.toEpochDay());
+                    buckets.computeIfAbsent(date.toEpochDay(), d -> new IdBucket()).add(id);
+                }
+            });
+            if (live != null) {
+                live.forEach((id, date) -> {
+                    if (date != null) {
+                        dayById.put(id, date.toEpochDay());
+                        buckets.computeIfAbsent(date.toEpochDay(), d -> new IdBucket()).add(id);
+                    }
+                });
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** Medicines expiring on or between the two dates (inclusive). */
+    public IdPage findExpiringBetween(LocalDate from, LocalDate to, int page, int size) {
+        lock.readLock().lock();
+        try {
+            return page(buckets.subMap(from.toEpochDay(), true, to.toEpochDay(), true), page, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /** Medicines whose expiry date is before the given date. */
+    public IdPage findExpiredBefore(LocalDate date, int page, int size) {
+        lock.readLock().lock();
+        try {
+            return page(buckets.headMap(date.toEpochDay(), false), page, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static IdPage page(NavigableMap<Long, IdBucket> range, int page, int size) {
+        long total = 0;
+        for (IdBucket bucket : range.values()) {
+            total += bucket.size;
+        }
+        long skip = (long) page * size;
+        long[] ids = new long[(int) Math.max(0, Math.min(size, total - skip))];
+        int filled = 0;
+        for (IdBucket bucket : range.values()) {
+            if (filled == ids.length) {
+                break;
+            }
+            if (skip >= bucket.size) {
+                skip -= bucket.size;
+                continue;
+            }
+            int count = (int) Math.min(bucket.size - skip, ids.length - filled);
+            System.arraycopy(bucket.ids, (int) skip, ids, filled, count);
+            filled += count;
+            skip = 0;
+        }
+        return new IdPage(ids, total);
+    }
+    
+    public record IdPage(long[] ids, long total) {}
+    
+    /** Sorted primitive ID set for a single day. */
+    private static final class IdBucket {
+        private long[] ids = new long[4];
+        private int size;
+        
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+        
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.hemis.index;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Trigram indexes over the names of active medicines, equipment and suppliers, kept in sync by
+ * {@link com.hemis.listener.NameSearchIndexListener} and loaded by
+ * {@link com.hemis.service.SearchService}.
+ */
+@Component
+public class NameSearchIndex {
+    
+    private final TrigramIndex medicines = new TrigramIndex();
+    private final TrigramIndex equipment = new TrigramIndex();
+    private final TrigramIndex suppliers = new TrigramIndex();
+    private volatile boolean loaded = false;
+    
+    public TrigramIndex medicines() {
+        return medicines;
+    }
+    
+    public TrigramIndex equipment() {
+        return equipment;
+    }
+    
+    public TrigramIndex suppliers() {
+        return suppliers;
+    }
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    public void markLoaded() {
+        loaded = true;
+    }
+}
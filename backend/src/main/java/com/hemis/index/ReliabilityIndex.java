@@ -0,0 +1,249 @@
+package com.hemis.index;
+
+import com.hemis.entity.MaintenanceRecord.MaintenanceStatus;
+import com.hemis.entity.MaintenanceRecord.MaintenanceType;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maintenance history rolled up per equipment, category and location, kept in sync by
+ * {@link com.hemis.listener.ReliabilityIndexListener}.
+ * <p>
+ * Only work that happened counts: SCHEDULED and CANCELLED records are ignored. REPAIR and
+ * EMERGENCY records are failures. Each asset keeps its record facts and failure dates,
+ * so any write is applied by taking the asset's contribution out of its category and
+ * location totals and putting the new one back. Every figure is additive, so reading
+ * an asset or a group never walks its history.
+ */
+@Component
+public class ReliabilityIndex {
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, RecordFacts> records = new HashMap<>();
+    private final Map<Long, Asset> assets = new HashMap<>();
+    private final Map<String, Totals> byCategory = new HashMap<>();
+    private final Map<String, Totals> byLocation = new HashMap<>();
+    private volatile boolean loaded = false;
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    public void equipmentSaved(long equipmentId, String category, String location, LocalDate purchaseDate) {
+        lock.writeLock().lock();
+        try {
+            Asset asset = asset(equipmentId);
+            Totals previous = asset.totals();
+            addToGroups(asset, previous, -1);
+            asset.category = category;
+            asset.location = location;
+            asset.purchaseDay = purchaseDate == null ? null : purchaseDate.toEpochDay();
+            addToGroups(asset, asset.totals(), 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void recordSaved(long recordId, Long equipmentId, LocalDate maintenanceDate, MaintenanceType type,
+                            MaintenanceStatus status, Double cost) {
+        RecordFacts facts = equipmentId == null || maintenanceDate == null ? null
+                : facts(equipmentId, maintenanceDate, type, status, cost);
+        lock.writeLock().lock();
+        try {
+            apply(recordId, facts);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public static RecordFacts facts(long equipmentId, LocalDate maintenanceDate, MaintenanceType type,
+                                    MaintenanceStatus status, Double cost) {
+        return new RecordFacts(equipmentId, maintenanceDate.toEpochDay(),
+                type == MaintenanceType.REPAIR || type == MaintenanceType.EMERGENCY,
+                status == MaintenanceStatus.IN_PROGRESS || status == MaintenanceStatus.COMPLETED,
+                cost == null ? 0.0 : cost);
+    }
+    
+    public void recordRemoved(long recordId) {
+        lock.writeLock().lock();
+        try {
+            apply(recordId, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** Replaces all state; equipment first, so records land in the right groups. */
+    public void load(List<EquipmentFacts> equipment, Map<Long, RecordFacts> recordFacts) {
+        lock.writeLock().lock();
+        try {
+            records.clear();
+            assets.clear();
+            byCategory.clear();
+            byLocation.clear();
+            for (EquipmentFacts row : equipment) {
+                Asset asset = asset(row.equipmentId());
+                asset.category = row.category();
+                asset.location = row.location();
+                asset.purchaseDay = row.purchaseDate() == null ? null : row.purchaseDate().toEpochDay();
+            }
+            recordFacts.forEach((id, facts) -> {
+                records.put(id, facts);
+                asset(facts.equipmentId()).add(facts, 1);
+            });
+            for (Asset asset : assets.values()) {
+                addToGroups(asset, asset.totals(), 1);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public Totals forEquipment(long equipmentId) {
+        lock.readLock().lock();
+        try {
+            Asset asset = assets.get(equipmentId);
+            return asset == null ? null : asset.totals();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public Map<String, Totals> byCategory() {
+        lock.readLock().lock();
+        try {
+            return new TreeMap<>(byCategory);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public Map<String, Totals> byLocation() {
+        lock.readLock().lock();
+        try {
+            return new TreeMap<>(byLocation);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void apply(long recordId, RecordFacts facts) {
+        RecordFacts previous = facts == null ? records.remove(recordId) : records.put(recordId, facts);
+        if (previous != null) {
+            update(asset(previous.equipmentId()), previous, -1);
+        }
+        if (facts != null) {
+            update(asset(facts.equipmentId()), facts, 1);
+        }
+    }
+    
+    private void update(Asset asset, RecordFacts facts, int sign) {
+        addToGroups(asset, asset.totals(), -1);
+        asset.add(facts, sign);
+        addToGroups(asset, asset.totals(), 1);
+    }
+    
+    private Asset asset(long equipmentId) {
+        return assets.computeIfAbsent(equipmentId, id -> new Asset());
+    }
+    
+    private void addToGroups(Asset asset, Totals totals, int sign) {
+        addToGroup(byCategory, asset.category, totals, sign);
+        addToGroup(byLocation, asset.location, totals, sign);
+    }
+    
+    private static void addToGroup(Map<String, Totals> groups, String key, Totals totals, int sign) {
+        if (key == null || key.isBlank()) {
+            return;
+        }
+        Totals sum = groups.getOrDefault(key, Totals.ZERO).plus(totals, sign);
+        if (sum.assetCount() == 0) {
+            groups.remove(key);
+        } else {
+            groups.put(key, sum);
+        }
+    }
+    
+    public record EquipmentFacts(long equipmentId, String category, String location, LocalDate purchaseDate) {}
+    
+    /** The fields of a maintenance record that the rollups depend on. */
+    public record RecordFacts(long equipmentId, long day, boolean failure, boolean performed, double cost) {}
+    
+    /**
+     * Additive figures for an asset or a group of assets. Failure intervals are pooled, so a
+     * group's MTBF is the mean gap between consecutive failures across its assets.
+     * {@code serviceStartDaySum} and {@code servicedAssets} give the total time in service
+     * at any later date without revisiting the assets. {@code lastFailureDay} is only set
+     * for a single asset.
+     */
+    public record Totals(long assetCount, long maintenanceCount, double totalCost, long failureCount,
+                         long failureIntervalDays, long failureIntervals, Long lastFailureDay,
+                         long serviceStartDaySum, long servicedAssets) {
+        
+        static final Totals ZERO = new Totals(0, 0, 0.0, 0, 0, 0, null, 0, 0);
+        
+        Totals plus(Totals other, int sign) {
+            return new Totals(assetCount + sign * other.assetCount, maintenanceCount + sign * other.maintenanceCount,
+                    totalCost + sign * other.totalCost, failureCount + sign * other.failureCount,
+                    failureIntervalDays + sign * other.failureIntervalDays,
+                    failureIntervals + sign * other.failureIntervals, null,
+                    serviceStartDaySum + sign * other.serviceStartDaySum, servicedAssets + sign * other.servicedAssets);
+        }
+        
+        /** Mean days between consecutive failures, or null with fewer than two failures. */
+        public Double mtbfDays() {
+            return failureIntervals == 0 ? null : (double) failureIntervalDays / failureIntervals;
+        }
+        
+        /** Performed maintenance per year in service up to {@code today}. */
+        public Double maintenancePerYear(LocalDate today) {
+            long serviceDays = servicedAssets * today.toEpochDay() - serviceStartDaySum;
+            return serviceDays <= 0 ? null : maintenanceCount * 365.25 / serviceDays;
+        }
+    }
+    
+    /** Per-equipment state. Service starts at the purchase date, else at the first performed record. */
+    private static final class Asset {
+        private String category;
+        private String location;
+        private Long purchaseDay;
+        private long maintenanceCount;
+        private double totalCost;
+        private final TreeMap<Long, Integer> performedDays = new TreeMap<>();
+        private final TreeMap<Long, Integer> failureDays = new TreeMap<>();
+        private long failureCount;
+        
+        void add(RecordFacts facts, int sign) {
+            if (!facts.performed()) {
+                return;
+            }
+            maintenanceCount += sign;
+            totalCost += sign * facts.cost();
+            count(performedDays, facts.day(), sign);
+            if (facts.failure()) {
+                failureCount += sign;
+                count(failureDays, facts.day(), sign);
+            }
+        }
+        
+        Totals totals() {
+            long intervals = Math.max(0, failureCount - 1);
+            long intervalDays = intervals == 0 ? 0 : failureDays.lastKey() - failureDays.firstKey();
+            Long start = purchaseDay != null ? purchaseDay : performedDays.isEmpty() ? null : performedDays.firstKey();
+            return new Totals(1, maintenanceCount, totalCost, failureCount, intervalDays, intervals,
+                    failureDays.isEmpty() ? null : failureDays.lastKey(),
+                    start == null ? 0 : start, start == null ? 0 : 1);
+        }
+        
+        private static void count(TreeMap<Long, Integer> days, long day, int sign) {
+            days.merge(day, sign, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+}
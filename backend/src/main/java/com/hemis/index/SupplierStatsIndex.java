@@ -0,0 +1,285 @@
+package com.hemis.index;
+
+import com.hemis.entity.PurchaseOrder;
+import com.hemis.entity.PurchaseOrder.OrderStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-supplier monthly purchase order totals, kept current by
+ * {@link com.hemis.listener.SupplierStatsListener} and bulk status changes. They are not
+ * read directly: they feed the deltas flushed to the rollup table and its nightly rewrite.
+ * <p>
+ * The facts that feed the totals are kept per order, so an update is applied as a delta:
+ * the order's old contribution is subtracted and its new one added. The deltas are also
+ * summed per bucket until they are added to the rollup table, which every node writes to.
+ * A node can only compute a delta for an order it knows, so orders written elsewhere are
+ * learned, without a delta, when they are loaded, before this node changes them.
+ * A rebuild replaces the totals but keeps those pending deltas, since it does not touch
+ * the table; orders written while it runs keep their live facts rather than the rebuilt ones.
+ */
+@Component
+public class SupplierStatsIndex {
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, OrderFacts> orders = new ConcurrentHashMap<>();
+    private final Map<Long, ConcurrentSkipListMap<YearMonth, Totals>> suppliers = new ConcurrentHashMap<>();
+    /** Changes per bucket not yet added to the rollup table. */
+    private final Map<Bucket, Totals> pending = new ConcurrentHashMap<>();
+    
+    /** Orders written since the running rebuild started; null when no rebuild is running. */
+    private Set<Long> touched = ConcurrentHashMap.newKeySet();
+    /** Status changes for orders the index did not know yet, replayed onto the rebuild. */
+    private Map<Long, OrderFacts> pendingStatus = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    public void orderSaved(PurchaseOrder order) {
+        put(order.getOrderId(), OrderFacts.of(order));
+    }
+    
+    /**
+     * Learns an order as it is in the database, unless it is already known. The table
+     * already counts it, so no delta is recorded.
+     */
+    public void orderLoaded(Long orderId, OrderFacts facts) {
+        lock.readLock().lock();
+        try {
+            if (orders.putIfAbsent(orderId, facts) == null) {
+                add(facts, 1, false);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public boolean knows(Long orderId) {
+        return orders.containsKey(orderId);
+    }
+    
+    /**
+     * For bulk status updates, which bypass entity listeners. A non-null {@code deliveryDate}
+     * fills in a missing delivery date, as the update itself does.
+     */
+    public void orderStatusChanged(Long orderId, OrderStatus status, LocalDate deliveryDate) {
+        lock.readLock().lock();
+        try {
+            OrderFacts previous = orders.get(orderId);
+            if (previous != null) {
+                apply(orderId, previous.withStatus(status, deliveryDate));
+            } else if (touched != null) {
+                pendingStatus.merge(orderId, new OrderFacts(null, null, deliveryDate, null, status),
+                        (older, newer) -> older.withStatus(newer.status(), newer.deliveryDate()));
+                touched.add(orderId);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public void orderRemoved(Long orderId) {
+        put(orderId, null);
+    }
+    
+    /** Starts tracking live writes so that {@link #replace(Map)} can keep them. */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            if (touched == null) {
+                touched = ConcurrentHashMap.newKeySet();
+                pendingStatus = new ConcurrentHashMap<>();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** Replaces all totals with facts read from the database. */
+    public void replace(Map<Long, OrderFacts> rebuilt) {
+        lock.writeLock().lock();
+        try {
+            Map<Long, OrderFacts> facts = new HashMap<>(rebuilt);
+            if (touched != null) {
+                for (Long id : touched) {
+                    OrderFacts live = orders.get(id);
+                    OrderFacts status = pendingStatus.get(id);
+                    if (live != null) {
+                        facts.put(id, live);
+                    } else if (status != null && facts.containsKey(id)) {
+                        facts.put(id, facts.get(id).withStatus(status.status(), status.deliveryDate()));
+                    } else if (status == null) {
+                        facts.remove(id);
+                    }
+                }
+            }
+            touched = null;
+            pendingStatus = new ConcurrentHashMap<>();
+            orders.clear();
+            suppliers.clear();
+            facts.forEach((id, fact) -> {
+                orders.put(id, fact);
+                add(fact, 1, false);
+            });
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Every non-empty bucket, for rewriting the rollup table, together with the pending
+     * deltas, which the rewritten table already includes. Both are taken at one instant.
+     */
+    public Snapshot takeSnapshot() {
+        lock.writeLock().lock();
+        try {
+            Map<Bucket, Totals> buckets = new HashMap<>();
+            suppliers.forEach((supplierId, months) ->
+                    months.forEach((month, totals) -> buckets.put(new Bucket(supplierId, month), totals)));
+            return new Snapshot(buckets, drainDeltas());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** Takes the changes made since the last call, per bucket. */
+    public Map<Bucket, Totals> drainDeltas() {
+        Map<Bucket, Totals> deltas = new HashMap<>();
+        for (Bucket key : new ArrayList<>(pending.keySet())) {
+            Totals delta = pending.remove(key);
+            if (delta != null) {
+                deltas.put(key, delta);
+            }
+        }
+        return deltas;
+    }
+    
+    /** Puts deltas back for the next flush after a failed write. */
+    public void restoreDeltas(Map<Bucket, Totals> deltas) {
+        deltas.forEach(this::addPending);
+    }
+    
+    private void put(Long orderId, OrderFacts facts) {
+        lock.readLock().lock();
+        try {
+            apply(orderId, facts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void apply(Long orderId, OrderFacts facts) {
+        OrderFacts previous = facts == null ? orders.remove(orderId) : orders.put(orderId, facts);
+        if (touched != null) {
+            touched.add(orderId);
+            if (facts == null) {
+                pendingStatus.remove(orderId);
+            }
+        }
+        if (previous != null) {
+            add(previous, -1, true);
+        }
+        if (facts != null) {
+            add(facts, 1, true);
+        }
+    }
+    
+    private void add(OrderFacts facts, int sign, boolean pendingWrite) {
+        if (facts.supplierId() == null || facts.orderDate() == null) {
+            return;
+        }
+        Totals delta = facts.totals();
+        if (delta.isEmpty()) {
+            return;
+        }
+        YearMonth month = YearMonth.from(facts.orderDate());
+        Totals change = sign > 0 ? delta : delta.negate();
+        suppliers.computeIfAbsent(facts.supplierId(), id -> new ConcurrentSkipListMap<>())
+                .merge(month, change, (current, next) -> {
+                    Totals sum = current.plus(next);
+                    return sum.isEmpty() ? null : sum;
+                });
+        if (pendingWrite) {
+            addPending(new Bucket(facts.supplierId(), month), change);
+        }
+    }
+    
+    private void addPending(Bucket bucket, Totals change) {
+        pending.merge(bucket, change, (current, next) -> {
+            Totals sum = current.plus(next);
+            return sum.isZero() ? null : sum;
+        });
+    }
+    
+    public record Bucket(Long supplierId, YearMonth month) {}
+    
+    public record Snapshot(Map<Bucket, Totals> buckets, Map<Bucket, Totals> deltas) {}
+    
+    /** The fields of an order that its rollup contribution depends on. */
+    public record OrderFacts(Long supplierId, LocalDate orderDate, LocalDate deliveryDate, Double totalAmount,
+                             OrderStatus status) {
+        
+        public static OrderFacts of(PurchaseOrder order) {
+            Long supplierId = order.getSupplier() != null ? order.getSupplier().getSupplierId() : null;
+            return new OrderFacts(supplierId, order.getOrderDate(), order.getDeliveryDate(), order.getTotalAmount(),
+                    order.getStatus());
+        }
+        
+        OrderFacts withStatus(OrderStatus newStatus, LocalDate fillDeliveryDate) {
+            return new OrderFacts(supplierId, orderDate, deliveryDate != null ? deliveryDate : fillDeliveryDate,
+                    totalAmount, newStatus);
+        }
+        
+        Totals totals() {
+            if (status == OrderStatus.CANCELLED) {
+                return Totals.ZERO;
+            }
+            double spend = totalAmount != null ? totalAmount : 0.0;
+            if (status == OrderStatus.DELIVERED && deliveryDate != null) {
+                long leadDays = Math.max(0, ChronoUnit.DAYS.between(orderDate, deliveryDate));
+                return new Totals(1, spend, 1, leadDays);
+            }
+            return new Totals(1, spend, 0, 0);
+        }
+    }
+    
+    public record Totals(long orderCount, double totalSpend, long deliveredCount, long leadTimeDays) {
+        
+        public static final Totals ZERO = new Totals(0, 0.0, 0, 0);
+        
+        public Totals plus(Totals other) {
+            return new Totals(orderCount + other.orderCount, totalSpend + other.totalSpend,
+                    deliveredCount + other.deliveredCount, leadTimeDays + other.leadTimeDays);
+        }
+        
+        Totals negate() {
+            return new Totals(-orderCount, -totalSpend, -deliveredCount, -leadTimeDays);
+        }
+        
+        public boolean isEmpty() {
+            return orderCount == 0 && deliveredCount == 0;
+        }
+        
+        /** Unlike {@link #isEmpty()}, also requires the spend and lead time to cancel out. */
+        boolean isZero() {
+            return isEmpty() && totalSpend == 0.0 && leadTimeDays == 0;
+        }
+        
+        public Double averageLeadTimeDays() {
+            return deliveredCount == 0 ? null : (double) leadTimeDays / deliveredCount;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.hemis.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process trigram inverted index over entity names. Each indexed ID is mapped to a dense int
+ * ordinal and every trigram keeps a sorted int posting list of ordinals.
+ * <p>
+ * Results are ranked in tiers: exact match, prefix (of the name or of one of its words),
+ * substring, and finally typo-tolerant matches whose trigram similarity is at least
+ * {@link #MIN_SIMILARITY}. Within a tier, higher trigram similarity ranks first.
+ * <p>
+ * Names are padded at their ends only, so a query of fewer than {@link #MIN_QUERY_LENGTH}
+ * characters cannot be found in the middle of a word; callers send those to the database.
+ */
+public class TrigramIndex {
+    
+    static final double MIN_SIMILARITY = 0.3;
+    public static final int MIN_QUERY_LENGTH = 3;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IntPostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private long[] idByOrdinal = new long[16];
+    private String[] nameByOrdinal = new String[16];
+    private int[] trigramCountByOrdinal = new int[16];
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+    private int ordinalLimit;
+    
+    /**
+     * Indexes (or re-indexes) a name; a {@code null} name removes the ID.
+     */
+    public void put(long id, String name) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinalById.get(id);
+            if (existing != null) {
+                if (name != null && normalize(name).equals(nameByOrdinal[existing])) {
+                    return;
+                }
+                unindex(id, existing);
+            }
+            if (name != null) {
+                index(id, name);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long id) {
+        put(id, null);
+    }
+    
+    public void load(Map<Long, String> names) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            ordinalById.clear();
+            freeCount = 0;
+            ordinalLimit = 0;
+            names.forEach(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /** Whether the query is long enough for {@link #search} to find every substring match. */
+    public static boolean isSearchable(String query) {
+        return normalize(query).length() >= MIN_QUERY_LENGTH;
+    }
+    
+    /**
+     * Returns up to {@code limit} IDs, best match first.
+     */
+    public List<Long> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<String> queryTrigrams = trigrams(normalized);
+        
+        lock.readLock().lock();
+        try {
+            // Sized by the postings to scan rather than by the whole index
+            int candidates = 0;
+            List<IntPostingList> lists = new ArrayList<>(queryTrigrams.size());
+            for (String trigram : queryTrigrams) {
+                IntPostingList list = postings.get(trigram);
+                if (list != null) {
+                    lists.add(list);
+                    candidates += list.size;
+                }
+            }
+            OverlapCounts overlap = new OverlapCounts(Math.min(candidates, ordinalById.size()));
+            for (IntPostingList list : lists) {
+                for (int i = 0; i < list.size; i++) {
+                    overlap.increment(list.ordinals[i]);
+                }
+            }
+            
+            List<Hit> hits = new ArrayList<>();
+            for (int i = 0; i < overlap.size; i++) {
+                int ordinal = overlap.ordinals[i];
+                String name = nameByOrdinal[ordinal];
+                int shared = overlap.counts[i];
+                double similarity = (double) shared
+                        / (queryTrigrams.size() + trigramCountByOrdinal[ordinal] - shared);
+                int tier = tier(name, normalized);
+                if (tier > 0 || similarity >= MIN_SIMILARITY) {
+                    hits.add(new Hit(idByOrdinal[ordinal], tier, similarity));
+                }
+            }
+            hits.sort((a, b) -> a.tier != b.tier ? Integer.compare(b.tier, a.tier)
+                    : a.similarity != b.similarity ? Double.compare(b.similarity, a.similarity)
+                    : Long.compare(a.id, b.id));
+            
+            List<Long> ids = new ArrayList<>(Math.min(limit, hits.size()));
+            for (int i = 0; i < hits.size() && i < limit; i++) {
+                ids.add(hits.get(i).id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void index(long id, String name) {
+        String normalized = normalize(name);
+        int ordinal = freeCount > 0 ? freeOrdinals[--freeCount] : ordinalLimit++;
+        if (ordinal >= idByOrdinal.length) {
+            int capacity = idByOrdinal.length * 2;
+            idByOrdinal = Arrays.copyOf(idByOrdinal, capacity);
+            nameByOrdinal = Arrays.copyOf(nameByOrdinal, capacity);
+            trigramCountByOrdinal = Arrays.copyOf(trigramCountByOrdinal, capacity);
+        }
+        Set<String> trigrams = trigrams(normalized);
+        idByOrdinal[ordinal] = id;
+        nameByOrdinal[ordinal] = normalized;
+        trigramCountByOrdinal[ordinal] = trigrams.size();
+        ordinalById.put(id, ordinal);
+        for (String trigram : trigrams) {
+            postings.computeIfAbsent(trigram, t -> new IntPostingList()).add(ordinal);
+        }
+    }
+    
+    private void unindex(long id, int ordinal) {
+        for (String trigram : trigrams(nameByOrdinal[ordinal])) {
+            IntPostingList list = postings.get(trigram);
+            if (list != null && list.remove(ordinal) && list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+        ordinalById.remove(id);
+        nameByOrdinal[ordinal] = null;
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        }
+        freeOrdinals[freeCount++] = ordinal;
+    }
+    
+    private static int tier(String name, String query) {
+        if (name.equals(query)) {
+            return 3;
+        }
+        if (name.startsWith(query) || name.contains(" " + query)) {
+            return 2;
+        }
+        return name.contains(query) ? 1 : 0;
+    }
+    
+    static String normalize(String value) {
+        StringBuilder normalized = new StringBuilder(value.length());
+        boolean space = false;
+        for (char c : value.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                if (space && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+    
+    /**
+     * Trigrams of the name padded with two leading blanks and one trailing blank, so that one-
+     * and two-character prefixes also produce trigrams.
+     */
+    static Set<String> trigrams(String normalized) {
+        String padded = "  " + normalized + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+    
+    private record Hit(long id, int tier, double similarity) {}
+    
+    /**
+     * Shared trigram count per candidate ordinal: an open-addressing table of slots into
+     * insertion-ordered arrays, so a search allocates for its candidates only.
+     */
+    private static final class OverlapCounts {
+        private final int[] slots;
+        private final int mask;
+        private final int[] ordinals;
+        private final int[] counts;
+        private int size;
+        
+        OverlapCounts(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(expected, 4) * 2 - 1) << 1;
+            slots = new int[capacity];
+            mask = capacity - 1;
+            ordinals = new int[Math.max(expected, 1)];
+            counts = new int[ordinals.length];
+        }
+        
+        void increment(int ordinal) {
+            int slot = (ordinal * 0x9E3779B9) & mask;
+            while (slots[slot] != 0) {
+                int index = slots[slot] - 1;
+                if (ordinals[index] == ordinal) {
+                    counts[index]++;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            ordinals[size] = ordinal;
+            counts[size] = 1;
+            slots[slot] = ++size;
+        }
+    }
+    
+    /** Sorted primitive posting list of ordinals. */
+    private static final class IntPostingList {
+        private int[] ordinals = new int[4];
+        private int size;
+        
+        void add(int ordinal) {
+            int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -index - 1;
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            System.arraycopy(ordinals, insertAt, ordinals, insertAt + 1, size - insertAt);
+            ordinals[insertAt] = ordinal;
+            size++;
+        }
+        
+        boolean remove(int ordinal) {
+            int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ordinals, index + 1, ordinals, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
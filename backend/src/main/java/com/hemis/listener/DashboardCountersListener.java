@@ -0,0 +1,54 @@
+package com.hemis.listener;
+
+import com.hemis.entity.Equipment;
+import com.hemis.entity.Medicine;
+import com.hemis.entity.PurchaseOrder;
+import com.hemis.entity.Supplier;
+import com.hemis.service.DashboardCounters;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Feeds entity writes into {@link DashboardCounters}. Instantiated by Hibernate through
+ * Spring's bean container, so it is not a component itself.
+ */
+public class DashboardCountersListener {
+    
+    @Autowired
+    private DashboardCounters dashboardCounters;
+    
+    @PostPersist
+    public void onPersist(Object entity) {
+        if (entity instanceof Supplier) {
+            dashboardCounters.supplierAdded();
+        } else {
+            onUpdate(entity);
+        }
+    }
+    
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        if (entity instanceof Medicine medicine) {
+            dashboardCounters.medicineSaved(medicine);
+        } else if (entity instanceof Equipment equipment) {
+            dashboardCounters.equipmentSaved(equipment);
+        } else if (entity instanceof PurchaseOrder order) {
+            dashboardCounters.orderSaved(order);
+        }
+    }
+    
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Medicine medicine) {
+            dashboardCounters.medicineRemoved(medicine.getMedicineId());
+        } else if (entity instanceof Equipment equipment) {
+            dashboardCounters.equipmentRemoved(equipment.getEquipmentId());
+        } else if (entity instanceof Supplier) {
+            dashboardCounters.supplierRemoved();
+        } else if (entity instanceof PurchaseOrder order) {
+            dashboardCounters.orderRemoved(order.getOrderId());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.hemis.listener;
+
+import com.hemis.entity.Medicine;
+import com.hemis.index.FefoIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Keeps {@link FefoIndex} in sync with medicine writes.
+ */
+public class FefoIndexListener {
+    
+    @Autowired
+    private FefoIndex fefoIndex;
+    
+    @PostPersist
+    @PostUpdate
+    public void onSave(Medicine medicine) {
+        fefoIndex.put(medicine.getMedicineId(), medicine.getName(), medicine.getCategory(),
+                medicine.getExpiryDate(), isLive(medicine));
+    }
+    
+    @PostRemove
+    public void onRemove(Medicine medicine) {
+        fefoIndex.remove(medicine.getMedicineId());
+    }
+    
+    public static boolean isLive(Medicine medicine) {
+        return Boolean.TRUE.equals(medicine.getActive())
+                && medicine.getQuantity() != null && medicine.getQuantity() > 0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.hemis.listener;
+
+import com.hemis.entity.Equipment;
+import com.hemis.index.MaintenanceScheduleIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Keeps {@link MaintenanceScheduleIndex} in sync with equipment writes.
+ */
+public class MaintenanceScheduleListener {
+    
+    @Autowired
+    private MaintenanceScheduleIndex maintenanceScheduleIndex;
+    
+    @PostPersist
+    @PostUpdate
+    public void onSave(Equipment equipment) {
+        maintenanceScheduleIndex.put(equipment.getEquipmentId(),
+                Boolean.TRUE.equals(equipment.getActive()) ? equipment.getNextMaintenanceDate() : null);
+    }
+    
+    @PostRemove
+    public void onRemove(Equipment equipment) {
+        maintenanceScheduleIndex.remove(equipment.getEquipmentId());
+    }
+}
@@ -0,0 +1,29 @@
+package com.hemis.listener;
+
+import com.hemis.entity.Medicine;
+import com.hemis.index.MedicineExpiryIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Keeps {@link MedicineExpiryIndex} in sync with medicine writes.
+ */
+public class MedicineExpiryIndexListener {
+    
+    @Autowired
+    private MedicineExpiryIndex medicineExpiryIndex;
+    
+    @PostPersist
+    @PostUpdate
+    public void onSave(Medicine medicine) {
+        medicineExpiryIndex.put(medicine.getMedicineId(),
+                Boolean.TRUE.equals(medicine.getActive()) ? medicine.getExpiryDate() : null);
+    }
+    
+    @PostRemove
+    public void onRemove(Medicine medicine) {
+        medicineExpiryIndex.remove(medicine.getMedicineId());
+    }
+}
@@ -0,0 +1,50 @@
+package com.hemis.listener;
+
+import com.hemis.entity.Equipment;
+import com.hemis.entity.Medicine;
+import com.hemis.entity.Supplier;
+import com.hemis.index.NameSearchIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Keeps {@link NameSearchIndex} in sync with medicine, equipment and supplier writes.
+ * Inactive rows are removed from the index.
+ */
+public class NameSearchIndexListener {
+    
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+    
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof Medicine medicine) {
+            nameSearchIndex.medicines().put(medicine.getMedicineId(),
+                    activeName(medicine.getActive(), medicine.getName()));
+        } else if (entity instanceof Equipment equipment) {
+            nameSearchIndex.equipment().put(equipment.getEquipmentId(),
+                    activeName(equipment.getActive(), equipment.getName()));
+        } else if (entity instanceof Supplier supplier) {
+            nameSearchIndex.suppliers().put(supplier.getSupplierId(),
+                    activeName(supplier.getActive(), supplier.getName()));
+        }
+    }
+    
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Medicine medicine) {
+            nameSearchIndex.medicines().remove(medicine.getMedicineId());
+        } else if (entity instanceof Equipment equipment) {
+            nameSearchIndex.equipment().remove(equipment.getEquipmentId());
+        } else if (entity instanceof Supplier supplier) {
+            nameSearchIndex.suppliers().remove(supplier.getSupplierId());
+        }
+    }
+    
+    private static String activeName(Boolean active, String name) {
+        return Boolean.TRUE.equals(active) ? name : null;
+    }
+}
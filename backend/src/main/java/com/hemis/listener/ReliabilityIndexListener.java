@@ -0,0 +1,67 @@
+package com.hemis.listener;
+
+import com.hemis.entity.Equipment;
+import com.hemis.entity.MaintenanceRecord;
+import com.hemis.entity.MaintenanceRecord.MaintenanceStatus;
+import com.hemis.entity.MaintenanceRecord.MaintenanceType;
+import com.hemis.index.ReliabilityIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps {@link ReliabilityIndex} in sync with maintenance record and equipment writes.
+ * The callbacks fire at flush, before the transaction commits, so the change is applied
+ * once it does; a rolled-back write never reaches the index.
+ */
+public class ReliabilityIndexListener {
+    
+    @Autowired
+    private ReliabilityIndex reliabilityIndex;
+    
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof MaintenanceRecord record) {
+            long recordId = record.getRecordId();
+            Long equipmentId = record.getEquipment() != null ? record.getEquipment().getEquipmentId() : null;
+            LocalDate maintenanceDate = record.getMaintenanceDate();
+            MaintenanceType type = record.getType();
+            MaintenanceStatus status = record.getStatus();
+            Double cost = record.getCost();
+            afterCommit(() -> reliabilityIndex.recordSaved(recordId, equipmentId, maintenanceDate, type, status, cost));
+        } else if (entity instanceof Equipment equipment) {
+            long equipmentId = equipment.getEquipmentId();
+            String category = equipment.getCategory();
+            String location = equipment.getLocation();
+            LocalDate purchaseDate = equipment.getPurchaseDate();
+            afterCommit(() -> reliabilityIndex.equipmentSaved(equipmentId, category, location, purchaseDate));
+        }
+    }
+    
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof MaintenanceRecord record) {
+            long recordId = record.getRecordId();
+            afterCommit(() -> reliabilityIndex.recordRemoved(recordId));
+        }
+    }
+    
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.hemis.listener;
+
+import com.hemis.entity.PurchaseOrder;
+import com.hemis.index.SupplierStatsIndex;
+import com.hemis.index.SupplierStatsIndex.OrderFacts;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Keeps {@link SupplierStatsIndex} in sync with purchase order writes, and tells it about
+ * orders it may not know yet as they are loaded.
+ */
+public class SupplierStatsListener {
+    
+    @Autowired
+    private SupplierStatsIndex supplierStatsIndex;
+    
+    @PostLoad
+    public void onLoad(PurchaseOrder order) {
+        supplierStatsIndex.orderLoaded(order.getOrderId(), OrderFacts.of(order));
+    }
+    
+    @PostPersist
+    @PostUpdate
+    public void onSave(PurchaseOrder order) {
+        supplierStatsIndex.orderSaved(order);
+    }
+    
+    @PostRemove
+    public void onRemove(PurchaseOrder order) {
+        supplierStatsIndex.orderRemoved(order.getOrderId());
+    }
+}
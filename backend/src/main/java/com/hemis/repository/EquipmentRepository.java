@@ -1,20 +1,78 @@
 package com.hemis.repository;
 
 import com.hemis.entity.Equipment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
     List<Equipment> findByActiveTrue();
+    
+    List<Equipment> findByActiveTrueOrderByNameAscEquipmentIdAsc(Limit limit);
+    
+    @Query("SELECT e FROM Equipment e WHERE e.active = true " +
+           "AND (e.name > :name OR (e.name = :name AND e.equipmentId > :id)) ORDER BY e.name, e.equipmentId")
+    List<Equipment> findActivePageAfter(String name, Long id, Limit limit);
+    
     List<Equipment> findByStatus(Equipment.EquipmentStatus status);
     List<Equipment> findByCategory(String category);
     List<Equipment> findByNameContainingIgnoreCase(String name);
     
+    List<Equipment> findByNameContainingIgnoreCaseAndActiveTrue(String name, Limit limit);
+    
+    /** Loads the given equipment in one query, for building list views; suppliers come from the second-level cache. */
+    List<Equipment> findByEquipmentIdIn(Collection<Long> ids);
+    
+    @Query("SELECT e.equipmentId AS id, e.name AS name FROM Equipment e WHERE e.active = true")
+    List<NameRow> findActiveNames();
+    
     @Query("SELECT e FROM Equipment e WHERE e.nextMaintenanceDate < :date AND e.active = true")
     List<Equipment> findMaintenanceDue(LocalDate date);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Equipment e LEFT JOIN FETCH e.supplier ORDER BY e.equipmentId")
+    Stream<Equipment> streamAll();
+    
+    @Query("SELECT COUNT(e) AS total, " +
+           "COALESCE(SUM(CASE WHEN e.nextMaintenanceDate < :dueDate AND e.active = true THEN 1 ELSE 0 END), 0) AS maintenanceDue " +
+           "FROM Equipment e")
+    EquipmentStats getStats(LocalDate dueDate);
+    
+    @Query("SELECT e.equipmentId AS id, e.nextMaintenanceDate AS nextMaintenanceDate, e.active AS active FROM Equipment e")
+    List<CounterRow> findCounterRows();
+    
+    @Query("SELECT e.equipmentId AS id, e.category AS category, e.location AS location, " +
+           "e.purchaseDate AS purchaseDate FROM Equipment e")
+    List<ReliabilityRow> findReliabilityRows();
+    
+    interface EquipmentStats {
+        long getTotal();
+        long getMaintenanceDue();
+    }
+    
+    interface ReliabilityRow {
+        Long getId();
+        String getCategory();
+        String getLocation();
+        LocalDate getPurchaseDate();
+    }
+    
+    interface CounterRow {
+        Long getId();
+        LocalDate getNextMaintenanceDate();
+        Boolean getActive();
+    }
 }
@@ -0,0 +1,25 @@
+package com.hemis.repository;
+
+import com.hemis.entity.ExpiryAlert;
+import com.hemis.entity.ExpiryAlert.AlertType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExpiryAlertRepository extends JpaRepository<ExpiryAlert, Long> {
+    
+    /** Newest first; a {@code null} type matches both. */
+    @Query("SELECT a FROM ExpiryAlert a WHERE (:type IS NULL OR a.type = :type) AND a.alertId < :beforeId " +
+           "ORDER BY a.alertId DESC")
+    List<ExpiryAlert> findPageBefore(AlertType type, Long beforeId, Limit limit);
+    
+    @Query("SELECT a.medicineId FROM ExpiryAlert a WHERE a.runDate = :runDate AND a.type = :type " +
+           "AND a.medicineId IN :medicineIds")
+    List<Long> findAlertedMedicineIds(LocalDate runDate, AlertType type, Collection<Long> medicineIds);
+}
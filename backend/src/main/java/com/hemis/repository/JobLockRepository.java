@@ -0,0 +1,33 @@
+package com.hemis.repository;
+
+import com.hemis.entity.JobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+    
+    /** Takes an expired lease; matches no row while someone else holds it. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE JobLock l SET l.lockedUntil = :until, l.lockedAt = :now, l.lockedBy = :node, " +
+           "l.fencingToken = l.fencingToken + 1 WHERE l.name = :name AND l.lockedUntil <= :now")
+    int acquire(String name, LocalDateTime now, LocalDateTime until, String node);
+    
+    /** First grant of a lease; fails on the primary key if another node got there first. */
+    @Modifying
+    @Query("INSERT INTO JobLock (name, lockedUntil, lockedAt, lockedBy, fencingToken) " +
+           "VALUES (:name, :until, :now, :node, 1)")
+    int insert(String name, LocalDateTime now, LocalDateTime until, String node);
+    
+    @Query("SELECT l.fencingToken FROM JobLock l WHERE l.name = :name")
+    Long findFencingToken(String name);
+    
+    /** Moves the end of a lease; matches no row once a newer grant has superseded {@code token}. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE JobLock l SET l.lockedUntil = :until WHERE l.name = :name AND l.fencingToken = :token")
+    int setLockedUntil(String name, Long token, LocalDateTime until);
+}
@@ -1,14 +1,66 @@
 package com.hemis.repository;
 
 import com.hemis.entity.MaintenanceRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MaintenanceRecordRepository extends JpaRepository<MaintenanceRecord, Long> {
+    @EntityGraph(attributePaths = "equipment")
     List<MaintenanceRecord> findByEquipment_EquipmentId(Long equipmentId);
+    
     List<MaintenanceRecord> findByTechnician_UserId(Long userId);
     List<MaintenanceRecord> findByStatus(MaintenanceRecord.MaintenanceStatus status);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM MaintenanceRecord r LEFT JOIN FETCH r.equipment e LEFT JOIN FETCH e.supplier " +
+           "LEFT JOIN FETCH r.technician ORDER BY r.recordId")
+    Stream<MaintenanceRecord> streamAll();
+    
+    @EntityGraph(attributePaths = "equipment")
+    List<MaintenanceRecord> findAllByOrderByMaintenanceDateDescRecordIdDesc(Limit limit);
+    
+    @EntityGraph(attributePaths = "equipment")
+    @Query("SELECT r FROM MaintenanceRecord r " +
+           "WHERE r.maintenanceDate < :maintenanceDate OR (r.maintenanceDate = :maintenanceDate AND r.recordId < :id) " +
+           "ORDER BY r.maintenanceDate DESC, r.recordId DESC")
+    List<MaintenanceRecord> findPageAfter(LocalDate maintenanceDate, Long id, Limit limit);
+    
+    /** Open records of the given equipment, to avoid scheduling the same maintenance twice. */
+    @Query("SELECT r.equipment.equipmentId AS equipmentId, r.maintenanceDate AS maintenanceDate " +
+           "FROM MaintenanceRecord r WHERE r.equipment.equipmentId IN :equipmentIds AND r.status IN :statuses")
+    List<OpenRecord> findOpenRecords(Collection<Long> equipmentIds, Collection<MaintenanceRecord.MaintenanceStatus> statuses);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r.recordId AS id, r.equipment.equipmentId AS equipmentId, r.maintenanceDate AS maintenanceDate, " +
+           "r.type AS type, r.status AS status, r.cost AS cost FROM MaintenanceRecord r")
+    List<ReliabilityRow> findReliabilityRows();
+    
+    interface ReliabilityRow {
+        Long getId();
+        Long getEquipmentId();
+        LocalDate getMaintenanceDate();
+        MaintenanceRecord.MaintenanceType getType();
+        MaintenanceRecord.MaintenanceStatus getStatus();
+        Double getCost();
+    }
+    
+    interface OpenRecord {
+        Long getEquipmentId();
+        LocalDate getMaintenanceDate();
+    }
 }
@@ -1,18 +1,45 @@
 package com.hemis.repository;
 
 import com.hemis.entity.Medicine;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MedicineRepository extends JpaRepository<Medicine, Long> {
     List<Medicine> findByActiveTrue();
+    
+    List<Medicine> findByActiveTrueOrderByNameAscMedicineIdAsc(Limit limit);
+    
+    @Query("SELECT m FROM Medicine m WHERE m.active = true " +
+           "AND (m.name > :name OR (m.name = :name AND m.medicineId > :id)) ORDER BY m.name, m.medicineId")
+    List<Medicine> findActivePageAfter(String name, Long id, Limit limit);
+    
     List<Medicine> findByCategory(String category);
     List<Medicine> findByNameContainingIgnoreCase(String name);
+    
+    List<Medicine> findByNameContainingIgnoreCaseAndActiveTrue(String name, Limit limit);
+    
+    /** Loads the given medicines in one query, for building list views; suppliers come from the second-level cache. */
+    List<Medicine> findByMedicineIdIn(Collection<Long> ids);
+    
+    @Query("SELECT m.medicineId AS id, m.name AS name FROM Medicine m WHERE m.active = true")
+    List<NameRow> findActiveNames();
+    
     List<Medicine> findByQuantityLessThan(Integer quantity);
     
     @Query("SELECT m FROM Medicine m WHERE m.expiryDate BETWEEN :startDate AND :endDate AND m.active = true")
@@ -20,4 +47,133 @@ public interface MedicineRepository extends JpaRepository<Medicine, Long> {
     
     @Query("SELECT m FROM Medicine m WHERE m.expiryDate < :date AND m.active = true")
     List<Medicine> findExpired(LocalDate date);
+    
+    @Query("SELECT m FROM Medicine m WHERE m.expiryDate BETWEEN :startDate AND :endDate AND m.active = true " +
+           "ORDER BY m.expiryDate, m.medicineId")
+    Page<Medicine> findExpiringBetween(LocalDate startDate, LocalDate endDate, Pageable pageable);
+    
+    @Query("SELECT m FROM Medicine m WHERE m.expiryDate < :date AND m.active = true ORDER BY m.expiryDate, m.medicineId")
+    Page<Medicine> findExpired(LocalDate date, Pageable pageable);
+    
+    @Query("SELECT m.medicineId FROM Medicine m WHERE m.active = true AND m.expiryDate < :date " +
+           "AND m.medicineId > :afterId ORDER BY m.medicineId")
+    List<Long> findExpiredIdsAfter(LocalDate date, Long afterId, Limit limit);
+    
+    @Query("SELECT m.medicineId FROM Medicine m WHERE m.active = true AND m.expiryDate BETWEEN :startDate AND :endDate " +
+           "AND m.medicineId > :afterId ORDER BY m.medicineId")
+    List<Long> findExpiringIdsAfter(LocalDate startDate, LocalDate endDate, Long afterId, Limit limit);
+    
+    @Query("SELECT m.medicineId AS id, m.name AS name, m.batchNumber AS batchNumber, m.expiryDate AS expiryDate, " +
+           "m.quantity AS quantity, m.active AS active FROM Medicine m WHERE m.medicineId IN :ids")
+    List<AlertRow> findAlertRows(Collection<Long> ids);
+    
+    /** Takes expired batches out of stock in one statement; rows that are no longer active and expired are skipped. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Medicine m SET m.active = false, m.version = m.version + 1, m.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE m.medicineId IN :ids AND m.active = true AND m.expiryDate < :date")
+    int deactivateExpired(Collection<Long> ids, LocalDate date);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Medicine m LEFT JOIN FETCH m.supplier ORDER BY m.medicineId")
+    Stream<Medicine> streamAll();
+    
+    @Query("SELECT COUNT(m) AS total, " +
+           "COALESCE(SUM(CASE WHEN m.quantity < :lowStockThreshold THEN 1 ELSE 0 END), 0) AS lowStock, " +
+           "COALESCE(SUM(CASE WHEN m.expiryDate BETWEEN :startDate AND :endDate AND m.active = true THEN 1 ELSE 0 END), 0) AS expiring " +
+           "FROM Medicine m")
+    MedicineStats getStats(Integer lowStockThreshold, LocalDate startDate, LocalDate endDate);
+    
+    /**
+     * Takes stock out in a single statement; matches no row when the medicine is missing,
+     * inactive or short, so concurrent dispenses can never drive the quantity negative.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Medicine m SET m.quantity = m.quantity - :amount, m.version = m.version + 1, " +
+           "m.updatedAt = CURRENT_TIMESTAMP WHERE m.medicineId = :id AND m.active = true AND m.quantity >= :amount")
+    int dispense(Long id, int amount);
+    
+    /**
+     * Puts stock back in a single statement; matches no row when the medicine is missing,
+     * inactive or would end up above {@code max}, so the quantity never overflows.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Medicine m SET m.quantity = m.quantity + :amount, m.version = m.version + 1, " +
+           "m.updatedAt = CURRENT_TIMESTAMP WHERE m.medicineId = :id AND m.active = true " +
+           "AND m.quantity <= :max - :amount")
+    int receive(Long id, int amount, int max);
+    
+    @Query("SELECT m.medicineId AS id, m.name AS name, m.category AS category, m.quantity AS quantity, " +
+           "m.expiryDate AS expiryDate, m.unitPrice AS unitPrice, s.supplierId AS supplierId " +
+           "FROM Medicine m LEFT JOIN m.supplier s WHERE m.active = true")
+    List<CatalogRow> findCatalogRows();
+    
+    @Query("SELECT m.medicineId AS id, m.name AS name, m.category AS category, m.expiryDate AS expiryDate " +
+           "FROM Medicine m WHERE m.active = true AND m.quantity > 0")
+    List<FefoRow> findFefoRows();
+    
+    /** Locks the given batches in FEFO order, so concurrent allocations queue instead of deadlocking. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Medicine m WHERE m.medicineId IN :ids ORDER BY m.expiryDate, m.medicineId")
+    List<Medicine> findAllForUpdate(Collection<Long> ids);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Medicine m WHERE lower(trim(m.name)) = :name AND lower(trim(m.category)) = :category " +
+           "AND m.active = true AND m.quantity > 0 AND m.expiryDate >= :notBefore ORDER BY m.expiryDate, m.medicineId")
+    List<Medicine> findFefoCandidatesForUpdate(String name, String category, LocalDate notBefore);
+    
+    /**
+     * Whether a live batch outside {@code ids} comes before the given one in FEFO order. Only
+     * batches expiring by {@code expiryDate} are scanned, through the active/expiry index.
+     */
+    @Query("SELECT COUNT(m) > 0 FROM Medicine m WHERE m.active = true AND m.expiryDate >= :notBefore " +
+           "AND (m.expiryDate < :expiryDate OR (m.expiryDate = :expiryDate AND m.medicineId < :medicineId)) " +
+           "AND m.quantity > 0 AND lower(trim(m.name)) = :name AND lower(trim(m.category)) = :category " +
+           "AND m.medicineId NOT IN :ids")
+    boolean existsEarlierFefoCandidate(String name, String category, LocalDate notBefore, LocalDate expiryDate,
+                                       Long medicineId, Collection<Long> ids);
+    
+    @Query("SELECT m.medicineId AS id, m.quantity AS quantity, m.expiryDate AS expiryDate, m.active AS active FROM Medicine m")
+    List<CounterRow> findCounterRows();
+    
+    interface MedicineStats {
+        long getTotal();
+        long getLowStock();
+        long getExpiring();
+    }
+    
+    interface CatalogRow {
+        Long getId();
+        String getName();
+        String getCategory();
+        Integer getQuantity();
+        LocalDate getExpiryDate();
+        Double getUnitPrice();
+        Long getSupplierId();
+    }
+    
+    interface FefoRow {
+        Long getId();
+        String getName();
+        String getCategory();
+        LocalDate getExpiryDate();
+    }
+    
+    interface AlertRow {
+        Long getId();
+        String getName();
+        String getBatchNumber();
+        LocalDate getExpiryDate();
+        Integer getQuantity();
+        Boolean getActive();
+    }
+    
+    interface CounterRow {
+        Long getId();
+        Integer getQuantity();
+        LocalDate getExpiryDate();
+        Boolean getActive();
+    }
 }
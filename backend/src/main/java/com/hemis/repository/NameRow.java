@@ -0,0 +1,9 @@
+package com.hemis.repository;
+
+/**
+ * ID and name projection used to load the in-memory name search index.
+ */
+public interface NameRow {
+    Long getId();
+    String getName();
+}
@@ -0,0 +1,24 @@
+package com.hemis.repository;
+
+import com.hemis.entity.OrderNumberBlock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OrderNumberBlockRepository extends JpaRepository<OrderNumberBlock, Integer> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM OrderNumberBlock b WHERE b.orderYear = :year")
+    Optional<OrderNumberBlock> findForUpdate(Integer year);
+    
+    /** Creates a year's row; fails on the primary key if another node got there first. */
+    @Modifying
+    @Query("INSERT INTO OrderNumberBlock (orderYear, nextValue) VALUES (:year, 1)")
+    int insert(Integer year);
+}
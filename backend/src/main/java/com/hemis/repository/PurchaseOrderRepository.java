@@ -1,14 +1,108 @@
 package com.hemis.repository;
 
 import com.hemis.entity.PurchaseOrder;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long> {
     List<PurchaseOrder> findByStatus(PurchaseOrder.OrderStatus status);
     List<PurchaseOrder> findBySupplier_SupplierId(Long supplierId);
     List<PurchaseOrder> findByOrderedBy_UserId(Long userId);
+    
+    List<PurchaseOrder> findAllByOrderByOrderDateDescOrderIdDesc(Limit limit);
+    
+    @Query("SELECT o FROM PurchaseOrder o " +
+           "WHERE o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.orderId < :id) " +
+           "ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<PurchaseOrder> findPageAfter(LocalDate orderDate, Long id, Limit limit);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM PurchaseOrder o LEFT JOIN FETCH o.supplier LEFT JOIN FETCH o.orderedBy " +
+           "ORDER BY o.orderId")
+    Stream<PurchaseOrder> streamAll();
+    
+    long countByStatus(PurchaseOrder.OrderStatus status);
+    
+    @Query("SELECT o.orderId AS id, o.status AS status FROM PurchaseOrder o")
+    List<CounterRow> findCounterRows();
+    
+    @Query("SELECT lower(trim(o.itemName)) AS itemName, lower(trim(o.itemCategory)) AS itemCategory, " +
+           "SUM(o.quantity) AS quantity FROM PurchaseOrder o " +
+           "WHERE o.itemType = :itemType AND o.status IN :statuses AND o.itemName IS NOT NULL " +
+           "GROUP BY lower(trim(o.itemName)), lower(trim(o.itemCategory))")
+    List<OpenQuantity> findOpenQuantities(PurchaseOrder.ItemType itemType, Collection<PurchaseOrder.OrderStatus> statuses);
+    
+    /** Current status of the given orders, locked until the transition commits. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o.orderId AS id, o.status AS status FROM PurchaseOrder o WHERE o.orderId IN :ids")
+    List<CounterRow> findStatusesForUpdate(Collection<Long> ids);
+    
+    /**
+     * Moves the given orders from one status to another in one statement. Orders no longer
+     * in {@code from} are left alone. A non-null {@code deliveryDate} fills in missing
+     * delivery dates.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PurchaseOrder o SET o.status = :to, o.updatedAt = :now, " +
+           "o.deliveryDate = COALESCE(o.deliveryDate, :deliveryDate) " +
+           "WHERE o.orderId IN :ids AND o.status = :from")
+    int transition(Collection<Long> ids, PurchaseOrder.OrderStatus from, PurchaseOrder.OrderStatus to,
+                   LocalDate deliveryDate, LocalDateTime now);
+    
+    @Query("SELECT MIN(o.orderId) AS min, MAX(o.orderId) AS max FROM PurchaseOrder o")
+    IdRange findIdRange();
+    
+    @Query("SELECT o.orderId AS id, o.supplier.supplierId AS supplierId, o.orderDate AS orderDate, " +
+           "o.deliveryDate AS deliveryDate, o.totalAmount AS totalAmount, o.status AS status " +
+           "FROM PurchaseOrder o WHERE o.orderId BETWEEN :fromId AND :toId")
+    List<StatsRow> findStatsRows(Long fromId, Long toId);
+    
+    @Query("SELECT o.orderId AS id, o.supplier.supplierId AS supplierId, o.orderDate AS orderDate, " +
+           "o.deliveryDate AS deliveryDate, o.totalAmount AS totalAmount, o.status AS status " +
+           "FROM PurchaseOrder o WHERE o.orderId IN :ids")
+    List<StatsRow> findStatsRowsByIdIn(Collection<Long> ids);
+    
+    interface CounterRow {
+        Long getId();
+        PurchaseOrder.OrderStatus getStatus();
+    }
+    
+    interface IdRange {
+        Long getMin();
+        Long getMax();
+    }
+    
+    interface StatsRow {
+        Long getId();
+        Long getSupplierId();
+        LocalDate getOrderDate();
+        LocalDate getDeliveryDate();
+        Double getTotalAmount();
+        PurchaseOrder.OrderStatus getStatus();
+    }
+    
+    interface OpenQuantity {
+        String getItemName();
+        /** Null for orders placed without a category. */
+        String getItemCategory();
+        Long getQuantity();
+    }
 }
@@ -0,0 +1,32 @@
+package com.hemis.repository;
+
+import com.hemis.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+    
+    /** Marks the token spent; matches nothing if another request already spent it. */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.tokenId = :id AND t.revokedAt IS NULL")
+    int revoke(Long id, LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+    int revokeFamily(String familyId, LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.user.userId = :userId AND t.revokedAt IS NULL")
+    int revokeAllForUser(Long userId, LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :cutoff")
+    int deleteExpiredBefore(LocalDateTime cutoff);
+}
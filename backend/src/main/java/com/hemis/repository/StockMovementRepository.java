@@ -0,0 +1,25 @@
+package com.hemis.repository;
+
+import com.hemis.entity.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+    
+    @Query("SELECT s.medicine.medicineId AS medicineId, CAST(s.createdAt AS LocalDate) AS day, SUM(s.quantity) AS quantity " +
+           "FROM StockMovement s WHERE s.type = :type AND s.createdAt >= :since " +
+           "GROUP BY s.medicine.medicineId, CAST(s.createdAt AS LocalDate)")
+    List<DailyMovement> findDailyTotalsSince(StockMovement.MovementType type, LocalDateTime since);
+    
+    interface DailyMovement {
+        Long getMedicineId();
+        LocalDate getDay();
+        Long getQuantity();
+    }
+}
@@ -0,0 +1,50 @@
+package com.hemis.repository;
+
+import com.hemis.entity.SupplierMonthlyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SupplierMonthlyStatsRepository extends JpaRepository<SupplierMonthlyStats, SupplierMonthlyStats.Key> {
+    
+    @Query("SELECT s FROM SupplierMonthlyStats s WHERE s.id.supplierId = :supplierId AND s.id.monthStart >= :from " +
+           "ORDER BY s.id.monthStart")
+    List<SupplierMonthlyStats> findForSupplierSince(Long supplierId, LocalDate from);
+    
+    @Query("SELECT s FROM SupplierMonthlyStats s WHERE s.id.monthStart >= :from")
+    List<SupplierMonthlyStats> findAllSince(LocalDate from);
+    
+    /**
+     * Adds a change to a month's figures in place, so concurrent writers do not overwrite each
+     * other. This and {@link #insert} are native: Hibernate renders the spend parameter as a
+     * cast H2 cannot parse, and cannot insert into the embedded key's columns.
+     */
+    @Modifying
+    @Query(value = "UPDATE supplier_monthly_stats SET order_count = order_count + :orders, " +
+                   "total_spend = total_spend + :spend, delivered_count = delivered_count + :delivered, " +
+                   "lead_time_days = lead_time_days + :leadTimeDays, updated_at = :now " +
+                   "WHERE supplier_id = :supplierId AND month_start = :monthStart",
+           nativeQuery = true)
+    int addDelta(Long supplierId, LocalDate monthStart, long orders, double spend, long delivered,
+                 long leadTimeDays, LocalDateTime now);
+    
+    /** First figures for a month; fails on the primary key if another node got there first. */
+    @Modifying
+    @Query(value = "INSERT INTO supplier_monthly_stats (supplier_id, month_start, order_count, total_spend, " +
+                   "delivered_count, lead_time_days, updated_at) " +
+                   "VALUES (:supplierId, :monthStart, :orders, :spend, :delivered, :leadTimeDays, :now)",
+           nativeQuery = true)
+    int insert(Long supplierId, LocalDate monthStart, long orders, double spend, long delivered,
+               long leadTimeDays, LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM SupplierMonthlyStats s WHERE s.id.supplierId = :supplierId AND s.id.monthStart = :monthStart " +
+           "AND s.orderCount = 0 AND s.deliveredCount = 0")
+    int deleteIfEmpty(Long supplierId, LocalDate monthStart);
+}
@@ -1,13 +1,24 @@
 package com.hemis.repository;
 
 import com.hemis.entity.Supplier;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface SupplierRepository extends JpaRepository<Supplier, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Supplier> findByActiveTrue();
+    
     List<Supplier> findByNameContainingIgnoreCase(String name);
+    List<Supplier> findByNameContainingIgnoreCaseAndActiveTrue(String name, Limit limit);
+    
+    @Query("SELECT s.supplierId AS id, s.name AS name FROM Supplier s WHERE s.active = true")
+    List<NameRow> findActiveNames();
 }
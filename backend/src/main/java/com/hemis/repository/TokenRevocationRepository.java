@@ -0,0 +1,21 @@
+package com.hemis.repository;
+
+import com.hemis.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    List<TokenRevocation> findByExpiresAtAfter(LocalDateTime now);
+    
+    List<TokenRevocation> findByCreatedAtAfterAndExpiresAtAfter(LocalDateTime since, LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt <= :now")
+    int deleteExpired(LocalDateTime now);
+}
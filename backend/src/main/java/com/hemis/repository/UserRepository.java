@@ -1,9 +1,12 @@
 package com.hemis.repository;
 
 import com.hemis.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +15,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+    List<User> findAllByOrderByUsernameAscUserIdAsc(Limit limit);
+    
+    @Query("SELECT u FROM User u WHERE u.username > :username OR (u.username = :username AND u.userId > :id) " +
+           "ORDER BY u.username, u.userId")
+    List<User> findPageAfter(String username, Long id, Limit limit);
 }
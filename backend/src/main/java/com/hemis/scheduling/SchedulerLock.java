@@ -0,0 +1,30 @@
+package com.hemis.scheduling;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method on one node of the cluster at a time. If another node holds the
+ * lease, the call is skipped and returns {@code null} (or zero/false for primitives).
+ * Durations accept {@code ${...}} placeholders and either ISO-8601 or simple ({@code 30m})
+ * format. Self-invocations bypass the lock, as with any Spring proxy.
+ *
+ * @see com.hemis.service.JobLockService
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SchedulerLock {
+    
+    /** Lease name; methods sharing a name exclude each other. */
+    String name();
+    
+    /** How long the lease lasts if the holder dies before releasing it. */
+    String lockAtMostFor() default "${scheduler.lock.default-lock-at-most-for:10m}";
+    
+    /** Minimum time the lease is kept after it was taken, to absorb clock skew between nodes. */
+    String lockAtLeastFor() default "0s";
+}
@@ -0,0 +1,64 @@
+package com.hemis.scheduling;
+
+import com.hemis.service.JobLockService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Array;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Applies {@link SchedulerLock}. Ordered ahead of the transaction advice (which has the
+ * lowest precedence), so the lease is held before a transactional job opens its transaction
+ * and until after it commits.
+ */
+@Aspect
+@Component
+@Order(0)
+public class SchedulerLockAspect {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLockAspect.class);
+    
+    @Autowired
+    private JobLockService jobLockService;
+    
+    @Autowired
+    private Environment environment;
+    
+    @Around("@annotation(schedulerLock)")
+    public Object runLocked(ProceedingJoinPoint joinPoint, SchedulerLock schedulerLock) throws Throwable {
+        String name = environment.resolveRequiredPlaceholders(schedulerLock.name());
+        if (jobLockService.current(name).isPresent()) {
+            // Already running under this lease on this thread
+            return joinPoint.proceed();
+        }
+        Optional<JobLockService.Lease> lease = jobLockService.tryAcquire(name, duration(schedulerLock.lockAtMostFor()));
+        if (lease.isEmpty()) {
+            logger.debug("Skipping {}: lock {} is held elsewhere", joinPoint.getSignature().toShortString(), name);
+            return emptyResult(((MethodSignature) joinPoint.getSignature()).getReturnType());
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            jobLockService.release(lease.get(), duration(schedulerLock.lockAtLeastFor()));
+        }
+    }
+    
+    private Duration duration(String value) {
+        return DurationStyle.detectAndParse(environment.resolveRequiredPlaceholders(value));
+    }
+    
+    private static Object emptyResult(Class<?> type) {
+        return type.isPrimitive() && type != void.class ? Array.get(Array.newInstance(type, 1), 0) : null;
+    }
+}
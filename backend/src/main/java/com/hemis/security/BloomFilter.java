@@ -0,0 +1,54 @@
+package com.hemis.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over 64-bit hashes. Indices come from double hashing, so
+ * adding and probing allocate nothing. Safe for concurrent use; it never forgets, so
+ * callers rebuild it to drop entries.
+ */
+class BloomFilter {
+    
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    
+    /** Sized for {@code expectedEntries} at the given false-positive rate. */
+    BloomFilter(int expectedEntries, double falsePositiveRate) {
+        long bits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray((int) Math.max(1, (bits + 63) / 64));
+        this.bitCount = words.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round(bits / (double) expectedEntries * Math.log(2)));
+    }
+    
+    void add(long hash) {
+        long h1 = hash;
+        long h2 = mix(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = words.get(word)) & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                // another thread changed the word; retry
+            }
+        }
+    }
+    
+    boolean mightContain(long hash) {
+        long h1 = hash;
+        long h2 = mix(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static long mix(long hash) {
+        long h = hash * 0x9E3779B97F4A7C15L;
+        return (h ^ (h >>> 32)) | 1;
+    }
+}
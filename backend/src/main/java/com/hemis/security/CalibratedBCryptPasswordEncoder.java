@@ -0,0 +1,81 @@
+package com.hemis.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt with a work factor chosen for this machine. Unlike the stock encoder, it asks
+ * for an upgrade whenever a stored hash uses a different cost, cheaper or dearer, so
+ * hashes converge on the calibrated factor as users log in.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CalibratedBCryptPasswordEncoder.class);
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+    private static final int SAMPLES = 3;
+    
+    private final int strength;
+    
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+    
+    public int getStrength() {
+        return strength;
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+    
+    /**
+     * Picks the highest work factor in {@code [minStrength, maxStrength]} whose median
+     * hash time stays within {@code targetMillis}. Each step doubles the cost, so the
+     * search stops at the first factor that is too slow. {@code minStrength} wins even if
+     * it is over target, so a slow node never drops below the security floor.
+     */
+    public static CalibratedBCryptPasswordEncoder calibrate(long targetMillis, int minStrength, int maxStrength) {
+        // Warm up the JIT so the first measurement is not inflated
+        new BCryptPasswordEncoder(4).encode(SAMPLE_PASSWORD);
+        int chosen = minStrength;
+        long chosenMillis = 0;
+        for (int candidate = minStrength; candidate <= maxStrength; candidate++) {
+            long millis = medianHashMillis(candidate);
+            if (millis > targetMillis && candidate > minStrength) {
+                break;
+            }
+            chosen = candidate;
+            chosenMillis = millis;
+            if (millis * 2 > targetMillis) {
+                break;
+            }
+        }
+        logger.info("Password hashing calibrated to BCrypt strength {} (~{} ms per hash, target {} ms)",
+                chosen, chosenMillis, targetMillis);
+        return new CalibratedBCryptPasswordEncoder(chosen);
+    }
+    
+    private static long medianHashMillis(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long started = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = (System.nanoTime() - started) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -21,29 +21,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
         
         final String authHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwt = null;
-        
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                logger.error("JWT Token extraction failed", e);
-            }
-        }
-        
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt, username)) {
-                String role = jwtUtil.extractRole(jwt);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            JwtUtil.VerifiedToken token = jwtUtil.verify(authHeader.substring(7));
+            if (token != null && !tokenRevocationList.isRevoked(token)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        username, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
+                        token.username(), null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + token.role())));
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
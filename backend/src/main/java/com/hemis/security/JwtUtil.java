@@ -1,28 +1,61 @@
 package com.hemis.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtil {
     
+    private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
+    
     @Value("${jwt.secret:mySecretKeyForHemisApplicationThatIsAtLeast256BitsLong123456789}")
     private String secret;
     
-    @Value("${jwt.expiration:86400000}") // 24 hours
+    @Value("${jwt.expiration:900000}") // 15 minutes
     private Long expiration;
     
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+    
+    private Key signingKey;
+    private JwtParser parser;
+    
+    /**
+     * Tokens whose signature has already been checked, keyed by the SHA-256 digest of the
+     * token so raw bearer tokens are never held in memory. Entries die with the token.
+     */
+    private final Map<ByteBuffer, VerifiedToken> verified = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+    
+    /** Access token lifetime in milliseconds. */
+    public long getExpiration() {
+        return expiration;
     }
     
     public String generateToken(String username, String role) {
@@ -37,39 +70,90 @@ public class JwtUtil {
         
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
-    public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
-    }
-    
-    public String extractRole(String token) {
-        return (String) extractAllClaims(token).get("role");
+    /**
+     * Verifies the token once and returns its claims, or {@code null} if it is malformed,
+     * badly signed or expired. Repeat calls with the same token are served from the cache
+     * until it expires.
+     */
+    public VerifiedToken verify(String token) {
+        long now = System.currentTimeMillis();
+        ByteBuffer digest = digest(token);
+        VerifiedToken cached = verified.get(digest);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                return cached;
+            }
+            verified.remove(digest);
+            return null;
+        }
+        
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected JWT: {}", e.getMessage());
+            return null;
+        }
+        VerifiedToken result = new VerifiedToken(claims.getSubject(), (String) claims.get("role"), claims.getId(),
+                jtiHash(claims.getId()), claims.getIssuedAt().getTime() / 1000, claims.getExpiration().getTime());
+        if (verified.size() >= cacheMaxEntries) {
+            evict(now);
+        }
+        verified.put(digest, result);
+        return result;
     }
     
-    public Date extractExpiration(String token) {
-        return extractAllClaims(token).getExpiration();
+    /**
+     * Drops expired entries, then arbitrary ones if the cache is still full; an evicted
+     * token just costs one more signature check.
+     */
+    private void evict(long now) {
+        verified.values().removeIf(entry -> entry.expiresAt() <= now);
+        Iterator<ByteBuffer> keys = verified.keySet().iterator();
+        int excess = verified.size() - cacheMaxEntries * 3 / 4;
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
     }
     
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
     
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * 64-bit hash of a token ID, used for revocation lookups; never 0, which stands for
+     * "no token ID".
+     */
+    public static long jtiHash(String jti) {
+        if (jti == null) {
+            return 0;
+        }
+        long hash;
+        try {
+            UUID uuid = UUID.fromString(jti);
+            hash = uuid.getMostSignificantBits() * 31 ^ uuid.getLeastSignificantBits();
+        } catch (IllegalArgumentException e) {
+            hash = jti.hashCode() * 0x9E3779B97F4A7C15L;
+        }
+        return hash == 0 ? 1 : hash;
     }
     
-    public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
-    }
+    /**
+     * Claims of a verified token. {@code issuedAt} is in epoch seconds (the JWT resolution),
+     * {@code expiresAt} in epoch millis.
+     */
+    public record VerifiedToken(String username, String role, String jti, long jtiHash, long issuedAt, long expiresAt) {}
 }
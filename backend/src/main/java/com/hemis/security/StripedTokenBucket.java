@@ -0,0 +1,56 @@
+package com.hemis.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token buckets for an unbounded key space in fixed memory. Keys hash onto a fixed
+ * number of stripes, so colliding keys share a bucket (which only ever makes the limit
+ * stricter). Each bucket is one packed {@code long}: the last refill time in
+ * milliseconds in the high 40 bits and the fill level in thousandths of a token in the
+ * low 24 bits, updated with a CAS loop and no locks.
+ */
+public class StripedTokenBucket {
+    
+    private static final int LEVEL_BITS = 24;
+    private static final long LEVEL_MASK = (1L << LEVEL_BITS) - 1;
+    private static final long SCALE = 1000;
+    
+    private final AtomicLongArray buckets;
+    private final long capacity;
+    private final double refillPerMilli;
+    private final long epoch = System.currentTimeMillis();
+    
+    public StripedTokenBucket(int stripes, int capacity, int refillPerMinute) {
+        if (capacity * SCALE > LEVEL_MASK) {
+            throw new IllegalArgumentException("Capacity too large: " + capacity);
+        }
+        this.buckets = new AtomicLongArray(Integer.highestOneBit(Math.max(1, stripes - 1)) << 1);
+        this.capacity = capacity * SCALE;
+        this.refillPerMilli = refillPerMinute * SCALE / 60_000.0;
+    }
+    
+    /**
+     * Takes one token from the key's bucket. Returns 0 on success, otherwise the number
+     * of milliseconds until a token will be available.
+     */
+    public long tryAcquire(String key) {
+        int stripe = spread(key.hashCode()) & (buckets.length() - 1);
+        long now = System.currentTimeMillis() - epoch;
+        while (true) {
+            long state = buckets.get(stripe);
+            long level = state == 0 ? capacity
+                    : Math.min(capacity, (state & LEVEL_MASK) + (long) ((now - (state >>> LEVEL_BITS)) * refillPerMilli));
+            if (level < SCALE) {
+                return (long) Math.ceil((SCALE - level) / refillPerMilli);
+            }
+            long next = (now << LEVEL_BITS) | (level - SCALE);
+            if (buckets.compareAndSet(stripe, state, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,89 @@
+package com.hemis.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of revoked access tokens, checked on every authenticated request.
+ * Individually revoked tokens sit in a Bloom filter backed by an exact map, so the
+ * common "not revoked" answer is a few bit probes; users whose tokens were all revoked
+ * carry an "issued at or before" watermark. Entries are dropped once the tokens they
+ * cover have expired anyway. Persistence lives in
+ * {@link com.hemis.service.TokenRevocationService}.
+ */
+@Component
+public class TokenRevocationList {
+    
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private int expectedEntries;
+    
+    /** Revoked token hash to its expiry (epoch millis). */
+    private final Map<Long, Long> revokedTokens = new ConcurrentHashMap<>();
+    /** Username to the issued-at second at or before which all of its tokens are revoked. */
+    private final Map<String, Long> userWatermarks = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    
+    public boolean isRevoked(JwtUtil.VerifiedToken token) {
+        Long watermark = userWatermarks.get(token.username());
+        if (watermark != null && token.issuedAt() <= watermark) {
+            return true;
+        }
+        return token.jtiHash() != 0 && filter().mightContain(token.jtiHash())
+                && revokedTokens.containsKey(token.jtiHash());
+    }
+    
+    public void revokeToken(long jtiHash, long expiresAt) {
+        if (jtiHash == 0) {
+            return;
+        }
+        revokedTokens.put(jtiHash, expiresAt);
+        filter().add(jtiHash);
+    }
+    
+    public void revokeUser(String username, long issuedAtOrBefore) {
+        userWatermarks.merge(username, issuedAtOrBefore, Math::max);
+    }
+    
+    /**
+     * Forgets revocations for tokens that have expired and rebuilds the Bloom filter from
+     * what remains. {@code maxTokenAgeMillis} is the access token lifetime: a watermark
+     * older than that no longer covers any live token.
+     */
+    public void evictExpired(long now, long maxTokenAgeMillis) {
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        long oldestLiveIssue = (now - maxTokenAgeMillis) / 1000;
+        userWatermarks.values().removeIf(watermark -> watermark < oldestLiveIssue);
+        
+        BloomFilter rebuilt = newFilter();
+        revokedTokens.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+        // A revocation added during the rebuild may have missed the new filter
+        revokedTokens.keySet().forEach(rebuilt::add);
+    }
+    
+    public int size() {
+        return revokedTokens.size() + userWatermarks.size();
+    }
+    
+    private BloomFilter filter() {
+        BloomFilter current = filter;
+        if (current == null) {
+            synchronized (this) {
+                if (filter == null) {
+                    filter = newFilter();
+                }
+                current = filter;
+            }
+        }
+        return current;
+    }
+    
+    private BloomFilter newFilter() {
+        return new BloomFilter(Math.max(expectedEntries, revokedTokens.size() * 2), FALSE_POSITIVE_RATE);
+    }
+}
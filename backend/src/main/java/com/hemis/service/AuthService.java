@@ -2,6 +2,7 @@ package com.hemis.service;
 
 import com.hemis.dto.LoginRequest;
 import com.hemis.dto.LoginResponse;
+import com.hemis.dto.RefreshRequest;
 import com.hemis.entity.User;
 import com.hemis.repository.UserRepository;
 import com.hemis.security.JwtUtil;
@@ -21,6 +22,12 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     public LoginResponse login(LoginRequest request) {
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new RuntimeException("Invalid credentials"));
@@ -33,9 +40,42 @@ public class AuthService {
             throw new RuntimeException("Invalid credentials");
         }
         
-        String token = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
+        // Bring the stored hash to the current work factor while the plain password is at hand
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            userRepository.save(user);
+        }
         
-        return new LoginResponse(token, user.getUsername(), user.getRole().name(), user.getFullName());
+        return respond(user, refreshTokenService.issue(user));
+    }
+    
+    /**
+     * Exchanges a refresh token for a new access token and a rotated refresh token,
+     * without touching the password hash.
+     */
+    public LoginResponse refresh(RefreshRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        return respond(rotation.user(), rotation.refreshToken());
+    }
+    
+    /**
+     * Revokes the refresh token's family and, when the caller still sends its access
+     * token, that token as well.
+     */
+    public void logout(RefreshRequest request, String authHeader) {
+        refreshTokenService.revoke(request.getRefreshToken());
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            JwtUtil.VerifiedToken token = jwtUtil.verify(authHeader.substring(7));
+            if (token != null) {
+                tokenRevocationService.revokeToken(token);
+            }
+        }
+    }
+    
+    private LoginResponse respond(User user, String refreshToken) {
+        String token = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
+        return new LoginResponse(token, refreshToken, jwtUtil.getExpiration() / 1000,
+                user.getUsername(), user.getRole().name(), user.getFullName());
     }
     
     public User registerUser(User user) {
@@ -0,0 +1,325 @@
+package com.hemis.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hemis.dto.ImportResult;
+import com.hemis.entity.Equipment;
+import com.hemis.entity.Medicine;
+import com.hemis.entity.Supplier;
+import com.hemis.repository.SupplierRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of medicines and equipment from a CSV file or a JSON array.
+ * <p>
+ * Rows are parsed and validated in a single streaming pass. Valid rows are inserted in chunks of
+ * {@code import.chunk-size}, each chunk in its own transaction, so Hibernate can batch the
+ * inserts. A failed chunk does not undo the chunks before it; its rows are retried one at a
+ * time, each in its own transaction, so only the offending rows are rejected with their own error.
+ */
+@Service
+public class BulkImportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private SupplierRepository supplierRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${import.chunk-size:500}")
+    private int chunkSize;
+    
+    public ImportResult importMedicines(InputStream body, String contentType) {
+        return importRows(body, contentType, Medicine.class, m -> {
+                    m.setMedicineId(null);
+                    m.setVersion(null);
+                },
+                Medicine::getSupplier, Medicine::setSupplier);
+    }
+    
+    public ImportResult importEquipment(InputStream body, String contentType) {
+        return importRows(body, contentType, Equipment.class, e -> e.setEquipmentId(null),
+                Equipment::getSupplier, Equipment::setSupplier);
+    }
+    
+    private <T> ImportResult importRows(InputStream body, String contentType, Class<T> type,
+                                        Consumer<T> clearId, Function<T, Supplier> supplierOf,
+                                        BiConsumer<T, Supplier> setSupplier) {
+        ImportResult result = new ImportResult();
+        Map<Long, Boolean> knownSuppliers = new HashMap<>();
+        List<PendingRow<T>> chunk = new ArrayList<>(chunkSize);
+        
+        Consumer<RawRow> handler = raw -> {
+            result.setTotalRows(result.getTotalRows() + 1);
+            if (raw.problem() != null) {
+                reject(result, raw.row(), raw.problem());
+                return;
+            }
+            T entity;
+            try {
+                entity = objectMapper.treeToValue(raw.values(), type);
+            } catch (JsonProcessingException e) {
+                reject(result, raw.row(), "Invalid value: " + e.getOriginalMessage());
+                return;
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(entity);
+            if (!violations.isEmpty()) {
+                reject(result, raw.row(), violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            Supplier given = supplierOf.apply(entity);
+            Long supplierId = given == null ? null : given.getSupplierId();
+            if (supplierId != null && !knownSuppliers.computeIfAbsent(supplierId, supplierRepository::existsById)) {
+                reject(result, raw.row(), "Unknown supplier: " + supplierId);
+                return;
+            }
+            clearId.accept(entity);
+            setSupplier.accept(entity, null);
+            chunk.add(new PendingRow<>(raw.row(), entity, supplierId));
+            if (chunk.size() >= chunkSize) {
+                commit(chunk, clearId, setSupplier, result);
+            }
+        };
+        
+        try {
+            if (isCsv(contentType)) {
+                readCsv(body, handler);
+            } else {
+                readJsonArray(body, handler);
+            }
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed import file: " + e.getMessage());
+        }
+        commit(chunk, clearId, setSupplier, result);
+        
+        logger.info("Imported {} of {} {} rows", result.getImported(), result.getTotalRows(), type.getSimpleName());
+        return result;
+    }
+    
+    private <T> void commit(List<PendingRow<T>> chunk, Consumer<T> clearId, BiConsumer<T, Supplier> setSupplier,
+                            ImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            insert(chunk, setSupplier);
+            result.setImported(result.getImported() + chunk.size());
+        } catch (RuntimeException e) {
+            logger.warn("Import chunk starting at row {} failed, retrying its rows one at a time: {}",
+                    chunk.get(0).row(), e.getMessage());
+            for (PendingRow<T> row : chunk) {
+                // The rolled-back persist left an id (and version) behind on the entity
+                clearId.accept(row.entity());
+                try {
+                    insert(List.of(row), setSupplier);
+                    result.setImported(result.getImported() + 1);
+                } catch (RuntimeException rowFailure) {
+                    reject(result, row.row(), NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+        chunk.clear();
+    }
+    
+    private <T> void insert(List<PendingRow<T>> rows, BiConsumer<T, Supplier> setSupplier) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (PendingRow<T> row : rows) {
+                if (row.supplierId() != null) {
+                    setSupplier.accept(row.entity(), entityManager.getReference(Supplier.class, row.supplierId()));
+                }
+                entityManager.persist(row.entity());
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+    
+    private static void reject(ImportResult result, int row, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ImportResult.RowError(row, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+    
+    private static boolean isCsv(String contentType) {
+        try {
+            return contentType != null
+                    && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    private void readJsonArray(InputStream body, Consumer<RawRow> handler) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("expected a JSON array");
+            }
+            int row = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new IOException("unterminated JSON array");
+                }
+                row++;
+                if (token == JsonToken.START_OBJECT) {
+                    ObjectNode values = parser.readValueAsTree();
+                    handler.accept(new RawRow(row, withSupplierReference(values)));
+                } else {
+                    parser.skipChildren();
+                    handler.accept(new RawRow(row, null, "Expected a JSON object but found " + describe(token)));
+                }
+            }
+        }
+    }
+    
+    private static String describe(JsonToken token) {
+        return switch (token) {
+            case START_ARRAY -> "an array";
+            case VALUE_STRING -> "a string";
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> "a number";
+            case VALUE_TRUE, VALUE_FALSE -> "a boolean";
+            case VALUE_NULL -> "null";
+            default -> token.toString();
+        };
+    }
+    
+    private void readCsv(InputStream body, Consumer<RawRow> handler) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            return;
+        }
+        int row = 0;
+        List<String> record;
+        while ((record = readCsvRecord(reader)) != null) {
+            row++;
+            if (record.size() == 1 && record.get(0).isEmpty()) {
+                continue;
+            }
+            ObjectNode values = objectMapper.createObjectNode();
+            for (int i = 0; i < header.size() && i < record.size(); i++) {
+                if (!record.get(i).isEmpty()) {
+                    values.put(header.get(i).trim(), record.get(i));
+                }
+            }
+            handler.accept(new RawRow(row, withSupplierReference(values)));
+        }
+    }
+    
+    /**
+     * Accepts a flat {@code supplierId} column as well as a nested {@code supplier} object.
+     */
+    private static ObjectNode withSupplierReference(ObjectNode values) {
+        JsonNode supplierId = values.remove("supplierId");
+        if (supplierId != null && !values.has("supplier")) {
+            values.putObject("supplier").set("supplierId", supplierId);
+        }
+        return values;
+    }
+    
+    /**
+     * Reads one RFC 4180 record (quoted fields may contain commas, quotes and line breaks).
+     * Returns {@code null} at end of input.
+     */
+    private static List<String> readCsvRecord(Reader reader) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next == -1) {
+                            break;
+                        }
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    /** One input row; {@code problem} is set instead of {@code values} when the row could not be read. */
+    private record RawRow(int row, ObjectNode values, String problem) {
+        RawRow(int row, ObjectNode values) {
+            this(row, values, null);
+        }
+    }
+    
+    private record PendingRow<T>(int row, T entity, Long supplierId) {}
+}
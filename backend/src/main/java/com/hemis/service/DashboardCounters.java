@@ -0,0 +1,362 @@
+package com.hemis.service;
+
+import com.hemis.dto.DashboardStats;
+import com.hemis.entity.Equipment;
+import com.hemis.entity.Medicine;
+import com.hemis.entity.PurchaseOrder;
+import com.hemis.repository.EquipmentRepository;
+import com.hemis.repository.MedicineRepository;
+import com.hemis.repository.PurchaseOrderRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory dashboard figures, kept current by {@link com.hemis.listener.DashboardCountersListener}
+ * so that {@link DashboardService#getStats()} does not have to query.
+ * <p>
+ * A small per-row state is kept so that updates and deletes can be applied as deltas. Date-driven
+ * figures are backed by per-day histograms and re-windowed by {@link #rollOver(LocalDate)}.
+ * <p>
+ * Rows written while a {@link #reset} reads its snapshot are tracked from {@link #beginReset()}
+ * and re-applied on top of it, so a reconciliation cannot undo them. The supplier count is a
+ * plain total and is not tracked; a supplier added or removed during a reset may be counted
+ * twice or missed until the next reconciliation.
+ */
+@Component
+public class DashboardCounters {
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private final LongAdder totalMedicines = new LongAdder();
+    private final LongAdder totalEquipment = new LongAdder();
+    private final LongAdder totalSuppliers = new LongAdder();
+    private final LongAdder lowStockMedicines = new LongAdder();
+    private final LongAdder expiringMedicines = new LongAdder();
+    private final LongAdder equipmentNeedingMaintenance = new LongAdder();
+    private final LongAdder pendingOrders = new LongAdder();
+    
+    private final Map<Long, MedicineState> medicines = new ConcurrentHashMap<>();
+    private final Map<Long, EquipmentState> equipment = new ConcurrentHashMap<>();
+    private final Map<Long, PurchaseOrder.OrderStatus> orders = new ConcurrentHashMap<>();
+    
+    private final ConcurrentSkipListMap<LocalDate, LongAdder> expiryDays = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<LocalDate, LongAdder> maintenanceDays = new ConcurrentSkipListMap<>();
+    
+    private volatile LocalDate today = LocalDate.now();
+    private volatile boolean seeded = false;
+    /** Rows written since the running reset started; null when none runs. */
+    private volatile Tracked tracked;
+    
+    public boolean isSeeded() {
+        return seeded;
+    }
+    
+    public LocalDate getToday() {
+        return today;
+    }
+    
+    public DashboardStats snapshot() {
+        lock.readLock().lock();
+        try {
+            return new DashboardStats(
+                totalMedicines.sum(),
+                totalEquipment.sum(),
+                totalSuppliers.sum(),
+                lowStockMedicines.sum(),
+                expiringMedicines.sum(),
+                equipmentNeedingMaintenance.sum(),
+                pendingOrders.sum()
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public void medicineSaved(Medicine medicine) {
+        MedicineState state = new MedicineState(
+                medicine.getQuantity() != null && medicine.getQuantity() < DashboardService.LOW_STOCK_THRESHOLD,
+                Boolean.TRUE.equals(medicine.getActive()) ? medicine.getExpiryDate() : null);
+        withReadLock(t -> t.medicineSaved(medicine.getMedicineId(), state),
+                () -> applyMedicine(medicines.put(medicine.getMedicineId(), state), state));
+    }
+    
+    /** For bulk deactivation, which bypasses entity listeners; stock levels are unchanged. */
+    public void medicineDeactivated(Long medicineId) {
+        withReadLock(t -> t.medicineDeactivated(medicineId), () -> {
+            MedicineState[] previous = new MedicineState[1];
+            MedicineState state = medicines.computeIfPresent(medicineId, (id, current) -> {
+                previous[0] = current;
+                return new MedicineState(current.lowStock(), null);
+            });
+            if (state != null) {
+                applyMedicine(previous[0], state);
+            }
+        });
+    }
+    
+    public void medicineRemoved(Long medicineId) {
+        withReadLock(t -> t.medicines().put(medicineId, Optional.empty()),
+                () -> applyMedicine(medicines.remove(medicineId), null));
+    }
+    
+    public void equipmentSaved(Equipment item) {
+        EquipmentState state = new EquipmentState(
+                Boolean.TRUE.equals(item.getActive()) ? item.getNextMaintenanceDate() : null);
+        withReadLock(t -> t.equipment().put(item.getEquipmentId(), Optional.of(state)),
+                () -> applyEquipment(equipment.put(item.getEquipmentId(), state), state));
+    }
+    
+    public void equipmentRemoved(Long equipmentId) {
+        withReadLock(t -> t.equipment().put(equipmentId, Optional.empty()),
+                () -> applyEquipment(equipment.remove(equipmentId), null));
+    }
+    
+    public void supplierAdded() {
+        totalSuppliers.increment();
+    }
+    
+    public void supplierRemoved() {
+        totalSuppliers.decrement();
+    }
+    
+    public void orderSaved(PurchaseOrder order) {
+        orderStatusChanged(order.getOrderId(), order.getStatus());
+    }
+    
+    /** For bulk status updates, which bypass entity listeners. */
+    public void orderStatusChanged(Long orderId, PurchaseOrder.OrderStatus status) {
+        withReadLock(t -> t.orders().put(orderId, Optional.of(status)),
+                () -> applyOrder(orders.put(orderId, status), status));
+    }
+    
+    public void orderRemoved(Long orderId) {
+        withReadLock(t -> t.orders().put(orderId, Optional.empty()),
+                () -> applyOrder(orders.remove(orderId), null));
+    }
+    
+    /**
+     * Moves the date windows to {@code newToday}. Called at midnight; the window sums are
+     * recomputed from the per-day histograms, so no table is scanned.
+     */
+    public void rollOver(LocalDate newToday) {
+        lock.writeLock().lock();
+        try {
+            today = newToday;
+            expiryDays.headMap(newToday).clear();
+            expiringMedicines.reset();
+            expiringMedicines.add(sum(expiryDays.subMap(newToday, true, expiryWindowEnd(), true)));
+            equipmentNeedingMaintenance.reset();
+            equipmentNeedingMaintenance.add(sum(maintenanceDays.headMap(maintenanceWindowEnd())));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /** Starts tracking row writes so that {@link #reset} can keep them; call before reading the rows. */
+    public void beginReset() {
+        lock.writeLock().lock();
+        try {
+            if (tracked == null) {
+                tracked = new Tracked(new ConcurrentHashMap<>(), ConcurrentHashMap.newKeySet(),
+                        new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Replaces all state with the given rows, read from the database at startup or by reconciliation.
+     * Rows written since {@link #beginReset()} keep their live state.
+     */
+    public void reset(LocalDate newToday,
+                      List<MedicineRepository.CounterRow> medicineRows,
+                      List<EquipmentRepository.CounterRow> equipmentRows,
+                      long supplierCount,
+                      List<PurchaseOrderRepository.CounterRow> orderRows) {
+        lock.writeLock().lock();
+        try {
+            today = newToday;
+            for (LongAdder counter : List.of(totalMedicines, totalEquipment, totalSuppliers, lowStockMedicines,
+                    expiringMedicines, equipmentNeedingMaintenance, pendingOrders)) {
+                counter.reset();
+            }
+            medicines.clear();
+            equipment.clear();
+            orders.clear();
+            expiryDays.clear();
+            maintenanceDays.clear();
+            Tracked live = tracked;
+            tracked = null;
+            
+            for (MedicineRepository.CounterRow row : medicineRows) {
+                medicines.put(row.getId(), new MedicineState(
+                        row.getQuantity() != null && row.getQuantity() < DashboardService.LOW_STOCK_THRESHOLD,
+                        Boolean.TRUE.equals(row.getActive()) ? row.getExpiryDate() : null));
+            }
+            for (EquipmentRepository.CounterRow row : equipmentRows) {
+                equipment.put(row.getId(), new EquipmentState(
+                        Boolean.TRUE.equals(row.getActive()) ? row.getNextMaintenanceDate() : null));
+            }
+            for (PurchaseOrderRepository.CounterRow row : orderRows) {
+                orders.put(row.getId(), row.getStatus());
+            }
+            if (live != null) {
+                live.applyTo(medicines, equipment, orders);
+            }
+            
+            medicines.values().forEach(state -> applyMedicine(null, state));
+            equipment.values().forEach(state -> applyEquipment(null, state));
+            orders.values().forEach(status -> applyOrder(null, status));
+            totalSuppliers.add(supplierCount);
+            seeded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void applyMedicine(MedicineState previous, MedicineState current) {
+        if (previous == null && current != null) {
+            totalMedicines.increment();
+        } else if (previous != null && current == null) {
+            totalMedicines.decrement();
+        }
+        if (previous != null) {
+            if (previous.lowStock()) {
+                lowStockMedicines.decrement();
+            }
+            addExpiry(previous.activeExpiryDate(), -1);
+        }
+        if (current != null) {
+            if (current.lowStock()) {
+                lowStockMedicines.increment();
+            }
+            addExpiry(current.activeExpiryDate(), 1);
+        }
+    }
+    
+    private void applyEquipment(EquipmentState previous, EquipmentState current) {
+        if (previous == null && current != null) {
+            totalEquipment.increment();
+        } else if (previous != null && current == null) {
+            totalEquipment.decrement();
+        }
+        if (previous != null) {
+            addMaintenance(previous.activeMaintenanceDate(), -1);
+        }
+        if (current != null) {
+            addMaintenance(current.activeMaintenanceDate(), 1);
+        }
+    }
+    
+    private void applyOrder(PurchaseOrder.OrderStatus previous, PurchaseOrder.OrderStatus current) {
+        if (previous == PurchaseOrder.OrderStatus.PENDING) {
+            pendingOrders.decrement();
+        }
+        if (current == PurchaseOrder.OrderStatus.PENDING) {
+            pendingOrders.increment();
+        }
+    }
+    
+    private void addExpiry(LocalDate day, int delta) {
+        if (day == null) {
+            return;
+        }
+        expiryDays.computeIfAbsent(day, d -> new LongAdder()).add(delta);
+        if (!day.isBefore(today) && !day.isAfter(expiryWindowEnd())) {
+            expiringMedicines.add(delta);
+        }
+    }
+    
+    private void addMaintenance(LocalDate day, int delta) {
+        if (day == null) {
+            return;
+        }
+        maintenanceDays.computeIfAbsent(day, d -> new LongAdder()).add(delta);
+        if (day.isBefore(maintenanceWindowEnd())) {
+            equipmentNeedingMaintenance.add(delta);
+        }
+    }
+    
+    private LocalDate expiryWindowEnd() {
+        return today.plusDays(DashboardService.EXPIRY_WINDOW_DAYS);
+    }
+    
+    private LocalDate maintenanceWindowEnd() {
+        return today.plusDays(DashboardService.MAINTENANCE_WINDOW_DAYS);
+    }
+    
+    private void withReadLock(Consumer<Tracked> track, Runnable action) {
+        lock.readLock().lock();
+        try {
+            Tracked live = tracked;
+            if (live != null) {
+                track.accept(live);
+            }
+            // Anything written before seeding is picked up by the initial load
+            if (seeded) {
+                action.run();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static long sum(Map<LocalDate, LongAdder> days) {
+        long total = 0;
+        for (LongAdder count : days.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+    
+    private record MedicineState(boolean lowStock, LocalDate activeExpiryDate) {}
+    
+    private record EquipmentState(LocalDate activeMaintenanceDate) {}
+    
+    /** Last written state per row during a reset; an empty value means the row was removed. */
+    private record Tracked(Map<Long, Optional<MedicineState>> medicines, Set<Long> deactivatedMedicines,
+                           Map<Long, Optional<EquipmentState>> equipment,
+                           Map<Long, Optional<PurchaseOrder.OrderStatus>> orders) {
+        
+        void medicineSaved(Long id, MedicineState state) {
+            medicines.put(id, Optional.of(state));
+            deactivatedMedicines.remove(id);
+        }
+        
+        /** A bulk deactivation only clears the expiry date of whatever state the row ends up with. */
+        void medicineDeactivated(Long id) {
+            if (medicines.computeIfPresent(id, (key, state) ->
+                    state.map(s -> new MedicineState(s.lowStock(), null))) == null) {
+                deactivatedMedicines.add(id);
+            }
+        }
+        
+        void applyTo(Map<Long, MedicineState> medicineStates, Map<Long, EquipmentState> equipmentStates,
+                     Map<Long, PurchaseOrder.OrderStatus> orderStatuses) {
+            medicines.forEach((id, state) -> put(medicineStates, id, state));
+            deactivatedMedicines.forEach(id ->
+                    medicineStates.computeIfPresent(id, (key, state) -> new MedicineState(state.lowStock(), null)));
+            equipment.forEach((id, state) -> put(equipmentStates, id, state));
+            orders.forEach((id, status) -> put(orderStatuses, id, status));
+        }
+        
+        private static <V> void put(Map<Long, V> target, Long id, Optional<V> value) {
+            if (value.isPresent()) {
+                target.put(id, value.get());
+            } else {
+                target.remove(id);
+            }
+        }
+    }
+}
@@ -1,17 +1,30 @@
 package com.hemis.service;
 
 import com.hemis.dto.DashboardStats;
-import com.hemis.entity.Equipment;
 import com.hemis.entity.PurchaseOrder;
 import com.hemis.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 
 @Service
 public class DashboardService {
     
+    public static final int LOW_STOCK_THRESHOLD = 50;
+    public static final int EXPIRY_WINDOW_DAYS = 30;
+    public static final int MAINTENANCE_WINDOW_DAYS = 30;
+    
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+    
     @Autowired
     private MedicineRepository medicineRepository;
     
@@ -24,26 +37,92 @@ public class DashboardService {
     @Autowired
     private PurchaseOrderRepository purchaseOrderRepository;
     
+    @Autowired
+    private DashboardCounters dashboardCounters;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    /**
+     * Serves the dashboard from the in-memory counters, falling back to the aggregate
+     * queries until the counters have been seeded.
+     */
     public DashboardStats getStats() {
+        if (!dashboardCounters.isSeeded()) {
+            return readOnlyTransaction().execute(status -> computeStats());
+        }
+        LocalDate today = LocalDate.now();
+        if (!today.equals(dashboardCounters.getToday())) {
+            dashboardCounters.rollOver(today);
+        }
+        return dashboardCounters.snapshot();
+    }
+    
+    /**
+     * Computes the dashboard figures with aggregate queries only, so no
+     * entities (or their eager supplier/user joins) are loaded.
+     */
+    @Transactional(readOnly = true)
+    public DashboardStats computeStats() {
         LocalDate today = LocalDate.now();
-        LocalDate next30Days = today.plusDays(30);
         
-        long totalMedicines = medicineRepository.count();
-        long totalEquipment = equipmentRepository.count();
+        MedicineRepository.MedicineStats medicineStats = medicineRepository.getStats(
+                LOW_STOCK_THRESHOLD, today, today.plusDays(EXPIRY_WINDOW_DAYS));
+        EquipmentRepository.EquipmentStats equipmentStats = equipmentRepository.getStats(
+                today.plusDays(MAINTENANCE_WINDOW_DAYS));
         long totalSuppliers = supplierRepository.count();
-        long lowStockMedicines = medicineRepository.findByQuantityLessThan(50).size();
-        long expiringMedicines = medicineRepository.findExpiringBetween(today, next30Days).size();
-        long equipmentNeedingMaintenance = equipmentRepository.findMaintenanceDue(next30Days).size();
-        long pendingOrders = purchaseOrderRepository.findByStatus(PurchaseOrder.OrderStatus.PENDING).size();
+        long pendingOrders = purchaseOrderRepository.countByStatus(PurchaseOrder.OrderStatus.PENDING);
         
         return new DashboardStats(
-            totalMedicines,
-            totalEquipment,
+            medicineStats.getTotal(),
+            equipmentStats.getTotal(),
             totalSuppliers,
-            lowStockMedicines,
-            expiringMedicines,
-            equipmentNeedingMaintenance,
+            medicineStats.getLowStock(),
+            medicineStats.getExpiring(),
+            equipmentStats.getMaintenanceDue(),
             pendingOrders
         );
     }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void seedCounters() {
+        dashboardCounters.beginReset();
+        dashboardCounters.reset(
+            LocalDate.now(),
+            medicineRepository.findCounterRows(),
+            equipmentRepository.findCounterRows(),
+            supplierRepository.count(),
+            purchaseOrderRepository.findCounterRows()
+        );
+        logger.info("Dashboard counters seeded");
+    }
+    
+    @Scheduled(cron = "0 0 0 * * ?") // Run daily at midnight
+    public void rollOverCounters() {
+        dashboardCounters.rollOver(LocalDate.now());
+    }
+    
+    /**
+     * Corrects drift from writes that bypass the entity listeners (bulk updates,
+     * rolled-back transactions) by comparing against the aggregate queries. Called on this
+     * bean directly, so the read-only transactions are opened here rather than by the proxy.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.counters.reconcile-interval:600000}",
+               initialDelayString = "${dashboard.counters.reconcile-interval:600000}")
+    public void reconcileCounters() {
+        TransactionTemplate transaction = readOnlyTransaction();
+        DashboardStats expected = transaction.execute(status -> computeStats());
+        DashboardStats actual = getStats();
+        if (!expected.equals(actual)) {
+            logger.warn("Dashboard counters drifted (counters: {}, database: {}), reseeding", actual, expected);
+            transaction.executeWithoutResult(status -> seedCounters());
+        }
+    }
+    
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
 }
@@ -1,42 +1,395 @@
 package com.hemis.service;
 
+import com.hemis.dto.ExpiryCheckResult;
+import com.hemis.entity.ExpiryAlert;
+import com.hemis.entity.ExpiryAlert.AlertType;
+import com.hemis.entity.JobCheckpoint;
 import com.hemis.entity.Medicine;
+import com.hemis.index.FefoIndex;
+import com.hemis.index.MedicineExpiryIndex;
+import com.hemis.index.NameSearchIndex;
+import com.hemis.repository.ExpiryAlertRepository;
+import com.hemis.repository.JobCheckpointRepository;
 import com.hemis.repository.MedicineRepository;
+import com.hemis.scheduling.SchedulerLock;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Expiry lookups and the daily expiry check. The check walks active medicines in ID order,
+ * expired ones first and then those expiring soon, a chunk of IDs at a time. Chunks run on a
+ * bounded worker pool; each one deactivates its expired batches with a single UPDATE and
+ * writes its alerts in the same transaction. Progress is checkpointed, so a run that dies
+ * part-way resumes where it stopped.
+ */
 @Service
 public class ExpiryCheckService {
     
     private static final Logger logger = LoggerFactory.getLogger(ExpiryCheckService.class);
+    private static final String JOB_NAME = "expiry-check";
+    
+    @Value("${expiry.check.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${expiry.check.workers:4}")
+    private int workers;
+    
+    @Value("${expiry.check.warning-days:30}")
+    private int warningDays;
+    
+    @Value("${expiry.check.lock-at-most-for:10m}")
+    private String lockAtMostFor;
     
     @Autowired
     private MedicineRepository medicineRepository;
     
-    @Scheduled(cron = "0 0 8 * * ?") // Run daily at 8 AM
+    @Autowired
+    private MedicineExpiryIndex medicineExpiryIndex;
+    
+    @Autowired
+    private FefoIndex fefoIndex;
+    
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+    
+    @Autowired
+    private DashboardCounters dashboardCounters;
+    
+    @Autowired
+    private ExpiryAlertRepository expiryAlertRepository;
+    
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+    
+    @Autowired
+    private JobLockService jobLockService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private ThreadPoolExecutor executor;
+    
+    private enum Phase {
+        EXPIRED, EXPIRING
+    }
+    
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        // A wave never submits more chunks than there are workers, so the queue cannot overflow
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers), runnable -> {
+                    Thread thread = new Thread(runnable, "expiry-check-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Loads the expiry index at startup and reloads it periodically, correcting drift from
+     * writes the entity listener missed or saw but were rolled back.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${expiry.index.reload-interval:3600000}",
+               initialDelayString = "${expiry.index.reload-interval:3600000}")
+    @Transactional(readOnly = true)
+    public void loadExpiryIndex() {
+        medicineExpiryIndex.beginLoad();
+        Map<Long, LocalDate> expiryDates = new HashMap<>();
+        for (MedicineRepository.CounterRow row : medicineRepository.findCounterRows()) {
+            if (Boolean.TRUE.equals(row.getActive()) && row.getExpiryDate() != null) {
+                expiryDates.put(row.getId(), row.getExpiryDate());
+            }
+        }
+        medicineExpiryIndex.load(expiryDates);
+        logger.info("Medicine expiry index loaded with {} entries", expiryDates.size());
+    }
+    
+    /**
+     * Active medicines expiring between today and {@code days} from now, ordered by expiry date.
+     */
+    public Page<Medicine> findExpiring(int days, int page, int size) {
+        LocalDate startDate = LocalDate.now();
+        LocalDate endDate = startDate.plusDays(days);
+        PageRequest pageRequest = PageRequest.of(page, size);
+        if (!medicineExpiryIndex.isLoaded()) {
+            return medicineRepository.findExpiringBetween(startDate, endDate, pageRequest);
+        }
+        return toPage(medicineExpiryIndex.findExpiringBetween(startDate, endDate, page, size), pageRequest);
+    }
+    
+    /**
+     * Active medicines already past their expiry date, ordered by expiry date.
+     */
+    public Page<Medicine> findExpired(int page, int size) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        if (!medicineExpiryIndex.isLoaded()) {
+            return medicineRepository.findExpired(LocalDate.now(), pageRequest);
+        }
+        return toPage(medicineExpiryIndex.findExpiredBefore(LocalDate.now(), page, size), pageRequest);
+    }
+    
+    @Scheduled(cron = "${expiry.check.cron:0 0 8 * * ?}")
+    @SchedulerLock(name = JOB_NAME, lockAtMostFor = "${expiry.check.lock-at-most-for:10m}", lockAtLeastFor = "1m")
     public void checkExpiredMedicines() {
-        LocalDate today = LocalDate.now();
-        List<Medicine> expired = medicineRepository.findExpired(today);
-        
-        if (!expired.isEmpty()) {
-            logger.warn("Found {} expired medicines", expired.size());
-            for (Medicine medicine : expired) {
-                logger.warn("Expired: {} (ID: {}, Expiry: {})", 
-                    medicine.getName(), medicine.getMedicineId(), medicine.getExpiryDate());
-            }
-        }
-        
-        LocalDate next30Days = today.plusDays(30);
-        List<Medicine> expiring = medicineRepository.findExpiringBetween(today, next30Days);
-        
-        if (!expiring.isEmpty()) {
-            logger.info("Found {} medicines expiring in next 30 days", expiring.size());
+        try {
+            runCheck();
+        } catch (JobAlreadyRunningException e) {
+            logger.info("Skipping expiry check: {}", e.getMessage());
+        } catch (LockLostException e) {
+            logger.warn("Expiry check stopped: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Expiry check failed; the next run resumes from its checkpoint", e);
+        }
+    }
+    
+    /**
+     * Picks up a run that did not finish, e.g. because its node went down. Shares the
+     * check's lease, so it waits for a dead holder's lease to run out before taking over.
+     */
+    @Scheduled(fixedDelayString = "${expiry.check.resume-interval:300000}", initialDelay = 30000)
+    @SchedulerLock(name = JOB_NAME, lockAtMostFor = "${expiry.check.lock-at-most-for:10m}")
+    public void resumeInterruptedCheck() {
+        Optional<JobCheckpoint> checkpoint = jobCheckpointRepository.findById(JOB_NAME);
+        if (checkpoint.isPresent() && !checkpoint.get().getCompleted()) {
+            logger.info("Resuming expiry check of {} from {} after ID {}", checkpoint.get().getRunDate(),
+                    checkpoint.get().getPhase(), checkpoint.get().getLastId());
+            checkExpiredMedicines();
+        }
+    }
+    
+    /**
+     * Raises alerts for expired and soon-to-expire stock and deactivates the expired batches.
+     * Continues today's run from its checkpoint if it was interrupted, otherwise starts over;
+     * alerts already written today are not repeated. Runs under the scheduled check's lease,
+     * taking it first when called from outside the scheduler, so concurrent runs on any node
+     * are refused with {@link JobAlreadyRunningException}. A failed chunk stops the run and
+     * propagates; the checkpoint keeps the progress made so far.
+     */
+    public ExpiryCheckResult runCheck() {
+        if (jobLockService.current(JOB_NAME).isPresent()) {
+            return runLocked();
+        }
+        JobLockService.Lease lease = jobLockService.tryAcquire(JOB_NAME, DurationStyle.detectAndParse(lockAtMostFor))
+                .orElseThrow(() -> new JobAlreadyRunningException("Another expiry check holds the lease"));
+        try {
+            return runLocked();
+        } finally {
+            jobLockService.release(lease, Duration.ZERO);
+        }
+    }
+    
+    private ExpiryCheckResult runLocked() {
+        if (!running.compareAndSet(false, true)) {
+            throw new JobAlreadyRunningException("An expiry check is already running");
+        }
+        try {
+            long started = System.nanoTime();
+            LocalDate today = LocalDate.now();
+            Optional<JobCheckpoint> saved = jobCheckpointRepository.findById(JOB_NAME)
+                    .filter(c -> today.equals(c.getRunDate()) && !c.getCompleted());
+            JobCheckpoint checkpoint = saved.orElseGet(() ->
+                    new JobCheckpoint(JOB_NAME, today, Phase.EXPIRED.name(), 0L, false, LocalDateTime.now()));
+            
+            long[] totals = new long[3];
+            for (Phase phase : Phase.values()) {
+                Phase current = Phase.valueOf(checkpoint.getPhase());
+                if (phase.ordinal() < current.ordinal()) {
+                    continue;
+                }
+                if (phase != current) {
+                    checkpoint.setPhase(phase.name());
+                    checkpoint.setLastId(0L);
+                }
+                runPhase(phase, today, checkpoint, totals);
+            }
+            checkpoint.setCompleted(true);
+            saveCheckpoint(checkpoint);
+            
+            logger.info("Expiry check for {}: {} expired ({} deactivated), {} expiring within {} days, in {} ms",
+                    today, totals[0], totals[1], totals[2], warningDays, (System.nanoTime() - started) / 1_000_000);
+            return new ExpiryCheckResult(today, totals[0], totals[1], totals[2], saved.isPresent());
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    /** Alerts newest first, optionally of one type only. */
+    public List<ExpiryAlert> findAlerts(AlertType type, Long beforeId, int limit) {
+        return expiryAlertRepository.findPageBefore(type, beforeId == null ? Long.MAX_VALUE : beforeId, Limit.of(limit));
+    }
+    
+    /**
+     * Walks the phase's medicines from the checkpoint in waves of up to one chunk per worker.
+     * The checkpoint only moves once every chunk of a wave has committed.
+     */
+    private void runPhase(Phase phase, LocalDate today, JobCheckpoint checkpoint, long[] totals) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        boolean more = true;
+        while (more) {
+            List<List<Long>> wave = new ArrayList<>(workers);
+            long afterId = checkpoint.getLastId();
+            while (more && wave.size() < workers) {
+                long from = afterId;
+                List<Long> ids = readOnly.execute(status -> nextIds(phase, today, from));
+                if (!ids.isEmpty()) {
+                    wave.add(ids);
+                    afterId = ids.get(ids.size() - 1);
+                }
+                more = ids.size() == chunkSize;
+            }
+            if (wave.isEmpty()) {
+                return;
+            }
+            
+            List<Future<int[]>> results = new ArrayList<>(wave.size());
+            for (List<Long> ids : wave) {
+                results.add(executor.submit(() -> processChunk(phase, today, ids)));
+            }
+            RuntimeException failure = null;
+            for (Future<int[]> result : results) {
+                try {
+                    int[] counts = result.get();
+                    totals[phase == Phase.EXPIRED ? 0 : 2] += counts[0];
+                    totals[1] += counts[1];
+                } catch (ExecutionException e) {
+                    failure = failure != null ? failure : new IllegalStateException("Expiry check chunk failed", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure = failure != null ? failure : new IllegalStateException("Expiry check interrupted", e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            checkpoint.setLastId(afterId);
+            saveCheckpoint(checkpoint);
+        }
+    }
+    
+    private List<Long> nextIds(Phase phase, LocalDate today, long afterId) {
+        Limit limit = Limit.of(chunkSize);
+        return phase == Phase.EXPIRED
+                ? medicineRepository.findExpiredIdsAfter(today, afterId, limit)
+                : medicineRepository.findExpiringIdsAfter(today, today.plusDays(warningDays), afterId, limit);
+    }
+    
+    /**
+     * Writes alerts for one chunk and, for expired stock, deactivates it with a single UPDATE.
+     * Rows are re-checked here, since they may have changed after the chunk was read.
+     * Returns the number of alerts written and of medicines deactivated.
+     */
+    private int[] processChunk(Phase phase, LocalDate today, List<Long> ids) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            AlertType type = phase == Phase.EXPIRED ? AlertType.EXPIRED : AlertType.EXPIRING;
+            LocalDate windowEnd = today.plusDays(warningDays);
+            List<MedicineRepository.AlertRow> rows = medicineRepository.findAlertRows(ids).stream()
+                    .filter(row -> Boolean.TRUE.equals(row.getActive()) && row.getExpiryDate() != null)
+                    .filter(row -> phase == Phase.EXPIRED
+                            ? row.getExpiryDate().isBefore(today)
+                            : !row.getExpiryDate().isBefore(today) && !row.getExpiryDate().isAfter(windowEnd))
+                    .toList();
+            if (rows.isEmpty()) {
+                return new int[] {0, 0};
+            }
+            
+            int deactivated = 0;
+            List<Long> deactivatedIds = List.of();
+            if (phase == Phase.EXPIRED) {
+                deactivatedIds = rows.stream().map(MedicineRepository.AlertRow::getId).toList();
+                deactivated = medicineRepository.deactivateExpired(deactivatedIds, today);
+                notifyDeactivated(deactivatedIds);
+            }
+            
+            Set<Long> alerted = new HashSet<>(expiryAlertRepository.findAlertedMedicineIds(today, type, ids));
+            LocalDateTime now = LocalDateTime.now();
+            List<ExpiryAlert> alerts = new ArrayList<>(rows.size());
+            for (MedicineRepository.AlertRow row : rows) {
+                if (!alerted.contains(row.getId())) {
+                    alerts.add(new ExpiryAlert(null, row.getId(), row.getName(), row.getBatchNumber(),
+                            row.getExpiryDate(), row.getQuantity(), type, phase == Phase.EXPIRED, today, now));
+                }
+            }
+            expiryAlertRepository.saveAll(alerts);
+            return new int[] {alerts.size(), deactivated};
+        });
+    }
+    
+    /** The bulk UPDATE bypasses entity listeners, so the in-memory views are told once it commits. */
+    private void notifyDeactivated(List<Long> ids) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (Long id : ids) {
+                    medicineExpiryIndex.remove(id);
+                    fefoIndex.remove(id);
+                    nameSearchIndex.medicines().remove(id);
+                    dashboardCounters.medicineDeactivated(id);
+                }
+            }
+        });
+    }
+    
+    /** Renews the lease first, so a node that has lost it stops before moving the checkpoint. */
+    private void saveCheckpoint(JobCheckpoint checkpoint) {
+        jobLockService.renew();
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> jobCheckpointRepository.save(checkpoint));
+    }
+    
+    private Page<Medicine> toPage(MedicineExpiryIndex.IdPage idPage, PageRequest pageRequest) {
+        List<Long> ids = new ArrayList<>(idPage.ids().length);
+        for (long id : idPage.ids()) {
+            ids.add(id);
         }
+        Map<Long, Medicine> byId = medicineRepository.findByMedicineIdIn(ids).stream()
+                .collect(Collectors.toMap(Medicine::getMedicineId, Function.identity()));
+        List<Medicine> medicines = ids.stream().map(byId::get).filter(m -> m != null).toList();
+        return new PageImpl<>(medicines, pageRequest, idPage.total());
     }
 }
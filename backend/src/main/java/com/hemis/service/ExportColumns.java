@@ -0,0 +1,97 @@
+package com.hemis.service;
+
+import com.hemis.dto.ExportColumn;
+import com.hemis.entity.*;
+
+import java.util.List;
+
+/**
+ * Column layouts for the export endpoints. Nested entities are flattened to their ID and name,
+ * and user password hashes are never exported.
+ */
+public final class ExportColumns {
+    
+    public static final List<ExportColumn<Medicine>> MEDICINES = List.of(
+        new ExportColumn<>("medicineId", Medicine::getMedicineId),
+        new ExportColumn<>("name", Medicine::getName),
+        new ExportColumn<>("description", Medicine::getDescription),
+        new ExportColumn<>("category", Medicine::getCategory),
+        new ExportColumn<>("quantity", Medicine::getQuantity),
+        new ExportColumn<>("unitPrice", Medicine::getUnitPrice),
+        new ExportColumn<>("expiryDate", Medicine::getExpiryDate),
+        new ExportColumn<>("batchNumber", Medicine::getBatchNumber),
+        new ExportColumn<>("supplierId", m -> supplierId(m.getSupplier())),
+        new ExportColumn<>("supplierName", m -> supplierName(m.getSupplier())),
+        new ExportColumn<>("active", Medicine::getActive),
+        new ExportColumn<>("createdAt", Medicine::getCreatedAt),
+        new ExportColumn<>("updatedAt", Medicine::getUpdatedAt)
+    );
+    
+    public static final List<ExportColumn<Equipment>> EQUIPMENT = List.of(
+        new ExportColumn<>("equipmentId", Equipment::getEquipmentId),
+        new ExportColumn<>("name", Equipment::getName),
+        new ExportColumn<>("description", Equipment::getDescription),
+        new ExportColumn<>("category", Equipment::getCategory),
+        new ExportColumn<>("serialNumber", Equipment::getSerialNumber),
+        new ExportColumn<>("model", Equipment::getModel),
+        new ExportColumn<>("supplierId", e -> supplierId(e.getSupplier())),
+        new ExportColumn<>("supplierName", e -> supplierName(e.getSupplier())),
+        new ExportColumn<>("purchaseDate", Equipment::getPurchaseDate),
+        new ExportColumn<>("purchasePrice", Equipment::getPurchasePrice),
+        new ExportColumn<>("status", Equipment::getStatus),
+        new ExportColumn<>("nextMaintenanceDate", Equipment::getNextMaintenanceDate),
+        new ExportColumn<>("location", Equipment::getLocation),
+        new ExportColumn<>("active", Equipment::getActive),
+        new ExportColumn<>("createdAt", Equipment::getCreatedAt),
+        new ExportColumn<>("updatedAt", Equipment::getUpdatedAt)
+    );
+    
+    public static final List<ExportColumn<PurchaseOrder>> ORDERS = List.of(
+        new ExportColumn<>("orderId", PurchaseOrder::getOrderId),
+        new ExportColumn<>("orderNumber", PurchaseOrder::getOrderNumber),
+        new ExportColumn<>("supplierId", o -> supplierId(o.getSupplier())),
+        new ExportColumn<>("supplierName", o -> supplierName(o.getSupplier())),
+        new ExportColumn<>("orderedBy", o -> username(o.getOrderedBy())),
+        new ExportColumn<>("itemType", PurchaseOrder::getItemType),
+        new ExportColumn<>("itemName", PurchaseOrder::getItemName),
+        new ExportColumn<>("quantity", PurchaseOrder::getQuantity),
+        new ExportColumn<>("unitPrice", PurchaseOrder::getUnitPrice),
+        new ExportColumn<>("totalAmount", PurchaseOrder::getTotalAmount),
+        new ExportColumn<>("orderDate", PurchaseOrder::getOrderDate),
+        new ExportColumn<>("deliveryDate", PurchaseOrder::getDeliveryDate),
+        new ExportColumn<>("status", PurchaseOrder::getStatus),
+        new ExportColumn<>("notes", PurchaseOrder::getNotes),
+        new ExportColumn<>("createdAt", PurchaseOrder::getCreatedAt),
+        new ExportColumn<>("updatedAt", PurchaseOrder::getUpdatedAt)
+    );
+    
+    public static final List<ExportColumn<MaintenanceRecord>> MAINTENANCE = List.of(
+        new ExportColumn<>("recordId", MaintenanceRecord::getRecordId),
+        new ExportColumn<>("equipmentId", r -> r.getEquipment() == null ? null : r.getEquipment().getEquipmentId()),
+        new ExportColumn<>("equipmentName", r -> r.getEquipment() == null ? null : r.getEquipment().getName()),
+        new ExportColumn<>("technician", r -> username(r.getTechnician())),
+        new ExportColumn<>("maintenanceDate", MaintenanceRecord::getMaintenanceDate),
+        new ExportColumn<>("type", MaintenanceRecord::getType),
+        new ExportColumn<>("description", MaintenanceRecord::getDescription),
+        new ExportColumn<>("cost", MaintenanceRecord::getCost),
+        new ExportColumn<>("performedBy", MaintenanceRecord::getPerformedBy),
+        new ExportColumn<>("nextScheduledDate", MaintenanceRecord::getNextScheduledDate),
+        new ExportColumn<>("status", MaintenanceRecord::getStatus),
+        new ExportColumn<>("createdAt", MaintenanceRecord::getCreatedAt)
+    );
+    
+    private ExportColumns() {
+    }
+    
+    private static Long supplierId(Supplier supplier) {
+        return supplier == null ? null : supplier.getSupplierId();
+    }
+    
+    private static String supplierName(Supplier supplier) {
+        return supplier == null ? null : supplier.getName();
+    }
+    
+    private static String username(User user) {
+        return user == null ? null : user.getUsername();
+    }
+}
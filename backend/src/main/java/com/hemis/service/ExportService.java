@@ -0,0 +1,154 @@
+package com.hemis.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hemis.dto.ExportColumn;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams repository rows to the response as NDJSON or CSV. Rows are written as they are read
+ * and detached straight after, so memory use does not grow with the size of the table.
+ */
+@Service
+public class ExportService {
+    
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    public enum Format {
+        NDJSON, CSV
+    }
+    
+    /**
+     * @param name           base name of the downloaded file
+     * @param rows           opens the row stream; called inside a read-only transaction
+     * @param format         {@code ndjson} or {@code csv}
+     * @param acceptEncoding the request's Accept-Encoding header; gzip is used when it is accepted
+     */
+    public <T> ResponseEntity<StreamingResponseBody> export(String name, Supplier<Stream<T>> rows,
+                                                            List<ExportColumn<T>> columns,
+                                                            String format, String acceptEncoding) {
+        Format exportFormat = parseFormat(format);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        
+        StreamingResponseBody body = outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, 8192) : outputStream;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 16384);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<T> stream = rows.get()) {
+                    if (exportFormat == Format.CSV) {
+                        writeCsvHeader(writer, columns);
+                    }
+                    stream.forEach(row -> {
+                        writeRow(writer, row, columns, exportFormat);
+                        entityManager.detach(row);
+                    });
+                }
+            });
+            writer.flush();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+        };
+        
+        String extension = exportFormat == Format.CSV ? "csv" : "ndjson";
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat == Format.CSV ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + extension + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
+    private static Format parseFormat(String format) {
+        try {
+            return Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+    }
+    
+    private <T> void writeRow(Writer writer, T row, List<ExportColumn<T>> columns, Format format) {
+        try {
+            if (format == Format.CSV) {
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    Object value = columns.get(i).value().apply(row);
+                    if (value != null) {
+                        writer.write(escapeCsv(value.toString()));
+                    }
+                }
+            } else {
+                Map<String, Object> values = new LinkedHashMap<>();
+                for (ExportColumn<T> column : columns) {
+                    values.put(column.name(), column.value().apply(row));
+                }
+                writer.write(objectMapper.writeValueAsString(values));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static <T> void writeCsvHeader(Writer writer, List<ExportColumn<T>> columns) {
+        try {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(columns.get(i).name());
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,23 @@
+package com.hemis.service;
+
+/**
+ * Thrown when a dispense would take a medicine's quantity below zero.
+ */
+public class InsufficientStockException extends RuntimeException {
+    
+    private final Long medicineId;
+    
+    public InsufficientStockException(Long medicineId, int requested) {
+        super("Insufficient stock for medicine " + medicineId + ": requested " + requested);
+        this.medicineId = medicineId;
+    }
+    
+    public InsufficientStockException(String name, int requested, int available) {
+        super("Insufficient stock for " + name + ": requested " + requested + ", available " + available);
+        this.medicineId = null;
+    }
+    
+    public Long getMedicineId() {
+        return medicineId;
+    }
+}
@@ -0,0 +1,11 @@
+package com.hemis.service;
+
+/**
+ * Thrown when a refresh token is unknown, spent, expired or belongs to an inactive user.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+    
+    public InvalidRefreshTokenException() {
+        super("Invalid refresh token");
+    }
+}
@@ -0,0 +1,12 @@
+package com.hemis.service;
+
+/**
+ * Thrown when a job cannot start because it is already running on this node or another
+ * node holds its lease. Callers skip the run (or answer 409); it is not a failure.
+ */
+public class JobAlreadyRunningException extends RuntimeException {
+    
+    public JobAlreadyRunningException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,154 @@
+package com.hemis.service;
+
+import com.hemis.repository.JobLockRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+/**
+ * Leases in the job_locks table, so a scheduled job runs on one node of the cluster at a time.
+ * <p>
+ * A lease is granted by a conditional UPDATE that only matches an expired row, and lasts
+ * {@code lockAtMostFor}, so it fails over if the holder dies. Each grant increments the
+ * row's fencing token. Long jobs call {@link #renew()} before each durable step; that both
+ * extends the lease and fails with {@link LockLostException} once a newer grant exists.
+ * A thread may hold several leases when one job calls another; they nest like calls.
+ * Lease times come from the node clocks, so {@code lockAtMostFor} must exceed their skew.
+ */
+@Service
+public class JobLockService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JobLockService.class);
+    
+    @Value("${scheduler.lock.node-id:}")
+    private String nodeId;
+    
+    @Autowired
+    private JobLockRepository jobLockRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    /** The calling thread's leases, innermost first. */
+    private final ThreadLocal<Deque<Lease>> held = new ThreadLocal<>();
+    
+    public record Lease(String name, long fencingToken, LocalDateTime lockedAt, Duration lockAtMostFor) {}
+    
+    @PostConstruct
+    void init() {
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = ManagementFactory.getRuntimeMXBean().getName();
+        }
+    }
+    
+    /** The innermost lease held by the calling thread, if any. */
+    public Optional<Lease> current() {
+        Deque<Lease> leases = held.get();
+        return leases == null ? Optional.empty() : Optional.ofNullable(leases.peek());
+    }
+    
+    /** The named lease if the calling thread holds it, at any depth. */
+    public Optional<Lease> current(String name) {
+        Deque<Lease> leases = held.get();
+        return leases == null ? Optional.empty()
+                : leases.stream().filter(lease -> lease.name().equals(name)).findFirst();
+    }
+    
+    /**
+     * Takes the named lease for the calling thread unless another holder's lease is still
+     * running. The caller must {@link #release} it.
+     */
+    public Optional<Lease> tryAcquire(String name, Duration lockAtMostFor) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(lockAtMostFor);
+        TransactionTemplate transaction = newTransaction();
+        Long token = transaction.execute(status -> jobLockRepository.acquire(name, now, until, nodeId) == 1
+                ? jobLockRepository.findFencingToken(name) : null);
+        if (token == null) {
+            try {
+                token = transaction.execute(status -> jobLockRepository.existsById(name) ? null
+                        : jobLockRepository.insert(name, now, until, nodeId) == 1 ? 1L : null);
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the row first and holds the lease
+                token = null;
+            }
+        }
+        if (token == null) {
+            return Optional.empty();
+        }
+        Lease lease = new Lease(name, token, now, lockAtMostFor);
+        Deque<Lease> leases = held.get();
+        if (leases == null) {
+            leases = new ArrayDeque<>();
+            held.set(leases);
+        }
+        leases.push(lease);
+        logger.debug("Acquired lock {} with fencing token {} on {}", name, token, nodeId);
+        return Optional.of(lease);
+    }
+    
+    /**
+     * Extends the calling thread's innermost lease by another {@code lockAtMostFor}. Does
+     * nothing when no lease is held, for work started outside the scheduler.
+     *
+     * @throws LockLostException if the lease has since been granted to someone else
+     */
+    public void renew() {
+        Lease lease = current().orElse(null);
+        if (lease == null) {
+            return;
+        }
+        LocalDateTime until = LocalDateTime.now().plus(lease.lockAtMostFor());
+        Integer updated = newTransaction().execute(status ->
+                jobLockRepository.setLockedUntil(lease.name(), lease.fencingToken(), until));
+        if (updated == null || updated == 0) {
+            throw new LockLostException("Lock " + lease.name() + " with fencing token " + lease.fencingToken()
+                    + " has been taken over");
+        }
+    }
+    
+    /**
+     * Gives the lease up, but keeps it until {@code lockAtLeastFor} after it was taken, so
+     * nodes whose clocks trigger the same run slightly later do not repeat it.
+     */
+    public void release(Lease lease, Duration lockAtLeastFor) {
+        Deque<Lease> leases = held.get();
+        if (leases != null) {
+            leases.removeFirstOccurrence(lease);
+            if (leases.isEmpty()) {
+                held.remove();
+            }
+        }
+        LocalDateTime earliest = lease.lockedAt().plus(lockAtLeastFor);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = earliest.isAfter(now) ? earliest : now;
+        try {
+            newTransaction().executeWithoutResult(status ->
+                    jobLockRepository.setLockedUntil(lease.name(), lease.fencingToken(), until));
+        } catch (RuntimeException e) {
+            // The lease still runs out at lockAtMostFor
+            logger.warn("Failed to release lock {}", lease.name(), e);
+        }
+    }
+    
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        // Lease changes must be durable on their own, whatever the caller's transaction does
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction;
+    }
+}
@@ -0,0 +1,11 @@
+package com.hemis.service;
+
+/**
+ * Thrown when a job's lease has been granted to another node, so the job must stop writing.
+ */
+public class LockLostException extends RuntimeException {
+    
+    public LockLostException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,142 @@
+package com.hemis.service;
+
+import com.hemis.dto.LoginRequest;
+import com.hemis.dto.LoginResponse;
+import com.hemis.security.StripedTokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides whether a login attempt may spend CPU on a password check. Attempts are
+ * rate-limited per username and per client IP, and admitted ones run on a small
+ * fixed pool with a bounded queue; anything beyond that is refused immediately so a
+ * burst of logins cannot starve the rest of the API.
+ */
+@Service
+public class LoginAdmissionService {
+    
+    @Value("${login.rate-limit.stripes:4096}")
+    private int stripes;
+    
+    @Value("${login.rate-limit.username.capacity:5}")
+    private int usernameCapacity;
+    
+    @Value("${login.rate-limit.username.per-minute:5}")
+    private int usernamePerMinute;
+    
+    @Value("${login.rate-limit.ip.capacity:30}")
+    private int ipCapacity;
+    
+    @Value("${login.rate-limit.ip.per-minute:60}")
+    private int ipPerMinute;
+    
+    @Value("${login.executor.threads:0}")
+    private int threads;
+    
+    @Value("${login.executor.queue-capacity:64}")
+    private int queueCapacity;
+    
+    @Value("${login.executor.timeout:10000}")
+    private long timeoutMillis;
+    
+    @Autowired
+    private AuthService authService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private StripedTokenBucket usernameBuckets;
+    private StripedTokenBucket ipBuckets;
+    private ThreadPoolExecutor executor;
+    private Counter accepted;
+    private Counter rateLimited;
+    private Counter overloaded;
+    
+    @PostConstruct
+    void init() {
+        usernameBuckets = new StripedTokenBucket(stripes, usernameCapacity, usernamePerMinute);
+        ipBuckets = new StripedTokenBucket(stripes, ipCapacity, ipPerMinute);
+        
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        
+        accepted = counter("accepted");
+        rateLimited = counter("rate_limited");
+        overloaded = counter("overloaded");
+        Gauge.builder("hemis.login.queue", executor, e -> e.getQueue().size())
+                .description("Login attempts waiting for password verification")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    public LoginResponse login(LoginRequest request, String clientIp) {
+        long waitMillis = Math.max(ipBuckets.tryAcquire(clientIp),
+                usernameBuckets.tryAcquire(request.getUsername().toLowerCase(Locale.ROOT)));
+        if (waitMillis > 0) {
+            rateLimited.increment();
+            throw new TooManyLoginAttemptsException("Too many login attempts", toSeconds(waitMillis));
+        }
+        
+        Future<LoginResponse> result;
+        try {
+            result = executor.submit(() -> authService.login(request));
+        } catch (RejectedExecutionException e) {
+            overloaded.increment();
+            throw new TooManyLoginAttemptsException("Login service is busy", 1);
+        }
+        accepted.increment();
+        
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            overloaded.increment();
+            throw new TooManyLoginAttemptsException("Login service is busy", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for login", e);
+        }
+    }
+    
+    private Counter counter(String outcome) {
+        return Counter.builder("hemis.login.attempts")
+                .description("Login attempts by admission outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+}
@@ -0,0 +1,186 @@
+package com.hemis.service;
+
+import com.hemis.entity.Equipment;
+import com.hemis.entity.MaintenanceRecord;
+import com.hemis.entity.MaintenanceRecord.MaintenanceStatus;
+import com.hemis.index.MaintenanceScheduleIndex;
+import com.hemis.index.MaintenanceScheduleIndex.Slot;
+import com.hemis.repository.EquipmentRepository;
+import com.hemis.repository.MaintenanceRecordRepository;
+import com.hemis.scheduling.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Turns due equipment into SCHEDULED maintenance records. Due items are polled from
+ * {@link MaintenanceScheduleIndex} in date order and written in batches; completing a
+ * record moves the equipment's next maintenance date forward, which queues it again.
+ */
+@Service
+public class MaintenanceSchedulerService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceSchedulerService.class);
+    private static final EnumSet<MaintenanceStatus> OPEN_STATUSES =
+            EnumSet.of(MaintenanceStatus.SCHEDULED, MaintenanceStatus.IN_PROGRESS);
+    
+    /** Records are created this many days ahead of the maintenance date. */
+    @Value("${maintenance.scheduler.lead-days:7}")
+    private int leadDays;
+    
+    @Value("${maintenance.scheduler.batch-size:500}")
+    private int batchSize;
+    
+    @Autowired
+    private MaintenanceScheduleIndex maintenanceScheduleIndex;
+    
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+    
+    @Autowired
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private JobLockService jobLockService;
+    
+    /**
+     * Loads the schedule index at startup and reloads it periodically, to pick up equipment
+     * writes the entity listener missed or saw but were rolled back.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${maintenance.index.reload-interval:3600000}",
+               initialDelayString = "${maintenance.index.reload-interval:3600000}")
+    @Transactional(readOnly = true)
+    public void loadScheduleIndex() {
+        maintenanceScheduleIndex.beginLoad();
+        Map<Long, LocalDate> dates = new HashMap<>();
+        for (EquipmentRepository.CounterRow row : equipmentRepository.findCounterRows()) {
+            if (Boolean.TRUE.equals(row.getActive()) && row.getNextMaintenanceDate() != null) {
+                dates.put(row.getId(), row.getNextMaintenanceDate());
+            }
+        }
+        maintenanceScheduleIndex.load(dates);
+        logger.info("Maintenance schedule index loaded with {} entries", dates.size());
+    }
+    
+    /** Active equipment due for maintenance before {@code days} from now, earliest first. */
+    public List<Equipment> findDue(int days) {
+        LocalDate dueDate = LocalDate.now().plusDays(days);
+        if (!maintenanceScheduleIndex.isLoaded()) {
+            return equipmentRepository.findMaintenanceDue(dueDate);
+        }
+        List<Long> ids = maintenanceScheduleIndex.dueBefore(dueDate);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Equipment> byId = new HashMap<>();
+        equipmentRepository.findByEquipmentIdIn(ids).forEach(e -> byId.put(e.getEquipmentId(), e));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+    
+    /**
+     * Creates SCHEDULED records for everything that has come due since the last run.
+     * Returns the number of records created. The lease is renewed before each batch, so a
+     * run that outlives it stops before writing alongside the node that took it over.
+     */
+    @Scheduled(fixedDelayString = "${maintenance.scheduler.interval:60000}",
+               initialDelayString = "${maintenance.scheduler.interval:60000}")
+    @SchedulerLock(name = "maintenance-scheduler", lockAtMostFor = "5m")
+    public int scheduleDue() {
+        if (!maintenanceScheduleIndex.isLoaded()) {
+            return 0;
+        }
+        LocalDate horizon = LocalDate.now().plusDays(leadDays);
+        int created = 0;
+        List<Slot> batch;
+        while (!(batch = maintenanceScheduleIndex.pollDue(horizon, batchSize)).isEmpty()) {
+            try {
+                jobLockService.renew();
+                created += createScheduledRecords(batch);
+            } catch (LockLostException e) {
+                maintenanceScheduleIndex.requeue(batch);
+                logger.warn("Maintenance scheduling stopped after {} records: {}", created, e.getMessage());
+                break;
+            } catch (RuntimeException e) {
+                maintenanceScheduleIndex.requeue(batch);
+                logger.warn("Failed to schedule maintenance for {} equipment, will retry", batch.size(), e);
+                break;
+            }
+        }
+        if (created > 0) {
+            logger.info("Scheduled maintenance for {} equipment due by {}", created, horizon);
+        }
+        return created;
+    }
+    
+    /**
+     * Saves a maintenance record. A completed record with a next scheduled date moves the
+     * equipment's next maintenance date forward to it; earlier dates are left alone, so
+     * back-filled history cannot pull the schedule back.
+     */
+    @Transactional
+    public MaintenanceRecord save(MaintenanceRecord record) {
+        MaintenanceRecord saved = maintenanceRecordRepository.save(record);
+        LocalDate next = saved.getNextScheduledDate();
+        if (saved.getStatus() == MaintenanceStatus.COMPLETED && next != null) {
+            equipmentRepository.findById(saved.getEquipment().getEquipmentId()).ifPresent(equipment -> {
+                if (equipment.getNextMaintenanceDate() == null || next.isAfter(equipment.getNextMaintenanceDate())) {
+                    equipment.setNextMaintenanceDate(next);
+                }
+            });
+        }
+        return saved;
+    }
+    
+    private int createScheduledRecords(List<Slot> batch) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<Long> ids = batch.stream().map(Slot::equipmentId).toList();
+            Set<Slot> open = new HashSet<>();
+            for (MaintenanceRecordRepository.OpenRecord row : maintenanceRecordRepository.findOpenRecords(ids, OPEN_STATUSES)) {
+                open.add(new Slot(row.getMaintenanceDate().toEpochDay(), row.getEquipmentId()));
+            }
+            Map<Long, Equipment> equipment = new HashMap<>();
+            equipmentRepository.findAllById(ids).forEach(e -> equipment.put(e.getEquipmentId(), e));
+            
+            List<MaintenanceRecord> records = new ArrayList<>();
+            for (Slot slot : batch) {
+                Equipment item = equipment.get(slot.equipmentId());
+                if (item == null || !Boolean.TRUE.equals(item.getActive())
+                        || item.getStatus() == Equipment.EquipmentStatus.RETIRED
+                        || !slot.date().equals(item.getNextMaintenanceDate()) || open.contains(slot)) {
+                    continue;
+                }
+                MaintenanceRecord record = new MaintenanceRecord();
+                record.setEquipment(item);
+                record.setMaintenanceDate(slot.date());
+                record.setType(MaintenanceRecord.MaintenanceType.ROUTINE);
+                record.setStatus(MaintenanceStatus.SCHEDULED);
+                record.setDescription("Routine maintenance due " + slot.date());
+                records.add(record);
+            }
+            maintenanceRecordRepository.saveAll(records);
+            return records.size();
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package com.hemis.service;
+
+import com.hemis.repository.OrderNumberBlockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Issues purchase order numbers like {@code PO-2026-000123}, restarting at 1 each year.
+ * Numbers are reserved from {@code order_number_blocks} in blocks (hi/lo) under a row
+ * lock in their own transaction, so nodes sharing a database never hand out the same
+ * number; within a block, issuing a number is an atomic increment, and no lock is held
+ * while a block is reserved. Numbers left in a block when a node stops, or reserved by two
+ * threads at once, are skipped, so the sequence has gaps but no duplicates.
+ */
+@Service
+public class OrderNumberAllocator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OrderNumberAllocator.class);
+    
+    @Value("${orders.number-block-size:50}")
+    private int blockSize;
+    
+    @Autowired
+    private OrderNumberBlockRepository orderNumberBlockRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private final AtomicReference<Block> current = new AtomicReference<>();
+    
+    /**
+     * Call outside any transaction: reserving a block takes a connection of its own, which
+     * must not wait on one the caller is holding.
+     */
+    public String nextOrderNumber() {
+        return nextOrderNumber(LocalDate.now());
+    }
+    
+    String nextOrderNumber(LocalDate today) {
+        int year = today.getYear();
+        Block block = current.get();
+        if (block != null && block.year == year) {
+            long number = block.next.getAndIncrement();
+            if (number < block.limit) {
+                return format(year, number);
+            }
+        }
+        Block reserved = new Block(year, reserveBlock(year), blockSize);
+        long number = reserved.next.getAndIncrement();
+        // A thread that reserved at the same time keeps its own block; the loser's rest is a gap
+        current.compareAndSet(block, reserved);
+        return format(year, number);
+    }
+    
+    public static String format(int year, long number) {
+        return String.format("PO-%d-%06d", year, number);
+    }
+    
+    /**
+     * Advances the year's row under its lock. A missing row is inserted on its own first and
+     * then locked and read like any other, so a node never writes a block it has not read.
+     */
+    private long reserveBlock(int forYear) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Long start = transaction.execute(status -> orderNumberBlockRepository.findForUpdate(forYear)
+                    .map(block -> {
+                        long first = block.getNextValue();
+                        block.setNextValue(first + blockSize);
+                        return first;
+                    })
+                    .orElse(null));
+            if (start != null) {
+                logger.debug("Reserved order numbers {}..{} for {}", start, start + blockSize - 1, forYear);
+                return start;
+            }
+            try {
+                transaction.executeWithoutResult(status -> orderNumberBlockRepository.insert(forYear));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created this year's row first; lock it on the next pass
+                logger.debug("Order number row for {} created concurrently", forYear);
+            }
+        }
+        throw new IllegalStateException("No order number row for " + forYear);
+    }
+    
+    private static final class Block {
+        private final int year;
+        private final AtomicLong next;
+        private final long limit;
+        
+        private Block(int year, long start, int size) {
+            this.year = year;
+            this.next = new AtomicLong(start);
+            this.limit = start + size;
+        }
+    }
+}
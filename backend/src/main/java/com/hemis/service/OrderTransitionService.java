@@ -0,0 +1,103 @@
+package com.hemis.service;
+
+import com.hemis.dto.OrderTransitionResult;
+import com.hemis.dto.OrderTransitionResult.Outcome;
+import com.hemis.dto.OrderTransitionResult.OutcomeType;
+import com.hemis.entity.PurchaseOrder.OrderStatus;
+import com.hemis.index.SupplierStatsIndex;
+import com.hemis.index.SupplierStatsIndex.OrderFacts;
+import com.hemis.repository.PurchaseOrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies one status change to many purchase orders at once. The orders' current
+ * statuses are read and locked, then each group of orders sharing a legal source status
+ * is moved with a single set-based UPDATE, so a few statements cover any number of IDs.
+ */
+@Service
+public class OrderTransitionService {
+    
+    private static final int CHUNK_SIZE = 1000;
+    
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+    
+    @Autowired
+    private DashboardCounters dashboardCounters;
+    
+    @Autowired
+    private SupplierStatsIndex supplierStatsIndex;
+    
+    @Transactional
+    public OrderTransitionResult transition(List<Long> orderIds, OrderStatus target) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        Map<Long, OrderStatus> current = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            purchaseOrderRepository.findStatusesForUpdate(chunk).forEach(row -> current.put(row.getId(), row.getStatus()));
+        }
+        
+        Map<OrderStatus, List<Long>> bySource = new EnumMap<>(OrderStatus.class);
+        List<Outcome> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            OrderStatus status = current.get(id);
+            if (status == null) {
+                results.add(new Outcome(id, OutcomeType.NOT_FOUND, null));
+            } else if (status == target) {
+                results.add(new Outcome(id, OutcomeType.UNCHANGED, status));
+            } else if (!status.canTransitionTo(target)) {
+                results.add(new Outcome(id, OutcomeType.INVALID_TRANSITION, status));
+            } else {
+                bySource.computeIfAbsent(status, s -> new ArrayList<>()).add(id);
+                results.add(new Outcome(id, OutcomeType.UPDATED, target));
+            }
+        }
+        
+        // Supplier stats record the change as a delta, so orders written on other nodes are learned first
+        List<Long> unknown = bySource.values().stream().flatMap(List::stream)
+                .filter(id -> !supplierStatsIndex.knows(id)).toList();
+        for (int from = 0; from < unknown.size(); from += CHUNK_SIZE) {
+            purchaseOrderRepository.findStatsRowsByIdIn(unknown.subList(from, Math.min(from + CHUNK_SIZE, unknown.size())))
+                    .forEach(row -> supplierStatsIndex.orderLoaded(row.getId(), new OrderFacts(row.getSupplierId(),
+                            row.getOrderDate(), row.getDeliveryDate(), row.getTotalAmount(), row.getStatus())));
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate deliveryDate = target == OrderStatus.DELIVERED ? now.toLocalDate() : null;
+        int updated = 0;
+        List<Long> moved = new ArrayList<>();
+        for (Map.Entry<OrderStatus, List<Long>> group : bySource.entrySet()) {
+            List<Long> groupIds = group.getValue();
+            for (int from = 0; from < groupIds.size(); from += CHUNK_SIZE) {
+                List<Long> chunk = groupIds.subList(from, Math.min(from + CHUNK_SIZE, groupIds.size()));
+                updated += purchaseOrderRepository.transition(chunk, group.getKey(), target, deliveryDate, now);
+            }
+            moved.addAll(groupIds);
+        }
+        
+        // Bulk updates bypass entity listeners, so the counters are told once the change is durable
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                moved.forEach(id -> {
+                    dashboardCounters.orderStatusChanged(id, target);
+                    supplierStatsIndex.orderStatusChanged(id, target, deliveryDate);
+                });
+            }
+        });
+        return new OrderTransitionResult(target, updated, results);
+    }
+}
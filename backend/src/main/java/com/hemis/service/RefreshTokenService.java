@@ -0,0 +1,115 @@
+package com.hemis.service;
+
+import com.hemis.entity.RefreshToken;
+import com.hemis.entity.User;
+import com.hemis.repository.RefreshTokenRepository;
+import com.hemis.scheduling.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens. Tokens are 256-bit random values, so a plain SHA-256
+ * is enough to store them safely and keeps refresh far cheaper than a password check.
+ */
+@Service
+public class RefreshTokenService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    
+    private final SecureRandom random = new SecureRandom();
+    
+    @Value("${jwt.refresh-expiration:604800000}") // 7 days
+    private Long refreshExpiration;
+    
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    
+    /** Starts a new token family for a fresh login and returns the raw token. */
+    @Transactional
+    public String issue(User user) {
+        return create(user, UUID.randomUUID().toString());
+    }
+    
+    /**
+     * Spends the given token and returns its user together with a replacement token.
+     * Presenting a token that was already spent revokes its whole family, since either the
+     * client or an attacker holds a stolen copy.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(InvalidRefreshTokenException::new);
+        LocalDateTime now = LocalDateTime.now();
+        if (token.getRevokedAt() != null || refreshTokenRepository.revoke(token.getTokenId(), now) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+            logger.warn("Refresh token reuse for user {}; revoked {} tokens in its family",
+                    token.getUser().getUsername(), revoked);
+            throw new InvalidRefreshTokenException();
+        }
+        if (token.getExpiresAt().isBefore(now) || !token.getUser().getActive()) {
+            throw new InvalidRefreshTokenException();
+        }
+        return new Rotation(token.getUser(), create(token.getUser(), token.getFamilyId()));
+    }
+    
+    /** Revokes the family of the given token; unknown tokens are ignored. */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+    
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId, LocalDateTime.now());
+    }
+    
+    @Scheduled(cron = "0 15 3 * * *")
+    @SchedulerLock(name = "refresh-token-purge", lockAtLeastFor = "5m")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+    
+    private String create(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setUser(user);
+        token.setExpiresAt(LocalDateTime.now().plusNanos(refreshExpiration * 1_000_000));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+    
+    private static String hash(String rawToken) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    public record Rotation(User user, String refreshToken) {}
+}
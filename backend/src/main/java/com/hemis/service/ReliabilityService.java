@@ -0,0 +1,89 @@
+package com.hemis.service;
+
+import com.hemis.dto.ReliabilityStats;
+import com.hemis.index.ReliabilityIndex;
+import com.hemis.index.ReliabilityIndex.EquipmentFacts;
+import com.hemis.index.ReliabilityIndex.RecordFacts;
+import com.hemis.index.ReliabilityIndex.Totals;
+import com.hemis.repository.EquipmentRepository;
+import com.hemis.repository.MaintenanceRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Equipment reliability figures (MTBF, cost, maintenance frequency) per asset, category
+ * and location, served from {@link ReliabilityIndex}.
+ */
+@Service
+public class ReliabilityService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReliabilityService.class);
+    
+    @Autowired
+    private ReliabilityIndex reliabilityIndex;
+    
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+    
+    @Autowired
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+    
+    public enum GroupBy {
+        CATEGORY, LOCATION
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadReliabilityIndex() {
+        List<EquipmentFacts> equipment = new ArrayList<>();
+        for (EquipmentRepository.ReliabilityRow row : equipmentRepository.findReliabilityRows()) {
+            equipment.add(new EquipmentFacts(row.getId(), row.getCategory(), row.getLocation(), row.getPurchaseDate()));
+        }
+        Map<Long, RecordFacts> records = new HashMap<>();
+        for (MaintenanceRecordRepository.ReliabilityRow row : maintenanceRecordRepository.findReliabilityRows()) {
+            if (row.getEquipmentId() != null && row.getMaintenanceDate() != null) {
+                records.put(row.getId(), ReliabilityIndex.facts(row.getEquipmentId(), row.getMaintenanceDate(),
+                        row.getType(), row.getStatus(), row.getCost()));
+            }
+        }
+        reliabilityIndex.load(equipment, records);
+        logger.info("Reliability index loaded with {} equipment and {} maintenance records",
+                equipment.size(), records.size());
+    }
+    
+    public Optional<ReliabilityStats> forEquipment(Long equipmentId) {
+        if (!reliabilityIndex.isLoaded()) {
+            throw new IllegalStateException("Reliability figures are still loading");
+        }
+        return Optional.ofNullable(reliabilityIndex.forEquipment(equipmentId))
+                .map(totals -> toStats(String.valueOf(equipmentId), totals, LocalDate.now()));
+    }
+    
+    public List<ReliabilityStats> byGroup(GroupBy groupBy) {
+        if (!reliabilityIndex.isLoaded()) {
+            throw new IllegalStateException("Reliability figures are still loading");
+        }
+        Map<String, Totals> groups = groupBy == GroupBy.CATEGORY
+                ? reliabilityIndex.byCategory() : reliabilityIndex.byLocation();
+        LocalDate today = LocalDate.now();
+        return groups.entrySet().stream().map(e -> toStats(e.getKey(), e.getValue(), today)).toList();
+    }
+    
+    private static ReliabilityStats toStats(String key, Totals totals, LocalDate today) {
+        return new ReliabilityStats(key, totals.assetCount(), totals.maintenanceCount(), totals.totalCost(),
+                totals.failureCount(), totals.mtbfDays(), totals.maintenancePerYear(today),
+                totals.lastFailureDay() == null ? null : LocalDate.ofEpochDay(totals.lastFailureDay()));
+    }
+}
@@ -0,0 +1,265 @@
+package com.hemis.service;
+
+import com.hemis.dto.ReorderSuggestion;
+import com.hemis.entity.PurchaseOrder;
+import com.hemis.entity.StockMovement;
+import com.hemis.entity.Supplier;
+import com.hemis.index.FefoIndex;
+import com.hemis.repository.MedicineRepository;
+import com.hemis.repository.PurchaseOrderRepository;
+import com.hemis.repository.StockMovementRepository;
+import com.hemis.repository.SupplierRepository;
+import com.hemis.scheduling.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Generates draft purchase orders from consumption. Daily dispensed quantities over the
+ * history window give a moving average and its standard deviation per medicine; the
+ * reorder point covers the lead time plus safety stock, and an order tops stock up to
+ * cover the lead time and review period. Stock already on open orders counts as on hand;
+ * orders are matched to medicines by name and category, like batches are grouped.
+ */
+@Service
+public class ReorderService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReorderService.class);
+    private static final EnumSet<PurchaseOrder.OrderStatus> OPEN_STATUSES = EnumSet.of(
+            PurchaseOrder.OrderStatus.PENDING, PurchaseOrder.OrderStatus.APPROVED, PurchaseOrder.OrderStatus.ORDERED);
+    
+    @Value("${reorder.history-days:90}")
+    private int historyDays;
+    
+    @Value("${reorder.short-window-days:14}")
+    private int shortWindowDays;
+    
+    @Value("${reorder.lead-time-days:7}")
+    private int leadTimeDays;
+    
+    @Value("${reorder.review-days:30}")
+    private int reviewDays;
+    
+    @Value("${reorder.service-factor:1.65}")
+    private double serviceFactor;
+    
+    @Autowired
+    private MedicineRepository medicineRepository;
+    
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+    
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+    
+    @Autowired
+    private SupplierRepository supplierRepository;
+    
+    @Autowired
+    private OrderNumberAllocator orderNumberAllocator;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    
+    @Scheduled(cron = "${reorder.cron:0 30 2 * * *}")
+    @SchedulerLock(name = "reorder", lockAtMostFor = "30m", lockAtLeastFor = "5m")
+    public void scheduledRun() {
+        List<PurchaseOrder> orders = generateDraftOrders();
+        logger.info("Reorder run created {} draft purchase orders", orders.size());
+    }
+    
+    /**
+     * Computes suggestions for every medicine that has fallen to its reorder point.
+     */
+    public List<ReorderSuggestion> suggest() {
+        LocalDate today = LocalDate.now();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Snapshot snapshot = readOnly.execute(status -> loadSnapshot(today));
+        
+        long started = System.nanoTime();
+        List<ReorderSuggestion> suggestions = snapshot.products().values().parallelStream()
+                .map(product -> plan(product, snapshot, today))
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(ReorderSuggestion::getSupplierId)
+                        .thenComparing(ReorderSuggestion::getName))
+                .toList();
+        logger.debug("Reorder plan for {} medicines computed in {} ms", snapshot.products().size(),
+                (System.nanoTime() - started) / 1_000_000);
+        return suggestions;
+    }
+    
+    /**
+     * Saves the current suggestions as PENDING purchase orders, grouped by supplier, in a
+     * single transaction. Concurrent runs are refused rather than queued, since a second
+     * run would only duplicate the first.
+     */
+    public List<PurchaseOrder> generateDraftOrders() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A reorder run is already in progress");
+        }
+        try {
+            List<ReorderSuggestion> suggestions = suggest();
+            if (suggestions.isEmpty()) {
+                return List.of();
+            }
+            LocalDate today = LocalDate.now();
+            // Numbers first: a block reservation must not wait on the connection held below
+            List<String> numbers = suggestions.stream().map(s -> orderNumberAllocator.nextOrderNumber()).toList();
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                Map<Long, Supplier> suppliers = new HashMap<>();
+                supplierRepository.findAllById(suggestions.stream().map(ReorderSuggestion::getSupplierId).distinct().toList())
+                        .forEach(supplier -> suppliers.put(supplier.getSupplierId(), supplier));
+                List<PurchaseOrder> orders = new ArrayList<>(suggestions.size());
+                for (int i = 0; i < suggestions.size(); i++) {
+                    ReorderSuggestion suggestion = suggestions.get(i);
+                    orders.add(toDraftOrder(suggestion, numbers.get(i), suppliers.get(suggestion.getSupplierId()), today));
+                }
+                return purchaseOrderRepository.saveAll(orders);
+            });
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    private Snapshot loadSnapshot(LocalDate today) {
+        Map<String, Product> products = new HashMap<>();
+        Map<Long, Product> productByBatch = new HashMap<>();
+        for (MedicineRepository.CatalogRow row : medicineRepository.findCatalogRows()) {
+            Product product = products.computeIfAbsent(FefoIndex.key(row.getName(), row.getCategory()),
+                    key -> new Product(row.getName().trim(), row.getCategory().trim(), new double[historyDays]));
+            productByBatch.put(row.getId(), product);
+            if (row.getQuantity() != null && row.getExpiryDate() != null && !row.getExpiryDate().isBefore(today)) {
+                product.onHand += row.getQuantity();
+            }
+            // The most recently added batch decides the supplier and price for the next order
+            if (row.getSupplierId() != null && row.getId() > product.latestBatchId) {
+                product.latestBatchId = row.getId();
+                product.supplierId = row.getSupplierId();
+                product.unitPrice = row.getUnitPrice();
+            }
+        }
+        
+        LocalDate firstDay = today.minusDays(historyDays - 1L);
+        for (StockMovementRepository.DailyMovement movement : stockMovementRepository.findDailyTotalsSince(
+                StockMovement.MovementType.DISPENSE, firstDay.atStartOfDay())) {
+            Product product = productByBatch.get(movement.getMedicineId());
+            int day = (int) (movement.getDay().toEpochDay() - firstDay.toEpochDay());
+            if (product != null && day >= 0 && day < historyDays) {
+                product.dailyDemand[day] += movement.getQuantity();
+            }
+        }
+        
+        // Orders placed without a category count only where their name is unambiguous
+        Map<String, List<String>> keysByName = new HashMap<>();
+        products.forEach((key, product) ->
+                keysByName.computeIfAbsent(FefoIndex.normalize(product.name), name -> new ArrayList<>()).add(key));
+        Map<String, Long> onOrder = new HashMap<>();
+        for (PurchaseOrderRepository.OpenQuantity open : purchaseOrderRepository.findOpenQuantities(
+                PurchaseOrder.ItemType.MEDICINE, OPEN_STATUSES)) {
+            String key = FefoIndex.key(open.getItemName(), open.getItemCategory());
+            if (open.getItemCategory() == null) {
+                List<String> keys = keysByName.getOrDefault(open.getItemName(), List.of());
+                if (keys.size() != 1) {
+                    continue;
+                }
+                key = keys.get(0);
+            }
+            onOrder.merge(key, open.getQuantity(), Long::sum);
+        }
+        return new Snapshot(products, onOrder);
+    }
+    
+    private ReorderSuggestion plan(Product product, Snapshot snapshot, LocalDate today) {
+        if (product.supplierId == null) {
+            return null;
+        }
+        double[] demand = product.dailyDemand;
+        double longAverage = average(demand, 0);
+        double shortAverage = average(demand, Math.max(0, demand.length - shortWindowDays));
+        // React to a recent surge without dropping below the long-run rate
+        double rate = Math.max(longAverage, shortAverage);
+        if (rate == 0) {
+            return null;
+        }
+        double deviation = standardDeviation(demand, longAverage);
+        int reorderPoint = (int) Math.ceil(rate * leadTimeDays + serviceFactor * deviation * Math.sqrt(leadTimeDays));
+        int onOrder = snapshot.onOrder().getOrDefault(FefoIndex.key(product.name, product.category), 0L).intValue();
+        int position = product.onHand + onOrder;
+        if (position > reorderPoint) {
+            return null;
+        }
+        int orderUpTo = reorderPoint + (int) Math.ceil(rate * reviewDays);
+        return new ReorderSuggestion(product.name, product.category, product.supplierId, product.onHand, onOrder,
+                rate, reorderPoint, orderUpTo - position, product.unitPrice);
+    }
+    
+    private PurchaseOrder toDraftOrder(ReorderSuggestion suggestion, String orderNumber, Supplier supplier,
+                                       LocalDate today) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber(orderNumber);
+        order.setSupplier(supplier);
+        order.setItemType(PurchaseOrder.ItemType.MEDICINE);
+        order.setItemName(suggestion.getName());
+        order.setItemCategory(suggestion.getCategory());
+        order.setQuantity(suggestion.getOrderQuantity());
+        order.setUnitPrice(suggestion.getUnitPrice());
+        order.setOrderDate(today);
+        order.setStatus(PurchaseOrder.OrderStatus.PENDING);
+        order.setNotes(String.format("Auto reorder: on hand %d, on order %d, reorder point %d, avg daily demand %.2f",
+                suggestion.getOnHand(), suggestion.getOnOrder(), suggestion.getReorderPoint(),
+                suggestion.getAverageDailyDemand()));
+        return order;
+    }
+    
+    private static double average(double[] values, int from) {
+        double sum = 0;
+        for (int i = from; i < values.length; i++) {
+            sum += values[i];
+        }
+        return values.length == from ? 0 : sum / (values.length - from);
+    }
+    
+    private static double standardDeviation(double[] values, double mean) {
+        double sum = 0;
+        for (double value : values) {
+            sum += (value - mean) * (value - mean);
+        }
+        return Math.sqrt(sum / values.length);
+    }
+    
+    private record Snapshot(Map<String, Product> products, Map<String, Long> onOrder) {}
+    
+    private static final class Product {
+        private final String name;
+        private final String category;
+        private final double[] dailyDemand;
+        private int onHand;
+        private long latestBatchId = Long.MIN_VALUE;
+        private Long supplierId;
+        private Double unitPrice;
+        
+        private Product(String name, String category, double[] dailyDemand) {
+            this.name = name;
+            this.category = category;
+            this.dailyDemand = dailyDemand;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.hemis.service;
+
+import com.hemis.entity.Equipment;
+import com.hemis.entity.Medicine;
+import com.hemis.entity.Supplier;
+import com.hemis.index.NameSearchIndex;
+import com.hemis.index.TrigramIndex;
+import com.hemis.repository.EquipmentRepository;
+import com.hemis.repository.MedicineRepository;
+import com.hemis.repository.NameRow;
+import com.hemis.repository.SupplierRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked name search over active medicines, equipment and suppliers, answered from
+ * {@link NameSearchIndex}. Until the index has been loaded, and for queries too short for
+ * trigrams to match mid-word, falls back to an unranked database substring match.
+ */
+@Service
+public class SearchService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+    
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+    
+    @Autowired
+    private MedicineRepository medicineRepository;
+    
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+    
+    @Autowired
+    private SupplierRepository supplierRepository;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadIndex() {
+        nameSearchIndex.medicines().load(toMap(medicineRepository.findActiveNames()));
+        nameSearchIndex.equipment().load(toMap(equipmentRepository.findActiveNames()));
+        nameSearchIndex.suppliers().load(toMap(supplierRepository.findActiveNames()));
+        nameSearchIndex.markLoaded();
+        logger.info("Name search index loaded ({} medicines, {} equipment, {} suppliers)",
+                nameSearchIndex.medicines().size(), nameSearchIndex.equipment().size(),
+                nameSearchIndex.suppliers().size());
+    }
+    
+    public List<Medicine> searchMedicines(String query, int limit) {
+        if (!nameSearchIndex.isLoaded() || !TrigramIndex.isSearchable(query)) {
+            return medicineRepository.findByNameContainingIgnoreCaseAndActiveTrue(query, Limit.of(limit));
+        }
+        return resolve(nameSearchIndex.medicines(), query, limit,
+                medicineRepository::findByMedicineIdIn, Medicine::getMedicineId);
+    }
+    
+    public List<Equipment> searchEquipment(String query, int limit) {
+        if (!nameSearchIndex.isLoaded() || !TrigramIndex.isSearchable(query)) {
+            return equipmentRepository.findByNameContainingIgnoreCaseAndActiveTrue(query, Limit.of(limit));
+        }
+        return resolve(nameSearchIndex.equipment(), query, limit,
+                equipmentRepository::findByEquipmentIdIn, Equipment::getEquipmentId);
+    }
+    
+    public List<Supplier> searchSuppliers(String query, int limit) {
+        if (!nameSearchIndex.isLoaded() || !TrigramIndex.isSearchable(query)) {
+            return supplierRepository.findByNameContainingIgnoreCaseAndActiveTrue(query, Limit.of(limit));
+        }
+        return resolve(nameSearchIndex.suppliers(), query, limit,
+                supplierRepository::findAllById, Supplier::getSupplierId);
+    }
+    
+    /**
+     * Loads the ranked IDs in one query and returns the entities in rank order.
+     */
+    private static <T> List<T> resolve(TrigramIndex index, String query, int limit,
+                                       Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        List<Long> ids = index.search(query, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, T> byId = loader.apply(ids).stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+    
+    private static Map<Long, String> toMap(List<NameRow> rows) {
+        Map<Long, String> names = new HashMap<>(rows.size() * 2);
+        for (NameRow row : rows) {
+            names.put(row.getId(), row.getName());
+        }
+        return names;
+    }
+}
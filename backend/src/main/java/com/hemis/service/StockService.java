@@ -0,0 +1,243 @@
+package com.hemis.service;
+
+import com.hemis.dto.Allocation;
+import com.hemis.dto.AllocationRequest;
+import com.hemis.dto.BatchStockRequest;
+import com.hemis.dto.StockLevel;
+import com.hemis.entity.Medicine;
+import com.hemis.entity.StockMovement;
+import com.hemis.entity.StockMovement.MovementType;
+import com.hemis.index.FefoIndex;
+import com.hemis.listener.FefoIndexListener;
+import com.hemis.repository.MedicineRepository;
+import com.hemis.repository.StockMovementRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Moves medicine stock with conditional single-row updates instead of read-modify-write,
+ * so concurrent counters cannot lose each other's changes. Every movement is recorded.
+ */
+@Service
+public class StockService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StockService.class);
+    private static final int LOCK_CHUNK_SIZE = 16;
+    
+    @Autowired
+    private MedicineRepository medicineRepository;
+    
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+    
+    @Autowired
+    private DashboardCounters dashboardCounters;
+    
+    @Autowired
+    private FefoIndex fefoIndex;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * Loads the FEFO index at startup and reloads it periodically, picking up batches written
+     * on other nodes and dropping ones from rolled-back writes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${fefo.index.reload-interval:600000}",
+               initialDelayString = "${fefo.index.reload-interval:600000}")
+    @Transactional(readOnly = true)
+    public void loadFefoIndex() {
+        fefoIndex.beginLoad();
+        List<FefoIndex.LiveBatch> batches = new ArrayList<>();
+        for (MedicineRepository.FefoRow row : medicineRepository.findFefoRows()) {
+            if (row.getExpiryDate() != null) {
+                batches.add(new FefoIndex.LiveBatch(row.getId(), row.getName(), row.getCategory(), row.getExpiryDate()));
+            }
+        }
+        fefoIndex.load(batches);
+        logger.info("FEFO index loaded with {} live batches", batches.size());
+    }
+    
+    @Transactional
+    public StockLevel dispense(Long medicineId, int quantity, String reference) {
+        return apply(medicineId, quantity, MovementType.DISPENSE, reference);
+    }
+    
+    @Transactional
+    public StockLevel receive(Long medicineId, int quantity, String reference) {
+        return apply(medicineId, quantity, MovementType.RECEIVE, reference);
+    }
+    
+    /**
+     * Applies all lines in one transaction; the first line that cannot be applied rolls
+     * back the rest. Lines are merged per medicine and applied in id order, so two batches
+     * touching the same rows always lock them in the same order. Lines whose merged
+     * quantity does not fit an int are rejected before anything is applied.
+     */
+    @Transactional
+    public List<StockLevel> applyBatch(MovementType type, BatchStockRequest request) {
+        Map<Long, Integer> totals = new TreeMap<>();
+        for (BatchStockRequest.Line line : request.getLines()) {
+            try {
+                totals.merge(line.getMedicineId(), line.getQuantity(), Math::addExact);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Total quantity for medicine " + line.getMedicineId() + " is too large");
+            }
+        }
+        List<StockLevel> levels = new ArrayList<>(totals.size());
+        totals.forEach((medicineId, quantity) ->
+                levels.add(apply(medicineId, quantity, type, request.getReference())));
+        return levels;
+    }
+    
+    /**
+     * Dispenses the requested quantity of a medicine from its unexpired batches, earliest
+     * expiry first, in one transaction. Candidate batches come from {@link FefoIndex} and
+     * are locked in FEFO order a few at a time until enough stock is found. The index may
+     * miss batches written on other nodes, so the database is then asked whether any batch
+     * comes before the last one used; if so, or if the index cannot cover the request (or is
+     * not loaded yet), the batches are read from the database instead.
+     */
+    @Transactional
+    public Allocation allocate(AllocationRequest request) {
+        LocalDate today = LocalDate.now();
+        int requested = request.getQuantity();
+        String name = FefoIndex.normalize(request.getName());
+        String category = FefoIndex.normalize(request.getCategory());
+        List<Medicine> batches = fefoIndex.isLoaded()
+                ? lockFromIndex(FefoIndex.key(request.getName(), request.getCategory()), requested, today)
+                : null;
+        if (batches != null && skipsEarlierBatch(batches, requested, name, category, today)) {
+            logger.debug("FEFO index missed a batch of {} / {}; reading the database", name, category);
+            batches = null;
+        }
+        if (batches == null) {
+            batches = medicineRepository.findFefoCandidatesForUpdate(name, category, today);
+            for (Medicine batch : batches) {
+                fefoIndex.put(batch.getMedicineId(), batch.getName(), batch.getCategory(), batch.getExpiryDate(),
+                        FefoIndexListener.isLive(batch));
+            }
+        }
+        
+        int available = batches.stream().mapToInt(Medicine::getQuantity).sum();
+        if (available < requested) {
+            throw new InsufficientStockException(request.getName(), requested, available);
+        }
+        
+        List<Allocation.Line> lines = new ArrayList<>();
+        int remaining = requested;
+        for (Medicine batch : batches) {
+            if (remaining == 0) {
+                break;
+            }
+            int taken = Math.min(remaining, batch.getQuantity());
+            StockLevel level = apply(batch.getMedicineId(), taken, MovementType.DISPENSE, request.getReference());
+            lines.add(new Allocation.Line(batch.getMedicineId(), batch.getBatchNumber(), batch.getExpiryDate(),
+                    taken, level.getQuantity()));
+            remaining -= taken;
+        }
+        return new Allocation(request.getName(), request.getCategory(), requested, lines);
+    }
+    
+    /**
+     * Locks indexed batches in FEFO order until they cover {@code requested}. Returns
+     * {@code null} when they do not, which may mean the index missed a batch.
+     */
+    private List<Medicine> lockFromIndex(String key, int requested, LocalDate today) {
+        long[] candidates = fefoIndex.candidates(key, today);
+        List<Medicine> batches = new ArrayList<>();
+        int available = 0;
+        for (int from = 0; from < candidates.length && available < requested; from += LOCK_CHUNK_SIZE) {
+            long[] chunk = Arrays.copyOfRange(candidates, from, Math.min(from + LOCK_CHUNK_SIZE, candidates.length));
+            for (Medicine batch : medicineRepository.findAllForUpdate(Arrays.stream(chunk).boxed().toList())) {
+                if (FefoIndexListener.isLive(batch) && !batch.getExpiryDate().isBefore(today)
+                        && key.equals(FefoIndex.key(batch.getName(), batch.getCategory()))) {
+                    batches.add(batch);
+                    available += batch.getQuantity();
+                }
+            }
+        }
+        if (available < requested) {
+            logger.debug("FEFO index covers {} of {} requested for {}; checking the database", available, requested, key);
+            return null;
+        }
+        return batches;
+    }
+    
+    /** Whether a batch the index does not know about expires before the last one {@code requested} needs. */
+    private boolean skipsEarlierBatch(List<Medicine> batches, int requested, String name, String category,
+                                      LocalDate today) {
+        int covered = 0;
+        Medicine last = null;
+        for (Medicine batch : batches) {
+            last = batch;
+            covered += batch.getQuantity();
+            if (covered >= requested) {
+                break;
+            }
+        }
+        return last != null && medicineRepository.existsEarlierFefoCandidate(name, category, today,
+                last.getExpiryDate(), last.getMedicineId(), batches.stream().map(Medicine::getMedicineId).toList());
+    }
+    
+    private StockLevel apply(Long medicineId, int quantity, MovementType type, String reference) {
+        int updated = type == MovementType.DISPENSE
+                ? medicineRepository.dispense(medicineId, quantity)
+                : medicineRepository.receive(medicineId, quantity, Integer.MAX_VALUE);
+        Medicine medicine = medicineRepository.findById(medicineId)
+                .filter(Medicine::getActive)
+                .orElseThrow(() -> new EntityNotFoundException("Medicine not found: " + medicineId));
+        if (updated == 0 && type == MovementType.RECEIVE) {
+            throw new IllegalArgumentException("Receiving " + quantity + " would exceed the maximum quantity for medicine "
+                    + medicineId);
+        }
+        if (updated == 0) {
+            throw new InsufficientStockException(medicineId, quantity);
+        }
+        
+        StockMovement movement = new StockMovement();
+        movement.setMedicine(entityManager.getReference(Medicine.class, medicineId));
+        movement.setType(type);
+        movement.setQuantity(quantity);
+        movement.setReference(reference);
+        movement.setPerformedBy(currentUsername());
+        stockMovementRepository.save(movement);
+        
+        // Bulk updates bypass entity listeners, so the counters are told once the change is durable
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dashboardCounters.medicineSaved(medicine);
+                fefoIndex.put(medicineId, medicine.getName(), medicine.getCategory(), medicine.getExpiryDate(),
+                        FefoIndexListener.isLive(medicine));
+            }
+        });
+        return new StockLevel(medicineId, medicine.getQuantity(), medicine.getVersion());
+    }
+    
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+}
@@ -0,0 +1,271 @@
+package com.hemis.service;
+
+import com.hemis.dto.SupplierRanking;
+import com.hemis.dto.SupplierStats;
+import com.hemis.entity.Supplier;
+import com.hemis.entity.SupplierMonthlyStats;
+import com.hemis.index.SupplierStatsIndex;
+import com.hemis.index.SupplierStatsIndex.Bucket;
+import com.hemis.index.SupplierStatsIndex.OrderFacts;
+import com.hemis.index.SupplierStatsIndex.Snapshot;
+import com.hemis.index.SupplierStatsIndex.Totals;
+import com.hemis.repository.PurchaseOrderRepository;
+import com.hemis.repository.SupplierMonthlyStatsRepository;
+import com.hemis.repository.SupplierRepository;
+import com.hemis.scheduling.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Supplier spend, order count and lead time per month. Reads come from the rollup table,
+ * which all nodes share, so every node gives the same answer; a change shows up once the
+ * node that saw it has flushed. Every node adds the changes it has seen to the table in
+ * the background, as increments, so the nodes' writes add up rather than overwrite each other. The rebuild
+ * recomputes the index from the purchase orders, reading ID ranges in parallel, on each
+ * node; one node then rewrites the table from its index, which corrects any drift.
+ */
+@Service
+public class SupplierStatsService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SupplierStatsService.class);
+    
+    @Value("${supplier-stats.rebuild-chunk-size:5000}")
+    private int chunkSize;
+    
+    @Autowired
+    private SupplierStatsIndex supplierStatsIndex;
+    
+    @Autowired
+    private SupplierMonthlyStatsRepository supplierMonthlyStatsRepository;
+    
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+    
+    @Autowired
+    private SupplierRepository supplierRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    
+    /** Serializes this node's table writes, so a flush and a rewrite never interleave. */
+    private final ReentrantLock tableLock = new ReentrantLock();
+    
+    public enum RankBy {
+        SPEND, ORDERS, LEAD_TIME
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+    
+    /** Runs on every node, ahead of the table rewrite. */
+    @Scheduled(cron = "${supplier-stats.rebuild-cron:0 0 3 * * *}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (IllegalStateException e) {
+            logger.info("Skipping scheduled supplier stats rebuild: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Recomputes this node's rollups from the purchase orders. Returns the number of orders
+     * read. Concurrent runs are refused. The table is left alone; see {@link #rewriteTable()}.
+     */
+    public int rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("A supplier stats rebuild is already in progress");
+        }
+        try {
+            long started = System.nanoTime();
+            supplierStatsIndex.beginRebuild();
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            PurchaseOrderRepository.IdRange range = readOnly.execute(status -> purchaseOrderRepository.findIdRange());
+            
+            Map<Long, OrderFacts> facts = new ConcurrentHashMap<>();
+            if (range != null && range.getMin() != null) {
+                List<long[]> chunks = new ArrayList<>();
+                for (long from = range.getMin(); from <= range.getMax(); from += chunkSize) {
+                    chunks.add(new long[] {from, Math.min(from + chunkSize - 1, range.getMax())});
+                }
+                chunks.parallelStream().forEach(chunk -> readOnly.executeWithoutResult(status ->
+                        purchaseOrderRepository.findStatsRows(chunk[0], chunk[1]).forEach(row ->
+                                facts.put(row.getId(), new OrderFacts(row.getSupplierId(), row.getOrderDate(),
+                                        row.getDeliveryDate(), row.getTotalAmount(), row.getStatus())))));
+            }
+            supplierStatsIndex.replace(facts);
+            logger.info("Supplier stats rebuilt from {} orders in {} ms", facts.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+            return facts.size();
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+    
+    /**
+     * Replaces the rollup table with this node's totals, on one node at a time; scheduled
+     * after the nightly rebuild. Returns the number of rows written, or null when another
+     * node is rewriting. Changes still waiting on other nodes at that moment may already be
+     * in the orders this node read, and are then counted twice until the next rewrite.
+     */
+    @Scheduled(cron = "${supplier-stats.rewrite-cron:0 30 3 * * *}")
+    @SchedulerLock(name = "supplier-stats-rewrite", lockAtMostFor = "30m", lockAtLeastFor = "5m")
+    public Integer rewriteTable() {
+        if (!supplierStatsIndex.isLoaded()) {
+            throw new IllegalStateException("Supplier stats have not been loaded yet");
+        }
+        tableLock.lock();
+        try {
+            Snapshot snapshot = supplierStatsIndex.takeSnapshot();
+            try {
+                LocalDateTime now = LocalDateTime.now();
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    supplierMonthlyStatsRepository.deleteAllInBatch();
+                    supplierMonthlyStatsRepository.saveAll(snapshot.buckets().entrySet().stream()
+                            .map(e -> toRow(e.getKey(), e.getValue(), now)).toList());
+                });
+            } catch (RuntimeException e) {
+                supplierStatsIndex.restoreDeltas(snapshot.deltas());
+                throw e;
+            }
+            logger.info("Supplier stats table rewritten with {} monthly rows", snapshot.buckets().size());
+            return snapshot.buckets().size();
+        } finally {
+            tableLock.unlock();
+        }
+    }
+    
+    /** Adds the changes seen since the last flush to the rollup table. */
+    @Scheduled(fixedDelayString = "${supplier-stats.flush-interval:30000}")
+    public void flush() {
+        if (!supplierStatsIndex.isLoaded()) {
+            return;
+        }
+        tableLock.lock();
+        try {
+            Map<Bucket, Totals> deltas = supplierStatsIndex.drainDeltas();
+            if (deltas.isEmpty()) {
+                return;
+            }
+            try {
+                LocalDateTime now = LocalDateTime.now();
+                new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                        deltas.forEach((bucket, delta) -> addToRow(bucket, delta, now)));
+            } catch (RuntimeException e) {
+                // Also covers two nodes inserting the same new month; the retry updates it
+                supplierStatsIndex.restoreDeltas(deltas);
+                logger.warn("Failed to write {} supplier stats rows, will retry", deltas.size(), e);
+            }
+        } finally {
+            tableLock.unlock();
+        }
+    }
+    
+    private void addToRow(Bucket bucket, Totals delta, LocalDateTime now) {
+        Long supplierId = bucket.supplierId();
+        LocalDate monthStart = bucket.month().atDay(1);
+        int updated = supplierMonthlyStatsRepository.addDelta(supplierId, monthStart, delta.orderCount(),
+                delta.totalSpend(), delta.deliveredCount(), delta.leadTimeDays(), now);
+        if (updated == 0) {
+            supplierMonthlyStatsRepository.insert(supplierId, monthStart, delta.orderCount(), delta.totalSpend(),
+                    delta.deliveredCount(), delta.leadTimeDays(), now);
+        }
+        supplierMonthlyStatsRepository.deleteIfEmpty(supplierId, monthStart);
+    }
+    
+    /** Figures for the last {@code months} calendar months, including the current one. */
+    public Optional<SupplierStats> getStats(Long supplierId, int months) {
+        Optional<Supplier> supplier = supplierRepository.findById(supplierId);
+        if (supplier.isEmpty()) {
+            return Optional.empty();
+        }
+        YearMonth from = YearMonth.now().minusMonths(months - 1);
+        NavigableMap<YearMonth, Totals> monthly = new TreeMap<>();
+        for (SupplierMonthlyStats row : supplierMonthlyStatsRepository.findForSupplierSince(supplierId, from.atDay(1))) {
+            monthly.put(YearMonth.from(row.getId().getMonthStart()), toTotals(row));
+        }
+        Totals sum = Totals.ZERO;
+        List<SupplierStats.Month> breakdown = new ArrayList<>(monthly.size());
+        for (Map.Entry<YearMonth, Totals> entry : monthly.entrySet()) {
+            Totals totals = entry.getValue();
+            sum = sum.plus(totals);
+            breakdown.add(new SupplierStats.Month(entry.getKey().toString(), totals.orderCount(),
+                    totals.totalSpend(), totals.deliveredCount(), totals.averageLeadTimeDays()));
+        }
+        return Optional.of(new SupplierStats(supplierId, supplier.get().getName(), sum.orderCount(), sum.totalSpend(),
+                sum.deliveredCount(), sum.averageLeadTimeDays(), breakdown));
+    }
+    
+    /**
+     * Top suppliers over the last {@code months} months: highest spend or order count, or
+     * shortest average lead time (suppliers without deliveries are left out of that one).
+     */
+    public List<SupplierRanking> rank(RankBy by, int months, int limit) {
+        YearMonth from = YearMonth.now().minusMonths(months - 1);
+        Map<Long, Totals> totals = new HashMap<>();
+        for (SupplierMonthlyStats row : supplierMonthlyStatsRepository.findAllSince(from.atDay(1))) {
+            totals.merge(row.getId().getSupplierId(), toTotals(row), Totals::plus);
+        }
+        Comparator<Map.Entry<Long, Totals>> order = switch (by) {
+            case SPEND -> Comparator.comparingDouble((Map.Entry<Long, Totals> e) -> e.getValue().totalSpend()).reversed();
+            case ORDERS -> Comparator.comparingLong((Map.Entry<Long, Totals> e) -> e.getValue().orderCount()).reversed();
+            case LEAD_TIME -> Comparator.comparingDouble(e -> e.getValue().averageLeadTimeDays());
+        };
+        List<Map.Entry<Long, Totals>> top = totals.entrySet().stream()
+                .filter(e -> by != RankBy.LEAD_TIME || e.getValue().deliveredCount() > 0)
+                .sorted(order.thenComparing(Map.Entry::getKey))
+                .limit(limit)
+                .toList();
+        
+        Map<Long, String> names = new HashMap<>();
+        supplierRepository.findAllById(top.stream().map(Map.Entry::getKey).toList())
+                .forEach(supplier -> names.put(supplier.getSupplierId(), supplier.getName()));
+        List<SupplierRanking> ranking = new ArrayList<>(top.size());
+        for (Map.Entry<Long, Totals> entry : top) {
+            Totals t = entry.getValue();
+            ranking.add(new SupplierRanking(ranking.size() + 1, entry.getKey(), names.get(entry.getKey()),
+                    t.orderCount(), t.totalSpend(), t.deliveredCount(), t.averageLeadTimeDays()));
+        }
+        return ranking;
+    }
+    
+    private static SupplierMonthlyStats.Key key(Bucket bucket) {
+        return new SupplierMonthlyStats.Key(bucket.supplierId(), bucket.month().atDay(1));
+    }
+    
+    private static SupplierMonthlyStats toRow(Bucket bucket, Totals totals, LocalDateTime now) {
+        return new SupplierMonthlyStats(key(bucket), totals.orderCount(), totals.totalSpend(), totals.deliveredCount(),
+                totals.leadTimeDays(), now);
+    }
+    
+    private static Totals toTotals(SupplierMonthlyStats row) {
+        return new Totals(row.getOrderCount(), row.getTotalSpend(), row.getDeliveredCount(), row.getLeadTimeDays());
+    }
+}
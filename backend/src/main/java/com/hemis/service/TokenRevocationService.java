@@ -0,0 +1,137 @@
+package com.hemis.service;
+
+import com.hemis.entity.TokenRevocation;
+import com.hemis.entity.TokenRevocation.RevocationType;
+import com.hemis.entity.User;
+import com.hemis.repository.TokenRevocationRepository;
+import com.hemis.security.JwtUtil;
+import com.hemis.security.TokenRevocationList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Records access token revocations so they survive restarts, and keeps
+ * {@link TokenRevocationList} in step with the table. Other nodes write to the same
+ * table, so rows created since the last look are read back every few seconds.
+ */
+@Service
+public class TokenRevocationService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+    
+    /**
+     * Each refresh re-reads this far behind the previous one, for rows that commit late or
+     * were stamped by a node whose clock runs behind. Applying a row twice is harmless.
+     */
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+    
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+    
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    /** When the table was last read; null until the initial load. */
+    private volatile LocalDateTime highWater;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadRevocations() {
+        LocalDateTime now = LocalDateTime.now();
+        int loaded = 0;
+        for (TokenRevocation revocation : tokenRevocationRepository.findByExpiresAtAfter(now)) {
+            apply(revocation);
+            loaded++;
+        }
+        highWater = now;
+        logger.info("Loaded {} token revocations", loaded);
+    }
+    
+    /** Picks up revocations written by other nodes since the last refresh. */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval:5000}",
+               initialDelayString = "${jwt.revocation.refresh-interval:5000}")
+    @Transactional(readOnly = true)
+    public void refreshRevocations() {
+        LocalDateTime since = highWater;
+        if (since == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<TokenRevocation> rows = tokenRevocationRepository.findByCreatedAtAfterAndExpiresAtAfter(
+                since.minus(REFRESH_OVERLAP), now);
+        rows.forEach(this::apply);
+        highWater = now;
+    }
+    
+    /** Revokes a single access token, e.g. on logout. */
+    @Transactional
+    public void revokeToken(JwtUtil.VerifiedToken token) {
+        if (token.jti() == null) {
+            return;
+        }
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setType(RevocationType.TOKEN);
+        revocation.setSubject(token.jti());
+        revocation.setExpiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(token.expiresAt()), ZoneId.systemDefault()));
+        tokenRevocationRepository.save(revocation);
+        apply(revocation);
+    }
+    
+    /**
+     * Revokes every access and refresh token issued to the user so far. Tokens issued in
+     * the same second as the revocation are caught too, so the user may have to log in
+     * once more right after being re-enabled.
+     */
+    @Transactional
+    public void revokeUser(User user) {
+        revokeUser(user.getUserId(), user.getUsername());
+    }
+    
+    /** Same as {@link #revokeUser(User)}, for callers holding the username the tokens were issued to. */
+    @Transactional
+    public void revokeUser(Long userId, String username) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setType(RevocationType.USER);
+        revocation.setSubject(username);
+        revocation.setIssuedBefore(Instant.now().getEpochSecond());
+        revocation.setExpiresAt(LocalDateTime.now().plusNanos(jwtUtil.getExpiration() * 1_000_000));
+        tokenRevocationRepository.save(revocation);
+        apply(revocation);
+        refreshTokenService.revokeAll(userId);
+        logger.info("Revoked all tokens of user {}", username);
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.revocation.evict-interval:300000}")
+    @Transactional
+    public void evictExpired() {
+        tokenRevocationList.evictExpired(System.currentTimeMillis(), jwtUtil.getExpiration());
+        tokenRevocationRepository.deleteExpired(LocalDateTime.now());
+    }
+    
+    private void apply(TokenRevocation revocation) {
+        if (revocation.getType() == RevocationType.USER) {
+            tokenRevocationList.revokeUser(revocation.getSubject(), revocation.getIssuedBefore());
+        } else {
+            tokenRevocationList.revokeToken(JwtUtil.jtiHash(revocation.getSubject()),
+                    revocation.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.hemis.service;
+
+/**
+ * Thrown when a login attempt is refused before the password is checked, either because
+ * the username or client is over its rate limit or because verification is saturated.
+ */
+public class TooManyLoginAttemptsException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public TooManyLoginAttemptsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,220 @@
+-- Baseline: the schema as it stood when Hibernate's ddl-auto generated it.
+-- Foreign key columns get named indexes before their constraints, so H2 uses them
+-- instead of creating anonymous ones (it only does so for an exact column match).
+
+CREATE SEQUENCE medicines_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE equipment_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE purchase_orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE maintenance_records_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE stock_movements_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE expiry_alerts_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+    user_id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(255),
+    full_name VARCHAR(255),
+    role VARCHAR(255) NOT NULL CHECK (role IN ('ADMIN', 'PHARMACIST', 'TECHNICIAN')),
+    active BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (user_id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE suppliers (
+    supplier_id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    contact_person VARCHAR(255),
+    email VARCHAR(255),
+    phone VARCHAR(255),
+    address VARCHAR(255),
+    active BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (supplier_id)
+);
+
+CREATE TABLE medicines (
+    medicine_id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    category VARCHAR(255),
+    quantity INTEGER NOT NULL,
+    unit_price FLOAT(53),
+    expiry_date DATE NOT NULL,
+    batch_number VARCHAR(255),
+    supplier_id BIGINT,
+    active BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    version BIGINT,
+    PRIMARY KEY (medicine_id)
+);
+
+CREATE TABLE equipment (
+    equipment_id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    category VARCHAR(255),
+    model VARCHAR(255),
+    serial_number VARCHAR(255),
+    location VARCHAR(255),
+    status VARCHAR(255) NOT NULL CHECK (status IN ('OPERATIONAL', 'MAINTENANCE', 'OUT_OF_ORDER', 'RETIRED')),
+    purchase_date DATE,
+    purchase_price FLOAT(53),
+    next_maintenance_date DATE,
+    supplier_id BIGINT,
+    active BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (equipment_id)
+);
+
+CREATE TABLE maintenance_records (
+    record_id BIGINT NOT NULL,
+    equipment_id BIGINT NOT NULL,
+    technician_id BIGINT,
+    maintenance_date DATE NOT NULL,
+    type VARCHAR(255) NOT NULL CHECK (type IN ('ROUTINE', 'REPAIR', 'CALIBRATION', 'INSPECTION', 'EMERGENCY')),
+    status VARCHAR(255) NOT NULL CHECK (status IN ('SCHEDULED', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED')),
+    description TEXT,
+    cost FLOAT(53),
+    performed_by VARCHAR(255),
+    next_scheduled_date DATE,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (record_id)
+);
+
+CREATE TABLE purchase_orders (
+    order_id BIGINT NOT NULL,
+    order_number VARCHAR(255) NOT NULL,
+    supplier_id BIGINT NOT NULL,
+    user_id BIGINT,
+    item_type VARCHAR(255) NOT NULL CHECK (item_type IN ('MEDICINE', 'EQUIPMENT', 'SUPPLIES')),
+    item_name VARCHAR(255),
+    quantity INTEGER,
+    unit_price FLOAT(53),
+    total_amount FLOAT(53),
+    status VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'APPROVED', 'ORDERED', 'DELIVERED', 'CANCELLED')),
+    order_date DATE NOT NULL,
+    delivery_date DATE,
+    notes VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (order_id),
+    CONSTRAINT uk_purchase_orders_order_number UNIQUE (order_number)
+);
+
+CREATE TABLE order_number_blocks (
+    order_year INTEGER NOT NULL,
+    next_value BIGINT NOT NULL,
+    PRIMARY KEY (order_year)
+);
+
+CREATE TABLE stock_movements (
+    movement_id BIGINT NOT NULL,
+    medicine_id BIGINT NOT NULL,
+    type VARCHAR(255) NOT NULL CHECK (type IN ('DISPENSE', 'RECEIVE')),
+    quantity INTEGER NOT NULL,
+    reference VARCHAR(255),
+    performed_by VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (movement_id)
+);
+
+CREATE TABLE supplier_monthly_stats (
+    supplier_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    order_count BIGINT NOT NULL,
+    total_spend FLOAT(53) NOT NULL,
+    delivered_count BIGINT NOT NULL,
+    lead_time_days BIGINT NOT NULL,
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (month_start, supplier_id)
+);
+
+CREATE TABLE refresh_tokens (
+    token_id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    token_hash VARCHAR(64) NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    user_id BIGINT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    revoked_at TIMESTAMP(6),
+    PRIMARY KEY (token_id),
+    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash)
+);
+
+CREATE TABLE token_revocations (
+    revocation_id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    type VARCHAR(255) NOT NULL CHECK (type IN ('TOKEN', 'USER')),
+    subject VARCHAR(255) NOT NULL,
+    issued_before BIGINT,
+    created_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (revocation_id)
+);
+
+CREATE TABLE expiry_alerts (
+    alert_id BIGINT NOT NULL,
+    medicine_id BIGINT NOT NULL,
+    medicine_name VARCHAR(255) NOT NULL,
+    batch_number VARCHAR(255),
+    expiry_date DATE NOT NULL,
+    quantity INTEGER,
+    type VARCHAR(255) NOT NULL CHECK (type IN ('EXPIRED', 'EXPIRING')),
+    deactivated BOOLEAN NOT NULL,
+    run_date DATE NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (alert_id),
+    CONSTRAINT uk_expiry_alerts_medicine_run_type UNIQUE (medicine_id, run_date, type)
+);
+
+CREATE TABLE job_checkpoints (
+    job_name VARCHAR(255) NOT NULL,
+    run_date DATE NOT NULL,
+    phase VARCHAR(255) NOT NULL,
+    last_id BIGINT NOT NULL,
+    completed BOOLEAN NOT NULL,
+    updated_at TIMESTAMP(6),
+    PRIMARY KEY (job_name)
+);
+
+CREATE TABLE job_locks (
+    name VARCHAR(255) NOT NULL,
+    locked_until TIMESTAMP(6) NOT NULL,
+    locked_at TIMESTAMP(6) NOT NULL,
+    locked_by VARCHAR(255) NOT NULL,
+    fencing_token BIGINT NOT NULL,
+    PRIMARY KEY (name)
+);
+
+CREATE INDEX idx_expiry_alerts_type_id ON expiry_alerts (type, alert_id);
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX idx_stock_movements_medicine_created ON stock_movements (medicine_id, created_at);
+
+CREATE INDEX idx_medicines_supplier ON medicines (supplier_id);
+CREATE INDEX idx_equipment_supplier ON equipment (supplier_id);
+CREATE INDEX idx_maintenance_records_equipment ON maintenance_records (equipment_id);
+CREATE INDEX idx_maintenance_records_technician ON maintenance_records (technician_id);
+CREATE INDEX idx_purchase_orders_supplier ON purchase_orders (supplier_id);
+CREATE INDEX idx_purchase_orders_user ON purchase_orders (user_id);
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens (user_id);
+
+ALTER TABLE medicines ADD CONSTRAINT fk_medicines_supplier
+    FOREIGN KEY (supplier_id) REFERENCES suppliers (supplier_id);
+ALTER TABLE equipment ADD CONSTRAINT fk_equipment_supplier
+    FOREIGN KEY (supplier_id) REFERENCES suppliers (supplier_id);
+ALTER TABLE maintenance_records ADD CONSTRAINT fk_maintenance_records_equipment
+    FOREIGN KEY (equipment_id) REFERENCES equipment (equipment_id);
+ALTER TABLE maintenance_records ADD CONSTRAINT fk_maintenance_records_technician
+    FOREIGN KEY (technician_id) REFERENCES users (user_id);
+ALTER TABLE purchase_orders ADD CONSTRAINT fk_purchase_orders_supplier
+    FOREIGN KEY (supplier_id) REFERENCES suppliers (supplier_id);
+ALTER TABLE purchase_orders ADD CONSTRAINT fk_purchase_orders_user
+    FOREIGN KEY (user_id) REFERENCES users (user_id);
+ALTER TABLE stock_movements ADD CONSTRAINT fk_stock_movements_medicine
+    FOREIGN KEY (medicine_id) REFERENCES medicines (medicine_id);
+ALTER TABLE refresh_tokens ADD CONSTRAINT fk_refresh_tokens_user
+    FOREIGN KEY (user_id) REFERENCES users (user_id);
@@ -0,0 +1,32 @@
+-- Indexes for the repository queries. Leading columns follow the equality predicates,
+-- then the range or sort column, then the ID used as the keyset tie-breaker, so the
+-- cursor pages and the expiry and maintenance scans are read in index order.
+
+-- Active list pages (ORDER BY name, id) and the expired/expiring pages and expiry check scans,
+-- which only read the ID and so are answered from the index
+CREATE INDEX idx_medicines_active_name ON medicines (active, name, medicine_id);
+CREATE INDEX idx_medicines_active_expiry ON medicines (active, expiry_date, medicine_id);
+CREATE INDEX idx_medicines_quantity ON medicines (quantity);
+CREATE INDEX idx_medicines_category ON medicines (category);
+
+CREATE INDEX idx_equipment_active_name ON equipment (active, name, equipment_id);
+CREATE INDEX idx_equipment_active_next_maintenance ON equipment (active, next_maintenance_date, equipment_id);
+CREATE INDEX idx_equipment_status ON equipment (status);
+CREATE INDEX idx_equipment_category ON equipment (category);
+
+-- Newest-first order pages, status filters and the open-quantity rollup used by reordering
+CREATE INDEX idx_purchase_orders_order_date ON purchase_orders (order_date DESC, order_id DESC);
+CREATE INDEX idx_purchase_orders_status ON purchase_orders (status);
+CREATE INDEX idx_purchase_orders_item_type_status ON purchase_orders (item_type, status);
+
+CREATE INDEX idx_maintenance_records_date ON maintenance_records (maintenance_date DESC, record_id DESC);
+CREATE INDEX idx_maintenance_records_status ON maintenance_records (status);
+
+-- Demand history for reordering
+CREATE INDEX idx_stock_movements_type_created ON stock_movements (type, created_at);
+
+CREATE INDEX idx_supplier_monthly_stats_supplier ON supplier_monthly_stats (supplier_id, month_start);
+
+-- Expiry sweeps
+CREATE INDEX idx_refresh_tokens_expires ON refresh_tokens (expires_at);
+CREATE INDEX idx_token_revocations_expires ON token_revocations (expires_at);
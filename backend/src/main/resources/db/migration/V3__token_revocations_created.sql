@@ -0,0 +1,2 @@
+-- Revocations newer than a node's high-water mark, read by every node every few seconds
+CREATE INDEX idx_token_revocations_created ON token_revocations (created_at);
@@ -0,0 +1,3 @@
+-- Medicines are identified by name and category; orders carry the category so open
+-- quantities can be matched to the right product. Null on orders placed before this.
+ALTER TABLE purchase_orders ADD COLUMN item_category VARCHAR(255);
@@ -0,0 +1,73 @@
+package com.hemis.controller;
+
+import com.hemis.entity.Medicine;
+import com.hemis.repository.MedicineRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MedicineControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private MedicineRepository medicineRepository;
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/medicines/expiring", "/api/medicines/expired"})
+    @WithMockUser(roles = "PHARMACIST")
+    void expiryPagesAreClampedToTheMaximumSize(String url) throws Exception {
+        mockMvc.perform(get(url).param("size", "1000000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(200));
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/medicines/expiring", "/api/medicines/expired"})
+    @WithMockUser(roles = "PHARMACIST")
+    void negativeExpiryPagesAreRejected(String url) throws Exception {
+        mockMvc.perform(get(url).param("page", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    @WithMockUser(roles = "PHARMACIST")
+    void receivingPastTheMaximumQuantityIsRejected() throws Exception {
+        Medicine medicine = new Medicine();
+        medicine.setName("Overflow Test " + System.nanoTime());
+        medicine.setCategory("Test");
+        medicine.setQuantity(Integer.MAX_VALUE - 5);
+        medicine.setUnitPrice(1.0);
+        medicine.setExpiryDate(LocalDate.now().plusYears(1));
+        Long id = medicineRepository.save(medicine).getMedicineId();
+        
+        mockMvc.perform(post("/api/medicines/" + id + "/receive")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"quantity\": 6}"))
+                .andExpect(status().isBadRequest());
+        assertEquals(Integer.MAX_VALUE - 5, medicineRepository.findById(id).orElseThrow().getQuantity());
+        
+        mockMvc.perform(post("/api/medicines/" + id + "/receive")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"quantity\": 5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,141 @@
+package com.hemis.controller;
+
+import com.hemis.entity.Equipment;
+import com.hemis.entity.MaintenanceRecord;
+import com.hemis.entity.Medicine;
+import com.hemis.entity.PurchaseOrder;
+import com.hemis.entity.Supplier;
+import com.hemis.entity.User;
+import com.hemis.repository.EquipmentRepository;
+import com.hemis.repository.MaintenanceRecordRepository;
+import com.hemis.repository.MedicineRepository;
+import com.hemis.repository.PurchaseOrderRepository;
+import com.hemis.repository.SupplierRepository;
+import com.hemis.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements each list endpoint runs with a cold second-level cache. The
+ * seeded rows point at many different suppliers and users, so a per-row association
+ * load (N+1) would push the count well past the page query plus one batch per association.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StatementCountTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private SupplierRepository supplierRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private MedicineRepository medicineRepository;
+    
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+    
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+    
+    @Autowired
+    private MaintenanceRecordRepository maintenanceRecordRepository;
+    
+    @BeforeAll
+    void seed() {
+        List<User> users = userRepository.findAll();
+        List<Supplier> suppliers = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Supplier supplier = new Supplier();
+            supplier.setName("Count Supplier " + i);
+            suppliers.add(supplierRepository.save(supplier));
+        }
+        for (int i = 0; i < 12; i++) {
+            Supplier supplier = suppliers.get(i % suppliers.size());
+            
+            Medicine medicine = new Medicine();
+            medicine.setName("Count Medicine " + i);
+            medicine.setCategory("Test");
+            medicine.setQuantity(10);
+            medicine.setUnitPrice(1.0);
+            medicine.setExpiryDate(LocalDate.now().plusMonths(i + 1));
+            medicine.setSupplier(supplier);
+            medicineRepository.save(medicine);
+            
+            Equipment equipment = new Equipment();
+            equipment.setName("Count Equipment " + i);
+            equipment.setCategory("Test");
+            equipment.setSupplier(supplier);
+            equipment = equipmentRepository.save(equipment);
+            
+            PurchaseOrder order = new PurchaseOrder();
+            order.setOrderNumber("COUNT-" + i);
+            order.setSupplier(supplier);
+            order.setOrderedBy(users.get(i % users.size()));
+            order.setItemType(PurchaseOrder.ItemType.SUPPLIES);
+            order.setItemName("Item " + i);
+            order.setQuantity(1);
+            order.setUnitPrice(1.0);
+            order.setOrderDate(LocalDate.now().minusDays(i));
+            purchaseOrderRepository.save(order);
+            
+            MaintenanceRecord record = new MaintenanceRecord();
+            record.setEquipment(equipment);
+            record.setTechnician(users.get(i % users.size()));
+            record.setMaintenanceDate(LocalDate.now().minusDays(i));
+            record.setType(MaintenanceRecord.MaintenanceType.ROUTINE);
+            maintenanceRecordRepository.save(record);
+        }
+    }
+    
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            // page query + suppliers in one batch
+            "/api/medicines, 2",
+            "/api/equipment, 2",
+            // page query + suppliers + users
+            "/api/orders, 3",
+            // page query with equipment + technicians
+            "/api/maintenance, 2",
+            "/api/users, 1",
+            "/api/suppliers, 1",
+    })
+    @WithMockUser(roles = "ADMIN")
+    void listEndpointRunsABoundedNumberOfStatements(String url, long expected) throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        mockMvc.perform(get(url).param("size", "100")).andExpect(status().isOk());
+        
+        assertEquals(expected, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,55 @@
+package com.hemis.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void writesNeverReturnThePasswordField() throws Exception {
+        String username = "view" + System.nanoTime();
+        String body = "{\"username\":\"" + username + "\",\"password\":\"secret123\",\"fullName\":\"View Test\","
+                + "\"role\":\"PHARMACIST\"}";
+        
+        String created = mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(username))
+                .andExpect(jsonPath("$.password").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("userId").asLong();
+        
+        mockMvc.perform(put("/api/users/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content(body.replace("View Test", "View Test Renamed")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fullName").value("View Test Renamed"))
+                .andExpect(jsonPath("$.password").doesNotExist());
+        
+        mockMvc.perform(patch("/api/users/" + id + "/toggle-active"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(false))
+                .andExpect(jsonPath("$.password").doesNotExist());
+    }
+}
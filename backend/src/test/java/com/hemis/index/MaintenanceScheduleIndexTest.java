@@ -0,0 +1,44 @@
+package com.hemis.index;
+
+import com.hemis.index.MaintenanceScheduleIndex.Slot;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MaintenanceScheduleIndexTest {
+    
+    private static final LocalDate TODAY = LocalDate.of(2026, 1, 1);
+    
+    @Test
+    void reloadKeepsWritesMadeWhileItRead() {
+        MaintenanceScheduleIndex index = new MaintenanceScheduleIndex();
+        index.load(Map.of(1L, TODAY.plusDays(1), 2L, TODAY.plusDays(2)));
+        
+        index.beginLoad();
+        // Written after the reload read its snapshot
+        index.put(1L, TODAY.plusDays(5));
+        index.remove(2L);
+        index.put(3L, TODAY.plusDays(3));
+        index.load(Map.of(1L, TODAY.plusDays(1), 2L, TODAY.plusDays(2), 4L, TODAY.plusDays(4)));
+        
+        assertEquals(List.of(3L, 4L, 1L), index.dueBefore(TODAY.plusDays(10)));
+    }
+    
+    @Test
+    void reloadQueuesOnlyNewOrMovedItems() {
+        MaintenanceScheduleIndex index = new MaintenanceScheduleIndex();
+        index.load(Map.of(1L, TODAY.plusDays(1), 2L, TODAY.plusDays(2)));
+        assertEquals(2, index.pollDue(TODAY.plusDays(10), 10).size());
+        
+        index.beginLoad();
+        index.load(Map.of(1L, TODAY.plusDays(1), 2L, TODAY.plusDays(6), 3L, TODAY.plusDays(3)));
+        
+        // Item 1 was already scheduled for the same date and stays out of the queue
+        assertEquals(List.of(new Slot(TODAY.plusDays(3).toEpochDay(), 3L), new Slot(TODAY.plusDays(6).toEpochDay(), 2L)),
+                index.pollDue(TODAY.plusDays(10), 10));
+    }
+}
@@ -0,0 +1,43 @@
+package com.hemis.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class MedicineExpiryIndexTest {
+    
+    private static final LocalDate TODAY = LocalDate.of(2026, 1, 1);
+    
+    @Test
+    void reloadKeepsWritesMadeWhileItRead() {
+        MedicineExpiryIndex index = new MedicineExpiryIndex();
+        index.load(Map.of(1L, TODAY.plusDays(1), 2L, TODAY.plusDays(2)));
+        
+        index.beginLoad();
+        // Written after the reload read its snapshot
+        index.put(1L, TODAY.plusDays(5));
+        index.remove(2L);
+        index.put(3L, TODAY.plusDays(3));
+        index.load(Map.of(1L, TODAY.plusDays(1), 2L, TODAY.plusDays(2), 4L, TODAY.plusDays(4)));
+        
+        assertArrayEquals(new long[] {3L, 4L, 1L}, index.findExpiringBetween(TODAY, TODAY.plusDays(10), 0, 10).ids());
+    }
+    
+    @Test
+    void reloadReplacesStaleEntries() {
+        MedicineExpiryIndex index = new MedicineExpiryIndex();
+        index.load(Map.of(1L, TODAY.plusDays(1), 2L, TODAY.plusDays(2)));
+        
+        index.beginLoad();
+        index.load(Map.of(2L, TODAY.plusDays(2)));
+        // Tracking stops with the reload, so later writes are ordinary updates
+        index.put(5L, TODAY.plusDays(1));
+        index.beginLoad();
+        index.load(Map.of(2L, TODAY.plusDays(2)));
+        
+        assertArrayEquals(new long[] {2L}, index.findExpiringBetween(TODAY, TODAY.plusDays(10), 0, 10).ids());
+    }
+}
@@ -0,0 +1,84 @@
+package com.hemis.index;
+
+import com.hemis.entity.MaintenanceRecord.MaintenanceStatus;
+import com.hemis.entity.MaintenanceRecord.MaintenanceType;
+import com.hemis.index.ReliabilityIndex.EquipmentFacts;
+import com.hemis.index.ReliabilityIndex.Totals;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReliabilityIndexTest {
+    
+    private static final LocalDate TODAY = LocalDate.of(2026, 1, 1);
+    
+    @Test
+    void mtbfIsTheMeanGapBetweenPerformedFailures() {
+        ReliabilityIndex index = withPump();
+        index.recordSaved(10L, 1L, LocalDate.of(2025, 1, 1), MaintenanceType.REPAIR, MaintenanceStatus.COMPLETED, 100.0);
+        index.recordSaved(11L, 1L, LocalDate.of(2025, 1, 11), MaintenanceType.EMERGENCY, MaintenanceStatus.COMPLETED, 50.0);
+        index.recordSaved(12L, 1L, LocalDate.of(2025, 1, 31), MaintenanceType.REPAIR, MaintenanceStatus.IN_PROGRESS, null);
+        // Routine work is not a failure, and work that did not happen is not counted at all
+        index.recordSaved(13L, 1L, LocalDate.of(2025, 1, 20), MaintenanceType.ROUTINE, MaintenanceStatus.COMPLETED, 25.0);
+        index.recordSaved(14L, 1L, LocalDate.of(2025, 1, 21), MaintenanceType.REPAIR, MaintenanceStatus.SCHEDULED, 99.0);
+        index.recordSaved(15L, 1L, LocalDate.of(2025, 1, 22), MaintenanceType.REPAIR, MaintenanceStatus.CANCELLED, 99.0);
+        
+        Totals pump = index.forEquipment(1L);
+        assertEquals(4, pump.maintenanceCount());
+        assertEquals(175.0, pump.totalCost(), 0.001);
+        assertEquals(3, pump.failureCount());
+        assertEquals(15.0, pump.mtbfDays());
+        assertEquals(LocalDate.of(2025, 1, 31).toEpochDay(), pump.lastFailureDay());
+        
+        index.recordRemoved(11L);
+        assertEquals(30.0, index.forEquipment(1L).mtbfDays());
+        index.recordRemoved(12L);
+        assertNull(index.forEquipment(1L).mtbfDays());
+    }
+    
+    @Test
+    void maintenancePerYearCountsTimeInServiceSincePurchase() {
+        ReliabilityIndex index = withPump();
+        index.recordSaved(10L, 1L, LocalDate.of(2025, 6, 1), MaintenanceType.ROUTINE, MaintenanceStatus.COMPLETED, null);
+        index.recordSaved(11L, 1L, LocalDate.of(2025, 7, 1), MaintenanceType.REPAIR, MaintenanceStatus.COMPLETED, null);
+        
+        // Purchased 2024-01-01: 731 days in service
+        assertEquals(2 * 365.25 / 731, index.forEquipment(1L).maintenancePerYear(TODAY), 1e-9);
+        assertNull(index.forEquipment(1L).maintenancePerYear(LocalDate.of(2024, 1, 1)));
+    }
+    
+    @Test
+    void groupsPoolTheirAssetsFigures() {
+        ReliabilityIndex index = withPump();
+        // No purchase date, so service starts at its first performed record, 2025-02-01
+        index.equipmentSaved(2L, "Pumps", "Ward B", null);
+        index.recordSaved(10L, 1L, LocalDate.of(2025, 1, 1), MaintenanceType.REPAIR, MaintenanceStatus.COMPLETED, null);
+        index.recordSaved(11L, 1L, LocalDate.of(2025, 1, 31), MaintenanceType.REPAIR, MaintenanceStatus.COMPLETED, null);
+        index.recordSaved(20L, 2L, LocalDate.of(2025, 2, 1), MaintenanceType.REPAIR, MaintenanceStatus.COMPLETED, null);
+        index.recordSaved(21L, 2L, LocalDate.of(2025, 2, 11), MaintenanceType.REPAIR, MaintenanceStatus.COMPLETED, null);
+        
+        Totals pumps = index.byCategory().get("Pumps");
+        assertEquals(2, pumps.assetCount());
+        assertEquals(4, pumps.failureCount());
+        // Gaps of 30 and 10 days
+        assertEquals(20.0, pumps.mtbfDays());
+        assertEquals(4 * 365.25 / (731 + 334), pumps.maintenancePerYear(TODAY), 1e-9);
+        assertNull(pumps.lastFailureDay());
+        
+        index.equipmentSaved(2L, "Monitors", "Ward B", null);
+        assertEquals(30.0, index.byCategory().get("Pumps").mtbfDays());
+        assertEquals(10.0, index.byCategory().get("Monitors").mtbfDays());
+        assertEquals(2, index.byLocation().get("Ward B").assetCount());
+    }
+    
+    private static ReliabilityIndex withPump() {
+        ReliabilityIndex index = new ReliabilityIndex();
+        index.load(List.of(new EquipmentFacts(1L, "Pumps", "Ward B", LocalDate.of(2024, 1, 1))), Map.of());
+        return index;
+    }
+}
@@ -0,0 +1,115 @@
+package com.hemis.index;
+
+import com.hemis.entity.PurchaseOrder;
+import com.hemis.entity.PurchaseOrder.OrderStatus;
+import com.hemis.entity.Supplier;
+import com.hemis.index.SupplierStatsIndex.Bucket;
+import com.hemis.index.SupplierStatsIndex.OrderFacts;
+import com.hemis.index.SupplierStatsIndex.Totals;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SupplierStatsIndexTest {
+    
+    private static final LocalDate JAN = LocalDate.of(2026, 1, 10);
+    private static final LocalDate FEB = LocalDate.of(2026, 2, 3);
+    private static final Bucket JAN_BUCKET = new Bucket(1L, YearMonth.of(2026, 1));
+    private static final Bucket FEB_BUCKET = new Bucket(1L, YearMonth.of(2026, 2));
+    
+    @Test
+    void updatesAreRecordedAsTheDifferenceFromTheOrdersLastFacts() {
+        SupplierStatsIndex index = loaded();
+        
+        index.orderSaved(order(10L, JAN, 100.0, OrderStatus.PENDING, null));
+        index.orderSaved(order(10L, JAN, 100.0, OrderStatus.DELIVERED, JAN.plusDays(4)));
+        index.orderSaved(order(11L, FEB, 50.0, OrderStatus.PENDING, null));
+        
+        assertEquals(Map.of(JAN_BUCKET, new Totals(1, 100.0, 1, 4), FEB_BUCKET, new Totals(1, 50.0, 0, 0)),
+                index.drainDeltas());
+        assertTrue(index.drainDeltas().isEmpty());
+    }
+    
+    @Test
+    void loadedOrdersAreLearnedWithoutADelta() {
+        SupplierStatsIndex index = loaded();
+        
+        index.orderLoaded(10L, facts(JAN, 100.0, OrderStatus.APPROVED, null));
+        assertTrue(index.drainDeltas().isEmpty());
+        
+        // Known now, so a bulk status change can take its old contribution back out
+        index.orderStatusChanged(10L, OrderStatus.CANCELLED, null);
+        assertEquals(Map.of(JAN_BUCKET, new Totals(-1, -100.0, 0, 0)), index.drainDeltas());
+    }
+    
+    @Test
+    void changesThatCancelOutLeaveNoDelta() {
+        SupplierStatsIndex index = loaded();
+        
+        index.orderSaved(order(10L, JAN, 100.0, OrderStatus.PENDING, null));
+        index.orderRemoved(10L);
+        
+        assertTrue(index.drainDeltas().isEmpty());
+    }
+    
+    @Test
+    void restoredDeltasAreMergedIntoTheNextFlush() {
+        SupplierStatsIndex index = loaded();
+        index.orderSaved(order(10L, JAN, 100.0, OrderStatus.PENDING, null));
+        Map<Bucket, Totals> failed = index.drainDeltas();
+        
+        index.orderSaved(order(11L, JAN, 20.0, OrderStatus.PENDING, null));
+        index.restoreDeltas(failed);
+        
+        assertEquals(Map.of(JAN_BUCKET, new Totals(2, 120.0, 0, 0)), index.drainDeltas());
+    }
+    
+    @Test
+    void rebuildKeepsWritesMadeWhileItReadAndThePendingDeltas() {
+        SupplierStatsIndex index = loaded();
+        index.orderSaved(order(10L, JAN, 100.0, OrderStatus.PENDING, null));
+        
+        index.beginRebuild();
+        // Written after the rebuild read its (now stale) facts
+        index.orderSaved(order(11L, FEB, 30.0, OrderStatus.PENDING, null));
+        index.orderRemoved(10L);
+        index.orderStatusChanged(12L, OrderStatus.DELIVERED, FEB.plusDays(2));
+        index.replace(Map.of(10L, facts(JAN, 100.0, OrderStatus.PENDING, null),
+                12L, facts(FEB, 5.0, OrderStatus.ORDERED, null)));
+        
+        SupplierStatsIndex.Snapshot snapshot = index.takeSnapshot();
+        assertEquals(Map.of(FEB_BUCKET, new Totals(2, 35.0, 1, 2)), snapshot.buckets());
+        // Order 10 was added and removed, so only order 11 is still to be flushed
+        assertEquals(Map.of(FEB_BUCKET, new Totals(1, 30.0, 0, 0)), snapshot.deltas());
+        assertTrue(index.drainDeltas().isEmpty());
+    }
+    
+    private static SupplierStatsIndex loaded() {
+        SupplierStatsIndex index = new SupplierStatsIndex();
+        index.replace(Map.of());
+        return index;
+    }
+    
+    private static OrderFacts facts(LocalDate orderDate, Double totalAmount, OrderStatus status, LocalDate deliveryDate) {
+        return new OrderFacts(1L, orderDate, deliveryDate, totalAmount, status);
+    }
+    
+    private static PurchaseOrder order(Long id, LocalDate orderDate, Double totalAmount, OrderStatus status,
+                                       LocalDate deliveryDate) {
+        Supplier supplier = new Supplier();
+        supplier.setSupplierId(1L);
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderId(id);
+        order.setSupplier(supplier);
+        order.setOrderDate(orderDate);
+        order.setDeliveryDate(deliveryDate);
+        order.setTotalAmount(totalAmount);
+        order.setStatus(status);
+        return order;
+    }
+}
@@ -0,0 +1,72 @@
+package com.hemis.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+    
+    @Test
+    void ranksExactThenPrefixThenSubstringThenTypos() {
+        TrigramIndex index = new TrigramIndex();
+        index.load(Map.of(1L, "Amoxicillin", 2L, "Amoxicillin 250mg", 3L, "Co-Amoxicillin",
+                4L, "Amoxycillin", 5L, "Paracetamol"));
+        
+        // Word prefixes rank with name prefixes, the shorter name being more similar
+        assertEquals(List.of(1L, 3L, 2L, 4L), index.search("amoxicillin", 10));
+        assertEquals(List.of(1L, 3L), index.search("AMOXICILLIN", 2));
+    }
+    
+    @Test
+    void findsSubstringsAndToleratesTypos() {
+        TrigramIndex index = new TrigramIndex();
+        index.load(Map.of(1L, "Paracetamol 500mg", 2L, "Insulin 100IU/ml", 3L, "Ultrasound Scanner"));
+        
+        assertEquals(List.of(1L), index.search("cetam", 10));
+        assertEquals(List.of(1L), index.search("paracetmol", 10));
+        assertEquals(List.of(2L), index.search("100iu ml", 10));
+        assertEquals(List.of(), index.search("ibuprofen", 10));
+    }
+    
+    @Test
+    void reindexedAndRemovedNamesAreNotFoundUnderTheOldName() {
+        TrigramIndex index = new TrigramIndex();
+        index.load(Map.of(1L, "Patient Monitor", 2L, "X-Ray Machine"));
+        
+        index.put(1L, "Infusion Pump");
+        index.remove(2L);
+        // Reuses the freed ordinal
+        index.put(3L, "Patient Monitor");
+        
+        assertEquals(List.of(3L), index.search("monitor", 10));
+        assertEquals(List.of(1L), index.search("infusion", 10));
+        assertEquals(List.of(), index.search("x ray", 10));
+        assertEquals(2, index.size());
+    }
+    
+    @Test
+    void scalesToManyCandidates() {
+        Map<Long, String> names = new HashMap<>();
+        for (long id = 0; id < 5000; id++) {
+            names.put(id, "Saline " + id);
+        }
+        TrigramIndex index = new TrigramIndex();
+        index.load(names);
+        
+        assertEquals(List.of(4321L), index.search("saline 4321", 1));
+        assertEquals(5000, index.search("saline", 10000).size());
+    }
+    
+    @Test
+    void shortQueriesAreLeftToTheDatabase() {
+        assertFalse(TrigramIndex.isSearchable("ol"));
+        assertFalse(TrigramIndex.isSearchable(" a-"));
+        assertTrue(TrigramIndex.isSearchable("amo"));
+    }
+}
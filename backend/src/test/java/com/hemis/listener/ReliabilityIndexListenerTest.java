@@ -0,0 +1,53 @@
+package com.hemis.listener;
+
+import com.hemis.entity.Equipment;
+import com.hemis.index.ReliabilityIndex;
+import com.hemis.repository.EquipmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReliabilityIndexListenerTest {
+    
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+    
+    @Autowired
+    private ReliabilityIndex reliabilityIndex;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void onlyCommittedWritesReachTheIndex() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        
+        Long rolledBack = transaction.execute(status -> {
+            Long id = equipmentRepository.saveAndFlush(equipment("Phantom Pump")).getEquipmentId();
+            // Flushed, so the listener has fired, but not committed yet
+            assertNull(reliabilityIndex.forEquipment(id));
+            status.setRollbackOnly();
+            return id;
+        });
+        assertNull(reliabilityIndex.forEquipment(rolledBack));
+        
+        Long committed = transaction.execute(status -> equipmentRepository.save(equipment("Committed Pump")).getEquipmentId());
+        assertEquals(1, reliabilityIndex.forEquipment(committed).assetCount());
+    }
+    
+    private static Equipment equipment(String name) {
+        Equipment equipment = new Equipment();
+        equipment.setName(name);
+        equipment.setCategory("Reliability Test");
+        equipment.setLocation("Ward Z");
+        return equipment;
+    }
+}
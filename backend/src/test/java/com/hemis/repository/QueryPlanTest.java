@@ -0,0 +1,75 @@
+package com.hemis.repository;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN on the SQL behind the hot repository queries against the migrated schema and
+ * fails when one of them stops using the index designed for it, e.g. after a migration drops
+ * or reorders a column. The statements mirror what Hibernate generates for each query.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class QueryPlanTest {
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of("MedicineRepository.findActivePageAfter", "idx_medicines_active_name",
+                        "SELECT * FROM medicines m WHERE m.active = TRUE AND (m.name > 'A' OR (m.name = 'A' AND m.medicine_id > 1)) " +
+                        "ORDER BY m.name, m.medicine_id FETCH FIRST 50 ROWS ONLY"),
+                Arguments.of("EquipmentRepository.findActivePageAfter", "idx_equipment_active_name",
+                        "SELECT * FROM equipment e WHERE e.active = TRUE AND (e.name > 'A' OR (e.name = 'A' AND e.equipment_id > 1)) " +
+                        "ORDER BY e.name, e.equipment_id FETCH FIRST 50 ROWS ONLY"),
+                Arguments.of("MedicineRepository.findExpired", "idx_medicines_active_expiry",
+                        "SELECT * FROM medicines m WHERE m.expiry_date < DATE '2026-01-01' AND m.active = TRUE " +
+                        "ORDER BY m.expiry_date, m.medicine_id OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY"),
+                Arguments.of("MedicineRepository.findExpiringBetween", "idx_medicines_active_expiry",
+                        "SELECT * FROM medicines m WHERE m.expiry_date BETWEEN DATE '2026-01-01' AND DATE '2026-02-01' " +
+                        "AND m.active = TRUE ORDER BY m.expiry_date, m.medicine_id OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY"),
+                Arguments.of("MedicineRepository.findExpiredIdsAfter", "idx_medicines_active_expiry",
+                        "SELECT m.medicine_id FROM medicines m WHERE m.active = TRUE AND m.expiry_date < DATE '2026-01-01' " +
+                        "AND m.medicine_id > 0 ORDER BY m.medicine_id FETCH FIRST 500 ROWS ONLY"),
+                Arguments.of("MedicineRepository.findByQuantityLessThan", "idx_medicines_quantity",
+                        "SELECT * FROM medicines m WHERE m.quantity < 10"),
+                Arguments.of("EquipmentRepository.findMaintenanceDue", "idx_equipment_active_next_maintenance",
+                        "SELECT * FROM equipment e WHERE e.next_maintenance_date < DATE '2026-01-01' AND e.active = TRUE"),
+                Arguments.of("PurchaseOrderRepository.findPageAfter", "idx_purchase_orders_order_date",
+                        "SELECT * FROM purchase_orders o WHERE o.order_date < DATE '2026-01-01' " +
+                        "OR (o.order_date = DATE '2026-01-01' AND o.order_id < 100) " +
+                        "ORDER BY o.order_date DESC, o.order_id DESC FETCH FIRST 50 ROWS ONLY"),
+                Arguments.of("PurchaseOrderRepository.findOpenQuantities", "idx_purchase_orders_item_type_status",
+                        "SELECT lower(trim(o.item_name)), SUM(o.quantity) FROM purchase_orders o " +
+                        "WHERE o.item_type = 'MEDICINE' AND o.status IN ('PENDING', 'APPROVED', 'ORDERED') " +
+                        "GROUP BY lower(trim(o.item_name))"),
+                Arguments.of("MaintenanceRecordRepository.findPageAfter", "idx_maintenance_records_date",
+                        "SELECT * FROM maintenance_records r WHERE r.maintenance_date < DATE '2026-01-01' " +
+                        "OR (r.maintenance_date = DATE '2026-01-01' AND r.record_id < 100) " +
+                        "ORDER BY r.maintenance_date DESC, r.record_id DESC FETCH FIRST 50 ROWS ONLY"),
+                Arguments.of("StockMovementRepository.findDailyTotalsSince", "idx_stock_movements_type_created",
+                        "SELECT s.medicine_id, CAST(s.created_at AS DATE), SUM(s.quantity) FROM stock_movements s " +
+                        "WHERE s.type = 'DISPENSE' AND s.created_at >= TIMESTAMP '2026-01-01 00:00:00' " +
+                        "GROUP BY s.medicine_id, CAST(s.created_at AS DATE)"),
+                Arguments.of("SupplierMonthlyStatsRepository.findForSupplierSince", "idx_supplier_monthly_stats_supplier",
+                        "SELECT * FROM supplier_monthly_stats s WHERE s.supplier_id = 1 AND s.month_start >= DATE '2026-01-01' " +
+                        "ORDER BY s.month_start"));
+    }
+    
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void usesItsIndex(String query, String index, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertTrue(plan.toLowerCase().contains(index), () -> query + " should use " + index + " but its plan is:\n" + plan);
+    }
+}
@@ -0,0 +1,100 @@
+package com.hemis.repository;
+
+import com.hemis.entity.Supplier;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Supplier and User reads are served from the second-level cache once warm, which
+ * takes the association loads off every list request.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private SupplierRepository supplierRepository;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void coldCache() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+    
+    @Test
+    void supplierIsReadOnceThenServedFromTheCache() {
+        Long supplierId = supplierRepository.findByActiveTrue().get(0).getSupplierId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        
+        // Each call runs in its own persistence context, so only the shared cache can help
+        supplierRepository.findById(supplierId).orElseThrow();
+        supplierRepository.findById(supplierId).orElseThrow();
+        
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+    
+    @Test
+    void activeSuppliersComeFromTheQueryCache() {
+        int first = supplierRepository.findByActiveTrue().size();
+        int second = supplierRepository.findByActiveTrue().size();
+        
+        assertEquals(first, second);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+    
+    @Test
+    void updatesInvalidateTheCachedEntry() {
+        Supplier supplier = supplierRepository.findByActiveTrue().get(0);
+        String name = supplier.getName();
+        supplier.setName(name + " (renamed)");
+        supplierRepository.save(supplier);
+        try {
+            assertEquals(name + " (renamed)", supplierRepository.findById(supplier.getSupplierId()).orElseThrow().getName());
+        } finally {
+            supplier = supplierRepository.findById(supplier.getSupplierId()).orElseThrow();
+            supplier.setName(name);
+            supplierRepository.save(supplier);
+        }
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void warmListRequestsSkipTheSupplierLoads() throws Exception {
+        mockMvc.perform(get("/api/medicines")).andExpect(status().isOk());
+        long cold = statistics.getPrepareStatementCount();
+        statistics.clear();
+        
+        mockMvc.perform(get("/api/medicines")).andExpect(status().isOk());
+        
+        assertEquals(2, cold);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+}
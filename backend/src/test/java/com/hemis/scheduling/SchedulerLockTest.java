@@ -0,0 +1,186 @@
+package com.hemis.scheduling;
+
+import com.hemis.HemisApplication;
+import com.hemis.service.JobLockService;
+import com.hemis.service.LockLostException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two application contexts sharing one file-backed H2 database stand in for two nodes.
+ * The second-level cache is off, so each node reads the lock table itself.
+ */
+class SchedulerLockTest {
+    
+    @TempDir
+    static Path dataDir;
+    
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    
+    @BeforeAll
+    static void startNodes() {
+        String url = "jdbc:h2:file:" + dataDir.resolve("locks").toAbsolutePath();
+        nodeA = startNode("node-a", url);
+        nodeB = startNode("node-b", url);
+    }
+    
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+    
+    @Test
+    void onlyOneNodeRunsAJobAtATime() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        CompletableFuture<Void> a = CompletableFuture.runAsync(() -> runAfter(start, jobs(nodeA)));
+        CompletableFuture<Void> b = CompletableFuture.runAsync(() -> runAfter(start, jobs(nodeB)));
+        start.countDown();
+        CompletableFuture.allOf(a, b).get();
+        
+        assertEquals(1, jobs(nodeA).exclusiveRuns() + jobs(nodeB).exclusiveRuns());
+    }
+    
+    @Test
+    void everyGrantIncrementsTheFencingToken() {
+        Long first = jobs(nodeA).fenced();
+        Long second = jobs(nodeB).fenced();
+        Long third = jobs(nodeA).fenced();
+        
+        assertEquals(first + 1, second);
+        assertEquals(second + 1, third);
+    }
+    
+    @Test
+    void leaseFailsOverAfterLockAtMostFor() throws Exception {
+        JobLockService lockServiceA = nodeA.getBean(JobLockService.class);
+        // Node A takes the lease and then never releases it, as if it had died
+        JobLockService.Lease stale = lockServiceA.tryAcquire("test-failover", Duration.ofSeconds(2)).orElseThrow();
+        try {
+            assertNull(jobs(nodeB).failover());
+            
+            Thread.sleep(2500);
+            Long token = jobs(nodeB).failover();
+            assertEquals(stale.fencingToken() + 1, token);
+            
+            // The old holder finds out as soon as it tries to extend its lease
+            assertThrows(LockLostException.class, lockServiceA::renew);
+        } finally {
+            lockServiceA.release(stale, Duration.ZERO);
+        }
+        assertFalse(lockServiceA.current().isPresent());
+    }
+    
+    @Test
+    void reentrantCallsKeepTheLease() {
+        JobLockService lockService = nodeA.getBean(JobLockService.class);
+        Long token = jobs(nodeA).fenced();
+        JobLockService.Lease lease = lockService.tryAcquire("test-fencing", Duration.ofMinutes(1)).orElseThrow();
+        try {
+            assertEquals(token + 1, lease.fencingToken());
+            assertEquals(lease.fencingToken(), jobs(nodeA).fenced());
+            assertTrue(lockService.current().isPresent());
+        } finally {
+            lockService.release(lease, Duration.ZERO);
+        }
+    }
+    
+    @Test
+    void nestedJobsKeepTheOuterLease() {
+        JobLockService lockService = nodeA.getBean(JobLockService.class);
+        JobLockService.Lease outer = lockService.tryAcquire("test-outer", Duration.ofMinutes(1)).orElseThrow();
+        try {
+            // The inner job takes and gives up a lease of its own, innermost while it runs
+            assertEquals("test-inner", jobs(nodeA).innermost());
+            
+            assertEquals(outer, lockService.current().orElseThrow());
+            assertEquals(outer, lockService.current("test-outer").orElseThrow());
+            assertTrue(lockService.current("test-inner").isEmpty());
+            lockService.renew();
+        } finally {
+            lockService.release(outer, Duration.ZERO);
+        }
+        assertFalse(lockService.current().isPresent());
+    }
+    
+    private static ConfigurableApplicationContext startNode(String nodeId, String url) {
+        // Passed as arguments, which take precedence over application.properties
+        return new SpringApplicationBuilder(HemisApplication.class, LockedJobs.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        "--scheduler.lock.node-id=" + nodeId,
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=false");
+    }
+    
+    private static LockedJobs jobs(ConfigurableApplicationContext node) {
+        return node.getBean(LockedJobs.class);
+    }
+    
+    private static void runAfter(CountDownLatch start, LockedJobs jobs) {
+        try {
+            start.await();
+            jobs.exclusive();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /** Registered as a bean of both nodes; the lock aspect proxies it like any other job. */
+    public static class LockedJobs {
+        
+        private final AtomicInteger exclusiveRuns = new AtomicInteger();
+        
+        @Autowired
+        private JobLockService jobLockService;
+        
+        /** Held for a minute after it finishes, so a slightly late start on the other node is skipped too. */
+        @SchedulerLock(name = "test-exclusive", lockAtLeastFor = "1m")
+        public void exclusive() throws InterruptedException {
+            exclusiveRuns.incrementAndGet();
+            Thread.sleep(500);
+        }
+        
+        public int exclusiveRuns() {
+            return exclusiveRuns.get();
+        }
+        
+        @SchedulerLock(name = "test-fencing")
+        public Long fenced() {
+            return jobLockService.current().orElseThrow().fencingToken();
+        }
+        
+        @SchedulerLock(name = "test-inner")
+        public String innermost() {
+            return jobLockService.current().orElseThrow().name();
+        }
+        
+        @SchedulerLock(name = "test-failover", lockAtMostFor = "2s")
+        public Long failover() {
+            return jobLockService.current().orElseThrow().fencingToken();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.hemis.security;
+
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The authentication filter's hot path for a bearer token it has already verified (cache hit)
+ * and for tokens it has not (one signature check each). Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=JwtAuthenticationFilterBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+    
+    private static final String SECRET = "benchmarkSecretKeyForTheJwtFilterThatIsAtLeast256BitsLong12345";
+    private static final FilterChain NO_OP = (request, response) -> { };
+    
+    private JwtAuthenticationFilter cachingFilter;
+    private JwtAuthenticationFilter verifyingFilter;
+    private MockHttpServletRequest cachedRequest;
+    private MockHttpServletRequest[] freshRequests;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private int next;
+    
+    @Setup
+    public void setUp() throws Exception {
+        JwtUtil cachingJwtUtil = jwtUtil(10000);
+        // Room for a single entry while the requests cycle through many tokens, so each one misses
+        JwtUtil verifyingJwtUtil = jwtUtil(1);
+        cachingFilter = filter(cachingJwtUtil);
+        verifyingFilter = filter(verifyingJwtUtil);
+        
+        cachedRequest = request(cachingJwtUtil.generateToken("alice", "PHARMACIST"));
+        cachingFilter.doFilter(cachedRequest, response, NO_OP);
+        SecurityContextHolder.clearContext();
+        
+        freshRequests = new MockHttpServletRequest[64];
+        for (int i = 0; i < freshRequests.length; i++) {
+            freshRequests[i] = request(verifyingJwtUtil.generateToken("user" + i, "PHARMACIST"));
+        }
+    }
+    
+    @Benchmark
+    public Object cachedToken() throws Exception {
+        cachingFilter.doFilter(cachedRequest, response, NO_OP);
+        return clearAuthentication();
+    }
+    
+    @Benchmark
+    public Object uncachedToken() throws Exception {
+        next = (next + 1) % freshRequests.length;
+        verifyingFilter.doFilter(freshRequests[next], response, NO_OP);
+        return clearAuthentication();
+    }
+    
+    private static Object clearAuthentication() {
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+    
+    private static JwtUtil jwtUtil(int cacheMaxEntries) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxEntries", cacheMaxEntries);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+    
+    private static JwtAuthenticationFilter filter(JwtUtil jwtUtil) {
+        TokenRevocationList revocations = new TokenRevocationList();
+        ReflectionTestUtils.setField(revocations, "expectedEntries", 100000);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "tokenRevocationList", revocations);
+        return filter;
+    }
+    
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/medicines");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
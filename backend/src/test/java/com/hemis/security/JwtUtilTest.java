@@ -0,0 +1,76 @@
+package com.hemis.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a token's signature is verified once and that repeat requests are served
+ * from the bounded cache.
+ */
+class JwtUtilTest {
+    
+    private static final String SECRET = "testSecretKeyForJwtUtilTestThatIsAtLeast256BitsLong1234567890";
+    
+    private JwtUtil jwtUtil;
+    
+    @BeforeEach
+    void setUp() {
+        jwtUtil = newJwtUtil(900000L, 4);
+    }
+    
+    @Test
+    void repeatVerificationsSkipTheSignatureCheck() {
+        String token = jwtUtil.generateToken("alice", "ADMIN");
+        JwtUtil.VerifiedToken first = jwtUtil.verify(token);
+        assertNotNull(first);
+        
+        // A parser for another key rejects every token, so a hit cannot have re-parsed
+        ReflectionTestUtils.setField(jwtUtil, "parser",
+                Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.replace('t', 'x').getBytes())).build());
+        
+        assertSame(first, jwtUtil.verify(token));
+        assertEquals("alice", first.username());
+        assertEquals("ADMIN", first.role());
+    }
+    
+    @Test
+    void tamperedAndExpiredTokensAreRejected() {
+        String token = jwtUtil.generateToken("alice", "ADMIN");
+        // A character in the middle of the signature carries all six bits, unlike the last one
+        int at = token.lastIndexOf('.') + 10;
+        String tampered = token.substring(0, at) + (token.charAt(at) == 'A' ? 'B' : 'A') + token.substring(at + 1);
+        assertNull(jwtUtil.verify(tampered));
+        
+        String expired = newJwtUtil(-1000L, 4).generateToken("alice", "ADMIN");
+        assertNull(jwtUtil.verify(expired));
+    }
+    
+    @Test
+    void cacheStaysWithinItsBound() {
+        for (int i = 0; i < 20; i++) {
+            assertNotNull(jwtUtil.verify(jwtUtil.generateToken("user" + i, "PHARMACIST")));
+        }
+        Map<?, ?> verified = (Map<?, ?>) ReflectionTestUtils.getField(jwtUtil, "verified");
+        assertTrue(verified.size() <= 4, "cache holds " + verified.size() + " entries");
+    }
+    
+    private static JwtUtil newJwtUtil(long expiration, int cacheMaxEntries) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", expiration);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxEntries", cacheMaxEntries);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
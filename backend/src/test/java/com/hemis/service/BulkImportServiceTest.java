@@ -0,0 +1,62 @@
+package com.hemis.service;
+
+import com.hemis.dto.ImportResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkImportServiceTest {
+    
+    @Autowired
+    private BulkImportService bulkImportService;
+    
+    @Test
+    void failedChunkRejectsOnlyTheOffendingRow() {
+        // Passes bean validation but is too long for the name column, so it fails on insert
+        String tooLong = "x".repeat(300);
+        String csv = "name,category,quantity,unitPrice,expiryDate\n"
+                + "Import A,Test,1,1.0,2030-01-01\n"
+                + "Import B,Test,1,1.0,2030-01-01\n"
+                + tooLong + ",Test,1,1.0,2030-01-01\n"
+                + "Import D,Test,1,1.0,2030-01-01\n";
+        
+        ImportResult result = bulkImportService.importMedicines(stream(csv), "text/csv");
+        
+        assertEquals(4, result.getTotalRows());
+        assertEquals(3, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(3, result.getErrors().get(0).getRow());
+        assertTrue(result.getErrors().get(0).getMessage().toLowerCase().contains("too long"),
+                result.getErrors().get(0).getMessage());
+    }
+    
+    @Test
+    void nonObjectElementsAreReportedAndSkipped() {
+        String json = "[{\"name\":\"Import E\",\"category\":\"Test\",\"quantity\":1,\"unitPrice\":1.0,\"expiryDate\":\"2030-01-01\"},"
+                + "42, [1, 2],"
+                + "{\"name\":\"Import F\",\"category\":\"Test\",\"quantity\":1,\"unitPrice\":1.0,\"expiryDate\":\"2030-01-01\"}]";
+        
+        ImportResult result = bulkImportService.importMedicines(stream(json), "application/json");
+        
+        assertEquals(4, result.getTotalRows());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals("Expected a JSON object but found a number", result.getErrors().get(0).getMessage());
+        assertEquals(3, result.getErrors().get(1).getRow());
+        assertEquals("Expected a JSON object but found an array", result.getErrors().get(1).getMessage());
+    }
+    
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,90 @@
+package com.hemis.service;
+
+import com.hemis.dto.DashboardStats;
+import com.hemis.entity.Medicine;
+import com.hemis.entity.PurchaseOrder;
+import com.hemis.repository.MedicineRepository;
+import com.hemis.repository.PurchaseOrderRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DashboardCountersTest {
+    
+    private static final LocalDate TODAY = LocalDate.of(2026, 1, 1);
+    
+    @Test
+    void resetKeepsWritesMadeWhileItRead() {
+        DashboardCounters counters = new DashboardCounters();
+        counters.reset(TODAY, List.of(), List.of(), 0, List.of());
+        
+        counters.beginReset();
+        // Written after the reset read its (now stale) rows
+        counters.medicineSaved(medicine(1L, 5, TODAY.plusDays(3)));
+        counters.medicineRemoved(2L);
+        counters.orderStatusChanged(10L, PurchaseOrder.OrderStatus.APPROVED);
+        counters.medicineDeactivated(3L);
+        counters.reset(TODAY,
+                List.of(medicineRow(1L, 100, TODAY.plusDays(90)), medicineRow(2L, 100, TODAY.plusDays(90)),
+                        medicineRow(3L, 100, TODAY.plusDays(10))),
+                List.of(), 2, List.of(orderRow(10L, PurchaseOrder.OrderStatus.PENDING)));
+        
+        // medicine 1 low on stock and expiring, 2 gone, 3 no longer expiring, order 10 no longer pending
+        assertEquals(new DashboardStats(2L, 0L, 2L, 1L, 1L, 0L, 0L), counters.snapshot());
+    }
+    
+    @Test
+    void writesAfterTheResetAreAppliedAsDeltas() {
+        DashboardCounters counters = new DashboardCounters();
+        counters.beginReset();
+        counters.reset(TODAY, List.of(medicineRow(1L, 100, TODAY.plusDays(90))), List.of(), 0, List.of());
+        
+        counters.medicineSaved(medicine(1L, 5, TODAY.plusDays(90)));
+        counters.orderStatusChanged(10L, PurchaseOrder.OrderStatus.PENDING);
+        
+        assertEquals(new DashboardStats(1L, 0L, 0L, 1L, 0L, 0L, 1L), counters.snapshot());
+    }
+    
+    private static Medicine medicine(Long id, int quantity, LocalDate expiryDate) {
+        Medicine medicine = new Medicine();
+        medicine.setMedicineId(id);
+        medicine.setQuantity(quantity);
+        medicine.setExpiryDate(expiryDate);
+        return medicine;
+    }
+    
+    private static MedicineRepository.CounterRow medicineRow(Long id, int quantity, LocalDate expiryDate) {
+        return new MedicineRepository.CounterRow() {
+            public Long getId() {
+                return id;
+            }
+            
+            public Integer getQuantity() {
+                return quantity;
+            }
+            
+            public LocalDate getExpiryDate() {
+                return expiryDate;
+            }
+            
+            public Boolean getActive() {
+                return true;
+            }
+        };
+    }
+    
+    private static PurchaseOrderRepository.CounterRow orderRow(Long id, PurchaseOrder.OrderStatus status) {
+        return new PurchaseOrderRepository.CounterRow() {
+            public Long getId() {
+                return id;
+            }
+            
+            public PurchaseOrder.OrderStatus getStatus() {
+                return status;
+            }
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.hemis.service;
+
+import com.hemis.dto.DashboardStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bounds the work behind the dashboard: the aggregate path is a fixed number of
+ * statements that load no entities, and the counter path touches the database not at all.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DashboardServiceTest {
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private DashboardCounters dashboardCounters;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void clearStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+    
+    @Test
+    void aggregatesRunFourStatementsAndLoadNoEntities() {
+        dashboardService.computeStats();
+        
+        // medicine stats, equipment stats, supplier count, pending order count
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+    
+    @Test
+    void seededCountersServeStatsWithoutQueries() {
+        DashboardStats expected = dashboardService.computeStats();
+        dashboardService.seedCounters();
+        statistics.clear();
+        
+        assertEquals(expected, dashboardService.getStats());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void reconciliationReseedsDriftedCounters() {
+        dashboardService.seedCounters();
+        DashboardStats expected = dashboardService.computeStats();
+        dashboardCounters.supplierAdded();
+        
+        dashboardService.reconcileCounters();
+        
+        assertEquals(expected, dashboardService.getStats());
+    }
+}
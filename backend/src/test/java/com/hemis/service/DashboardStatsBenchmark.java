@@ -0,0 +1,138 @@
+package com.hemis.service;
+
+import com.hemis.HemisApplication;
+import com.hemis.dto.DashboardStats;
+import com.hemis.entity.PurchaseOrder;
+import com.hemis.repository.EquipmentRepository;
+import com.hemis.repository.MedicineRepository;
+import com.hemis.repository.PurchaseOrderRepository;
+import com.hemis.repository.SupplierRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard latency as the inventory grows: the aggregate queries, the in-memory counters,
+ * and, for comparison, the original approach of loading the matching entities and counting
+ * them. Each row count boots the application on its own in-memory database. Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=DashboardStatsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardStatsBenchmark {
+    
+    /** Above the seeded data's IDs and the sequences' first blocks. */
+    private static final long FIRST_ID = 1_000_000_000L;
+    
+    @Param({"1000", "10000", "100000"})
+    private int medicines;
+    
+    private ConfigurableApplicationContext context;
+    private DashboardService dashboardService;
+    private MedicineRepository medicineRepository;
+    private EquipmentRepository equipmentRepository;
+    private SupplierRepository supplierRepository;
+    private PurchaseOrderRepository purchaseOrderRepository;
+    private TransactionTemplate readOnly;
+    
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(HemisApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--spring.datasource.url=jdbc:h2:mem:dashboard-benchmark-" + medicines);
+        dashboardService = context.getBean(DashboardService.class);
+        medicineRepository = context.getBean(MedicineRepository.class);
+        equipmentRepository = context.getBean(EquipmentRepository.class);
+        supplierRepository = context.getBean(SupplierRepository.class);
+        purchaseOrderRepository = context.getBean(PurchaseOrderRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        
+        insertRows(context.getBean(JdbcTemplate.class));
+        dashboardService.seedCounters();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public DashboardStats aggregateQueries() {
+        return dashboardService.computeStats();
+    }
+    
+    @Benchmark
+    public DashboardStats counters() {
+        return dashboardService.getStats();
+    }
+    
+    /** What the dashboard did before the aggregate queries. */
+    @Benchmark
+    public DashboardStats entityLoading() {
+        return readOnly.execute(status -> {
+            LocalDate today = LocalDate.now();
+            LocalDate until = today.plusDays(DashboardService.EXPIRY_WINDOW_DAYS);
+            return new DashboardStats(
+                    medicineRepository.count(),
+                    equipmentRepository.count(),
+                    supplierRepository.count(),
+                    (long) medicineRepository.findByQuantityLessThan(DashboardService.LOW_STOCK_THRESHOLD).size(),
+                    (long) medicineRepository.findExpiringBetween(today, until).size(),
+                    (long) equipmentRepository.findMaintenanceDue(
+                            today.plusDays(DashboardService.MAINTENANCE_WINDOW_DAYS)).size(),
+                    (long) purchaseOrderRepository.findByStatus(PurchaseOrder.OrderStatus.PENDING).size());
+        });
+    }
+    
+    /**
+     * Medicines with quantities spread over 0-99 and expiry dates over the next year, so about
+     * half are low on stock and one in twelve expires within the window; one tenth as much
+     * equipment, with maintenance dates spread the same way.
+     */
+    private void insertRows(JdbcTemplate jdbcTemplate) {
+        LocalDate today = LocalDate.now();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> medicineRows = new ArrayList<>(medicines);
+        for (int i = 0; i < medicines; i++) {
+            medicineRows.add(new Object[] {FIRST_ID + i, "Benchmark Medicine " + i, "Category " + (i % 20), i % 100,
+                    1.0, Date.valueOf(today.plusDays(i % 365)), now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO medicines (medicine_id, name, category, quantity, unit_price, " +
+                "expiry_date, active, created_at, version) VALUES (?, ?, ?, ?, ?, ?, TRUE, ?, 0)", medicineRows);
+        
+        List<Object[]> equipmentRows = new ArrayList<>(medicines / 10);
+        for (int i = 0; i < medicines / 10; i++) {
+            equipmentRows.add(new Object[] {FIRST_ID + i, "Benchmark Equipment " + i, "Category " + (i % 20),
+                    Date.valueOf(today.plusDays(i % 365)), now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO equipment (equipment_id, name, category, status, " +
+                "next_maintenance_date, active, created_at) VALUES (?, ?, ?, 'OPERATIONAL', ?, TRUE, ?)", equipmentRows);
+    }
+}
@@ -0,0 +1,34 @@
+package com.hemis.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ExpiryCheckServiceTest {
+    
+    @Autowired
+    private ExpiryCheckService expiryCheckService;
+    
+    @Autowired
+    private JobLockService jobLockService;
+    
+    @Test
+    void leaseHeldElsewhereRefusesTheRun() throws Exception {
+        // Taken on another thread, standing in for another node
+        JobLockService.Lease lease = CompletableFuture.supplyAsync(() ->
+                jobLockService.tryAcquire("expiry-check", Duration.ofMinutes(1)).orElseThrow()).get();
+        try {
+            assertThrows(JobAlreadyRunningException.class, expiryCheckService::runCheck);
+        } finally {
+            jobLockService.release(lease, Duration.ZERO);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.hemis.service;
+
+import com.hemis.repository.OrderNumberBlockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderNumberAllocatorTest {
+    
+    @Autowired
+    private OrderNumberBlockRepository orderNumberBlockRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void nodesSharingTheDatabaseNeverIssueTheSameNumber() throws Exception {
+        // Years of their own, so other tests' order numbers do not interleave
+        LocalDate day = LocalDate.of(2901, 6, 1);
+        List<OrderNumberAllocator> nodes = List.of(node(5), node(5), node(7));
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 200;
+        
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                OrderNumberAllocator node = nodes.get(t % nodes.size());
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        issued.add(node.nextOrderNumber(day));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        
+        assertEquals(threads * perThread, issued.size());
+    }
+    
+    @Test
+    void numbersRestartWhenTheYearRollsOver() {
+        OrderNumberAllocator node = node(50);
+        
+        assertEquals("PO-2902-000001", node.nextOrderNumber(LocalDate.of(2902, 12, 31)));
+        assertEquals("PO-2902-000002", node.nextOrderNumber(LocalDate.of(2902, 12, 31)));
+        assertEquals("PO-2903-000001", node.nextOrderNumber(LocalDate.of(2903, 1, 1)));
+        assertEquals("PO-2903-000002", node.nextOrderNumber(LocalDate.of(2903, 1, 1)));
+    }
+    
+    /** Another node: its own in-memory block over the shared table. */
+    private OrderNumberAllocator node(int blockSize) {
+        OrderNumberAllocator node = new OrderNumberAllocator();
+        ReflectionTestUtils.setField(node, "blockSize", blockSize);
+        ReflectionTestUtils.setField(node, "orderNumberBlockRepository", orderNumberBlockRepository);
+        ReflectionTestUtils.setField(node, "transactionManager", transactionManager);
+        return node;
+    }
+}
@@ -0,0 +1,79 @@
+package com.hemis.service;
+
+import com.hemis.dto.ReorderSuggestion;
+import com.hemis.entity.Medicine;
+import com.hemis.entity.PurchaseOrder;
+import com.hemis.entity.Supplier;
+import com.hemis.repository.MedicineRepository;
+import com.hemis.repository.PurchaseOrderRepository;
+import com.hemis.repository.SupplierRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReorderServiceTest {
+    
+    @Autowired
+    private ReorderService reorderService;
+    
+    @Autowired
+    private StockService stockService;
+    
+    @Autowired
+    private MedicineRepository medicineRepository;
+    
+    @Autowired
+    private SupplierRepository supplierRepository;
+    
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+    
+    @Test
+    void openOrdersCountOnlyForTheirOwnCategory() {
+        String name = "Reorder Saline " + System.nanoTime();
+        Supplier supplier = supplierRepository.findAll().get(0);
+        stockService.dispense(createBatch(name, "IV Fluids", supplier), 50, "test");
+        stockService.dispense(createBatch(name, "Irrigation", supplier), 50, "test");
+        purchaseOrderRepository.save(openOrder(name.toUpperCase(), " iv fluids", supplier, 1000));
+        
+        List<ReorderSuggestion> suggestions = reorderService.suggest().stream()
+                .filter(s -> s.getName().equals(name))
+                .toList();
+        
+        // The IV order covers IV stock only; irrigation stock is still short
+        assertEquals(List.of("Irrigation"), suggestions.stream().map(ReorderSuggestion::getCategory).toList());
+        assertEquals(0, suggestions.get(0).getOnOrder());
+    }
+    
+    private Long createBatch(String name, String category, Supplier supplier) {
+        Medicine medicine = new Medicine();
+        medicine.setName(name);
+        medicine.setCategory(category);
+        medicine.setQuantity(60);
+        medicine.setUnitPrice(1.0);
+        medicine.setExpiryDate(LocalDate.now().plusYears(1));
+        medicine.setSupplier(supplier);
+        return medicineRepository.save(medicine).getMedicineId();
+    }
+    
+    private static PurchaseOrder openOrder(String itemName, String itemCategory, Supplier supplier, int quantity) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber("PO-REORDER-" + System.nanoTime());
+        order.setSupplier(supplier);
+        order.setItemType(PurchaseOrder.ItemType.MEDICINE);
+        order.setItemName(itemName);
+        order.setItemCategory(itemCategory);
+        order.setQuantity(quantity);
+        order.setUnitPrice(1.0);
+        order.setOrderDate(LocalDate.now());
+        return order;
+    }
+}
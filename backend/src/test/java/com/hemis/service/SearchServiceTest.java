@@ -0,0 +1,31 @@
+package com.hemis.service;
+
+import com.hemis.entity.Medicine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SearchServiceTest {
+    
+    @Autowired
+    private SearchService searchService;
+    
+    @Test
+    void midWordMatchesOfShortQueriesComeFromTheDatabase() {
+        // "ce" only occurs mid-word, where the trigram index has no two-character trigrams
+        assertTrue(names(searchService.searchMedicines("ce", 100)).contains("Paracetamol 500mg"));
+        assertEquals("Paracetamol 500mg", names(searchService.searchMedicines("cetamol", 10)).get(0));
+    }
+    
+    private static List<String> names(List<Medicine> medicines) {
+        return medicines.stream().map(Medicine::getName).toList();
+    }
+}
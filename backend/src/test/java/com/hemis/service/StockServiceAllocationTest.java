@@ -0,0 +1,82 @@
+package com.hemis.service;
+
+import com.hemis.dto.Allocation;
+import com.hemis.dto.AllocationRequest;
+import com.hemis.entity.Medicine;
+import com.hemis.repository.MedicineRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockServiceAllocationTest {
+    
+    private static final LocalDate TODAY = LocalDate.now();
+    
+    @Autowired
+    private StockService stockService;
+    
+    @Autowired
+    private MedicineRepository medicineRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void allocatesEarliestExpiryFirst() {
+        String name = "Fefo Order " + System.nanoTime();
+        Long late = createBatch(name, 5, TODAY.plusDays(30));
+        Long early = createBatch(name, 5, TODAY.plusDays(10));
+        Long middle = createBatch(name, 5, TODAY.plusDays(20));
+        createBatch(name, 5, TODAY.minusDays(1));
+        
+        Allocation allocation = stockService.allocate(request(name, 7));
+        
+        assertEquals(List.of(early, middle), allocation.getLines().stream().map(Allocation.Line::getMedicineId).toList());
+        assertEquals(List.of(5, 2), allocation.getLines().stream().map(Allocation.Line::getQuantity).toList());
+        assertEquals(5, medicineRepository.findById(late).orElseThrow().getQuantity());
+    }
+    
+    @Test
+    void batchMissingFromTheIndexIsStillUsedFirst() {
+        String name = "Fefo Missed " + System.nanoTime();
+        Long indexed = createBatch(name, 10, TODAY.plusDays(30));
+        // Written behind the index's back, as if received on another node; the ID is far
+        // above anything this node's sequence pool hands out
+        Long unindexed = 1_000_000_000L + indexed;
+        jdbcTemplate.update("INSERT INTO medicines (medicine_id, name, category, quantity, unit_price, expiry_date, "
+                + "active, created_at, version) VALUES (?, ?, 'Test', 4, 1.0, ?, TRUE, CURRENT_TIMESTAMP, 0)",
+                unindexed, name, TODAY.plusDays(5));
+        
+        Allocation allocation = stockService.allocate(request(name, 6));
+        
+        assertEquals(List.of(unindexed, indexed), allocation.getLines().stream().map(Allocation.Line::getMedicineId).toList());
+        assertEquals(List.of(4, 2), allocation.getLines().stream().map(Allocation.Line::getQuantity).toList());
+    }
+    
+    private Long createBatch(String name, int quantity, LocalDate expiryDate) {
+        Medicine medicine = new Medicine();
+        medicine.setName(name);
+        medicine.setCategory("Test");
+        medicine.setQuantity(quantity);
+        medicine.setUnitPrice(1.0);
+        medicine.setExpiryDate(expiryDate);
+        return medicineRepository.save(medicine).getMedicineId();
+    }
+    
+    private static AllocationRequest request(String name, int quantity) {
+        AllocationRequest request = new AllocationRequest();
+        request.setName(name);
+        request.setCategory("Test");
+        request.setQuantity(quantity);
+        return request;
+    }
+}
@@ -0,0 +1,156 @@
+package com.hemis.service;
+
+import com.hemis.dto.BatchStockRequest;
+import com.hemis.entity.Medicine;
+import com.hemis.entity.StockMovement;
+import com.hemis.entity.StockMovement.MovementType;
+import com.hemis.repository.MedicineRepository;
+import com.hemis.repository.StockMovementRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers one medicine from many threads and checks that the conditional updates neither
+ * drive its quantity negative nor lose a change.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StockServiceConcurrencyTest {
+    
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+    
+    @Autowired
+    private StockService stockService;
+    
+    @Autowired
+    private MedicineRepository medicineRepository;
+    
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+    
+    @Test
+    void concurrentDispensesNeverOversell() throws Exception {
+        int initial = 150;
+        Long medicineId = createMedicine(initial);
+        AtomicInteger dispensed = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        
+        runConcurrently(() -> {
+            try {
+                int left = stockService.dispense(medicineId, 1, "stress").getQuantity();
+                assertTrue(left >= 0, "Quantity went negative: " + left);
+                dispensed.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                refused.incrementAndGet();
+            }
+        });
+        
+        assertEquals(initial, dispensed.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - initial, refused.get());
+        assertEquals(0, quantity(medicineId));
+        assertEquals(initial, movements(medicineId, MovementType.DISPENSE));
+    }
+    
+    @Test
+    void concurrentDispensesAndReceiptsLoseNoUpdate() throws Exception {
+        int initial = 1000;
+        Long medicineId = createMedicine(initial);
+        AtomicInteger dispensed = new AtomicInteger();
+        AtomicInteger received = new AtomicInteger();
+        AtomicInteger turn = new AtomicInteger();
+        
+        runConcurrently(() -> {
+            if (turn.getAndIncrement() % 3 == 0) {
+                stockService.receive(medicineId, 2, "stress");
+                received.addAndGet(2);
+            } else {
+                stockService.dispense(medicineId, 3, "stress");
+                dispensed.addAndGet(3);
+            }
+        });
+        
+        assertEquals(initial + received.get() - dispensed.get(), quantity(medicineId));
+        assertEquals(dispensed.get() / 3, movements(medicineId, MovementType.DISPENSE));
+        assertEquals(received.get() / 2, movements(medicineId, MovementType.RECEIVE));
+    }
+    
+    @Test
+    void batchTotalsThatOverflowAreRejected() {
+        Long medicineId = createMedicine(10);
+        BatchStockRequest request = new BatchStockRequest();
+        request.setLines(List.of(line(medicineId, Integer.MAX_VALUE), line(medicineId, 1)));
+        
+        assertThrows(IllegalArgumentException.class, () -> stockService.applyBatch(MovementType.RECEIVE, request));
+        assertEquals(10, quantity(medicineId));
+    }
+    
+    private void runConcurrently(Runnable attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        attempt.run();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                // Rethrows any failed assertion or unexpected exception from the worker
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private Long createMedicine(int quantity) {
+        Medicine medicine = new Medicine();
+        medicine.setName("Stress Test " + System.nanoTime());
+        medicine.setCategory("Test");
+        medicine.setQuantity(quantity);
+        medicine.setUnitPrice(1.0);
+        medicine.setExpiryDate(LocalDate.now().plusYears(1));
+        return medicineRepository.save(medicine).getMedicineId();
+    }
+    
+    private int quantity(Long medicineId) {
+        return medicineRepository.findById(medicineId).orElseThrow().getQuantity();
+    }
+    
+    private long movements(Long medicineId, MovementType type) {
+        return stockMovementRepository.findAll().stream()
+                .filter(movement -> movement.getMedicine().getMedicineId().equals(medicineId))
+                .map(StockMovement::getType)
+                .filter(type::equals)
+                .count();
+    }
+    
+    private static BatchStockRequest.Line line(Long medicineId, int quantity) {
+        BatchStockRequest.Line line = new BatchStockRequest.Line();
+        line.setMedicineId(medicineId);
+        line.setQuantity(quantity);
+        return line;
+    }
+}
@@ -0,0 +1,92 @@
+package com.hemis.service;
+
+import com.hemis.dto.SupplierStats;
+import com.hemis.entity.PurchaseOrder;
+import com.hemis.entity.PurchaseOrder.OrderStatus;
+import com.hemis.entity.Supplier;
+import com.hemis.repository.PurchaseOrderRepository;
+import com.hemis.repository.SupplierRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The rollup table behind the reads: deltas reach it on flush, writes by other nodes show
+ * up on every node, and the rebuild and rewrite correct drift from the purchase orders.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SupplierStatsServiceTest {
+    
+    @Autowired
+    private SupplierStatsService supplierStatsService;
+    
+    @Autowired
+    private SupplierRepository supplierRepository;
+    
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void readsFollowTheSharedTable() {
+        Supplier supplier = new Supplier();
+        supplier.setName("Stats Supplier");
+        Long supplierId = supplierRepository.save(supplier).getSupplierId();
+        LocalDate today = LocalDate.now();
+        
+        PurchaseOrder delivered = purchaseOrderRepository.save(order(supplier, today, 100.0));
+        purchaseOrderRepository.save(order(supplier, today, 40.0));
+        // Not flushed yet, so no node sees the orders
+        assertEquals(0L, supplierStatsService.getStats(supplierId, 1).orElseThrow().getOrderCount());
+        
+        supplierStatsService.flush();
+        assertStats(supplierStatsService.getStats(supplierId, 1).orElseThrow(), 2L, 140.0, 0L);
+        
+        delivered.setStatus(OrderStatus.DELIVERED);
+        delivered.setDeliveryDate(today);
+        purchaseOrderRepository.save(delivered);
+        supplierStatsService.flush();
+        assertStats(supplierStatsService.getStats(supplierId, 1).orElseThrow(), 2L, 140.0, 1L);
+        
+        // Another node's flush is read here too
+        jdbcTemplate.update("UPDATE supplier_monthly_stats SET order_count = order_count + 1, " +
+                "total_spend = total_spend + 10 WHERE supplier_id = ?", supplierId);
+        assertStats(supplierStatsService.getStats(supplierId, 1).orElseThrow(), 3L, 150.0, 1L);
+        assertEquals(150.0, supplierStatsService.rank(SupplierStatsService.RankBy.SPEND, 1, 100).stream()
+                .filter(r -> r.getSupplierId().equals(supplierId)).findFirst().orElseThrow().getTotalSpend(), 0.001);
+        
+        // That change has no order behind it, so the rebuild and rewrite take it back out
+        supplierStatsService.rebuild();
+        supplierStatsService.rewriteTable();
+        assertStats(supplierStatsService.getStats(supplierId, 1).orElseThrow(), 2L, 140.0, 1L);
+    }
+    
+    private static void assertStats(SupplierStats stats, Long orders, Double spend, Long delivered) {
+        assertEquals(orders, stats.getOrderCount());
+        assertEquals(spend, stats.getTotalSpend(), 0.001);
+        assertEquals(delivered, stats.getDeliveredCount());
+    }
+    
+    private static PurchaseOrder order(Supplier supplier, LocalDate orderDate, double totalAmount) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber("PO-STATS-" + UUID.randomUUID());
+        order.setSupplier(supplier);
+        order.setItemType(PurchaseOrder.ItemType.SUPPLIES);
+        order.setItemName("Gauze");
+        order.setQuantity(1);
+        order.setUnitPrice(totalAmount);
+        order.setTotalAmount(totalAmount);
+        order.setOrderDate(orderDate);
+        return order;
+    }
+}
@@ -0,0 +1,18 @@
+import { Button } from '@/components/ui/button';
+
+interface LoadMoreButtonProps {
+  hasMore: boolean;
+  loading: boolean;
+  onLoadMore: () => void;
+}
+
+export default function LoadMoreButton({ hasMore, loading, onLoadMore }: LoadMoreButtonProps) {
+  if (!hasMore) return null;
+  return (
+    <div className="flex justify-center pt-4">
+      <Button type="button" variant="outline" onClick={onLoadMore} disabled={loading}>
+        {loading ? 'Loading...' : 'Load more'}
+      </Button>
+    </div>
+  );
+}
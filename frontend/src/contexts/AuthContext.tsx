@@ -35,6 +35,7 @@ export const AuthProvider: React.FC<{ children: ReactNode }> = ({
       );
       const userData = response.data;
       localStorage.setItem("token", userData.token);
+      localStorage.setItem("refreshToken", userData.refreshToken);
       localStorage.setItem("user", JSON.stringify(userData));
       setUser(userData);
       navigate("/dashboard");
@@ -45,7 +46,14 @@ export const AuthProvider: React.FC<{ children: ReactNode }> = ({
   };
 
   const logout = () => {
+    const refreshToken = localStorage.getItem("refreshToken");
+    if (refreshToken) {
+      axiosInstance
+        .post("/api/auth/logout", { refreshToken })
+        .catch(() => undefined);
+    }
     localStorage.removeItem("token");
+    localStorage.removeItem("refreshToken");
     localStorage.removeItem("user");
     setUser(null);
     navigate("/login");
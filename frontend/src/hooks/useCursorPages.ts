@@ -0,0 +1,36 @@
+import { useCallback, useState } from 'react';
+import type { AxiosResponse } from 'axios';
+import type { CursorPage } from '@/types';
+
+// A keyset-paginated list: the pages loaded so far and the cursor of the next one.
+// fetchPage must be stable across renders, e.g. a function from the api module.
+export function useCursorPages<T>(
+  fetchPage: (cursor?: string) => Promise<AxiosResponse<CursorPage<T>>>
+) {
+  const [items, setItems] = useState<T[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | undefined>();
+  const [loadingMore, setLoadingMore] = useState(false);
+
+  // Starts over from the first page, e.g. after a create, update or delete
+  const reload = useCallback(async () => {
+    const response = await fetchPage();
+    setItems(response.data.items);
+    setNextCursor(response.data.hasMore ? response.data.nextCursor : undefined);
+  }, [fetchPage]);
+
+  const loadMore = useCallback(async () => {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    try {
+      const response = await fetchPage(nextCursor);
+      setItems((loaded) => [...loaded, ...response.data.items]);
+      setNextCursor(response.data.hasMore ? response.data.nextCursor : undefined);
+    } catch (error) {
+      console.error('Failed to load more:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  }, [fetchPage, nextCursor]);
+
+  return { items, hasMore: nextCursor !== undefined, loadingMore, reload, loadMore };
+}
@@ -1,4 +1,5 @@
 import axios from 'axios';
+import type { AxiosRequestConfig } from 'axios';
 
 const API_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080';
 
@@ -22,13 +23,53 @@ axiosInstance.interceptors.request.use(
   }
 );
 
+const clearSession = () => {
+  localStorage.removeItem('token');
+  localStorage.removeItem('refreshToken');
+  localStorage.removeItem('user');
+  window.location.href = '/login';
+};
+
+// Concurrent 401s share one refresh call, since each refresh token can only be used once
+let refreshing: Promise<string> | null = null;
+
+const refreshAccessToken = (): Promise<string> => {
+  if (!refreshing) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    refreshing = (refreshToken
+      ? axios
+          .post(`${API_URL}/api/auth/refresh`, { refreshToken })
+          .then((response) => {
+            const data = response.data;
+            localStorage.setItem('token', data.token);
+            localStorage.setItem('refreshToken', data.refreshToken);
+            localStorage.setItem('user', JSON.stringify(data));
+            return data.token as string;
+          })
+      : Promise.reject(new Error('No refresh token'))
+    ).finally(() => {
+      refreshing = null;
+    });
+  }
+  return refreshing;
+};
+
 axiosInstance.interceptors.response.use(
   (response) => response,
-  (error) => {
-    if (error.response?.status === 401) {
-      localStorage.removeItem('token');
-      localStorage.removeItem('user');
-      window.location.href = '/login';
+  async (error) => {
+    const original = error.config as AxiosRequestConfig & { _retried?: boolean };
+    if (error.response?.status === 401 && original && !original._retried
+        && !original.url?.startsWith('/api/auth/')) {
+      original._retried = true;
+      try {
+        const token = await refreshAccessToken();
+        original.headers = { ...original.headers, Authorization: `Bearer ${token}` };
+        return axiosInstance(original);
+      } catch {
+        clearSession();
+      }
+    } else if (error.response?.status === 401) {
+      clearSession();
     }
     return Promise.reject(error);
   }
@@ -1,8 +1,10 @@
 import { useEffect, useState } from 'react';
 import { useAuth } from '@/contexts/AuthContext';
 import { api } from '@/services/api';
+import { useCursorPages } from '@/hooks/useCursorPages';
 import { Equipment, Supplier } from '@/types';
 import { Button } from '@/components/ui/button';
+import LoadMoreButton from '@/components/LoadMoreButton';
 import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card';
 import { Table, TableBody, TableCell, TableHead, TableHeader, TableRow } from '@/components/ui/table';
 import { Dialog, DialogContent, DialogHeader, DialogTitle, DialogTrigger } from '@/components/ui/dialog';
@@ -14,7 +16,13 @@ import { format } from 'date-fns';
 
 export default function EquipmentPage() {
   const { user } = useAuth();
-  const [equipment, setEquipment] = useState<Equipment[]>([]);
+  const {
+    items: equipment,
+    hasMore,
+    loadingMore,
+    reload: reloadEquipment,
+    loadMore,
+  } = useCursorPages(api.getEquipment);
   const [suppliers, setSuppliers] = useState<Supplier[]>([]);
   const [loading, setLoading] = useState(true);
   const [dialogOpen, setDialogOpen] = useState(false);
@@ -37,11 +45,10 @@ export default function EquipmentPage() {
 
   const loadData = async () => {
     try {
-      const [equipmentRes, suppliersRes] = await Promise.all([
-        api.getEquipment(),
+      const [, suppliersRes] = await Promise.all([
+        reloadEquipment(),
         api.getSuppliers(),
       ]);
-      setEquipment(equipmentRes.data);
       setSuppliers(suppliersRes.data);
     } catch (error) {
       console.error('Failed to load data:', error);
@@ -333,6 +340,7 @@ export default function EquipmentPage() {
               )}
             </TableBody>
           </Table>
+          <LoadMoreButton hasMore={hasMore} loading={loadingMore} onLoadMore={loadMore} />
         </CardContent>
       </Card>
     </div>
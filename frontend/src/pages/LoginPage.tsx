@@ -1,4 +1,5 @@
 import { useState } from "react";
+import axios from "axios";
 import { useAuth } from "@/contexts/AuthContext";
 import { Button } from "@/components/ui/button";
 import { Input } from "@/components/ui/input";
@@ -28,7 +29,14 @@ export default function LoginPage() {
     try {
       await login({ username, password });
     } catch (error) {
-      setError("Invalid username or password");
+      if (axios.isAxiosError(error) && error.response?.status === 429) {
+        const retryAfter = error.response.headers["retry-after"];
+        setError(
+          `Too many login attempts. Try again in ${retryAfter ?? "a few"} seconds.`
+        );
+      } else {
+        setError("Invalid username or password");
+      }
       console.log(error);
     } finally {
       setLoading(false);
@@ -1,8 +1,10 @@
 import { useEffect, useState } from 'react';
 import { useAuth } from '@/contexts/AuthContext';
 import { api } from '@/services/api';
+import { useCursorPages } from '@/hooks/useCursorPages';
 import { MaintenanceRecord, Equipment } from '@/types';
 import { Button } from '@/components/ui/button';
+import LoadMoreButton from '@/components/LoadMoreButton';
 import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card';
 import { Table, TableBody, TableCell, TableHead, TableHeader, TableRow } from '@/components/ui/table';
 import { Dialog, DialogContent, DialogHeader, DialogTitle, DialogTrigger } from '@/components/ui/dialog';
@@ -15,8 +17,14 @@ import { format } from 'date-fns';
 
 export default function MaintenancePage() {
   const { user } = useAuth();
-  const [records, setRecords] = useState<MaintenanceRecord[]>([]);
-  const [equipment, setEquipment] = useState<Equipment[]>([]);
+  const {
+    items: records,
+    hasMore,
+    loadingMore,
+    reload: reloadRecords,
+    loadMore,
+  } = useCursorPages(api.getMaintenanceRecords);
+  const equipmentPages = useCursorPages(api.getEquipment);
   const [loading, setLoading] = useState(true);
   const [dialogOpen, setDialogOpen] = useState(false);
   const [editingRecord, setEditingRecord] = useState<MaintenanceRecord | null>(null);
@@ -34,12 +42,7 @@ export default function MaintenancePage() {
 
   const loadData = async () => {
     try {
-      const [recordsRes, equipmentRes] = await Promise.all([
-        api.getMaintenanceRecords(),
-        api.getEquipment(),
-      ]);
-      setRecords(recordsRes.data);
-      setEquipment(equipmentRes.data);
+      await Promise.all([reloadRecords(), equipmentPages.reload()]);
     } catch (error) {
       console.error('Failed to load data:', error);
     } finally {
@@ -47,6 +50,13 @@ export default function MaintenancePage() {
     }
   };
 
+  // The record being edited may refer to equipment on a page not loaded yet
+  const editingEquipment = editingRecord?.equipment;
+  const equipment: Equipment[] =
+    editingEquipment && !equipmentPages.items.some(eq => eq.equipmentId === editingEquipment.equipmentId)
+      ? [editingEquipment, ...equipmentPages.items]
+      : equipmentPages.items;
+
   const handleSubmit = async (e: React.FormEvent) => {
     e.preventDefault();
     try {
@@ -158,6 +168,11 @@ export default function MaintenancePage() {
                       ))}
                     </SelectContent>
                   </Select>
+                  <LoadMoreButton
+                    hasMore={equipmentPages.hasMore}
+                    loading={equipmentPages.loadingMore}
+                    onLoadMore={equipmentPages.loadMore}
+                  />
                 </div>
                 <div className="space-y-2">
                   <Label htmlFor="type">Type *</Label>
@@ -312,6 +327,7 @@ export default function MaintenancePage() {
               )}
             </TableBody>
           </Table>
+          <LoadMoreButton hasMore={hasMore} loading={loadingMore} onLoadMore={loadMore} />
         </CardContent>
       </Card>
     </div>
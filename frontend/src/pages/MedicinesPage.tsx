@@ -1,8 +1,10 @@
 import { useEffect, useState } from 'react';
 import { useAuth } from '@/contexts/AuthContext';
 import { api } from '@/services/api';
+import { useCursorPages } from '@/hooks/useCursorPages';
 import { Medicine, Supplier } from '@/types';
 import { Button } from '@/components/ui/button';
+import LoadMoreButton from '@/components/LoadMoreButton';
 import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card';
 import { Table, TableBody, TableCell, TableHead, TableHeader, TableRow } from '@/components/ui/table';
 import { Dialog, DialogContent, DialogHeader, DialogTitle, DialogTrigger } from '@/components/ui/dialog';
@@ -14,7 +16,13 @@ import { format } from 'date-fns';
 
 export default function MedicinesPage() {
   const { user } = useAuth();
-  const [medicines, setMedicines] = useState<Medicine[]>([]);
+  const {
+    items: medicines,
+    hasMore,
+    loadingMore,
+    reload: reloadMedicines,
+    loadMore,
+  } = useCursorPages(api.getMedicines);
   const [suppliers, setSuppliers] = useState<Supplier[]>([]);
   const [loading, setLoading] = useState(true);
   const [dialogOpen, setDialogOpen] = useState(false);
@@ -37,11 +45,10 @@ export default function MedicinesPage() {
 
   const loadData = async () => {
     try {
-      const [medicinesRes, suppliersRes] = await Promise.all([
-        api.getMedicines(),
+      const [, suppliersRes] = await Promise.all([
+        reloadMedicines(),
         api.getSuppliers(),
       ]);
-      setMedicines(medicinesRes.data);
       setSuppliers(suppliersRes.data);
     } catch (error) {
       console.error('Failed to load data:', error);
@@ -309,6 +316,7 @@ export default function MedicinesPage() {
               )}
             </TableBody>
           </Table>
+          <LoadMoreButton hasMore={hasMore} loading={loadingMore} onLoadMore={loadMore} />
         </CardContent>
       </Card>
     </div>
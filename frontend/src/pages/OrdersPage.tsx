@@ -1,8 +1,10 @@
 import { useEffect, useState } from 'react';
 import { useAuth } from '@/contexts/AuthContext';
 import { api } from '@/services/api';
+import { useCursorPages } from '@/hooks/useCursorPages';
 import { PurchaseOrder, Supplier } from '@/types';
 import { Button } from '@/components/ui/button';
+import LoadMoreButton from '@/components/LoadMoreButton';
 import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card';
 import { Table, TableBody, TableCell, TableHead, TableHeader, TableRow } from '@/components/ui/table';
 import { Dialog, DialogContent, DialogHeader, DialogTitle, DialogTrigger } from '@/components/ui/dialog';
@@ -14,7 +16,13 @@ import { format } from 'date-fns';
 
 export default function OrdersPage() {
   const { user } = useAuth();
-  const [orders, setOrders] = useState<PurchaseOrder[]>([]);
+  const {
+    items: orders,
+    hasMore,
+    loadingMore,
+    reload: reloadOrders,
+    loadMore,
+  } = useCursorPages(api.getOrders);
   const [suppliers, setSuppliers] = useState<Supplier[]>([]);
   const [loading, setLoading] = useState(true);
   const [dialogOpen, setDialogOpen] = useState(false);
@@ -33,11 +41,10 @@ export default function OrdersPage() {
 
   const loadData = async () => {
     try {
-      const [ordersRes, suppliersRes] = await Promise.all([
-        api.getOrders(),
+      const [, suppliersRes] = await Promise.all([
+        reloadOrders(),
         api.getSuppliers(),
       ]);
-      setOrders(ordersRes.data);
       setSuppliers(suppliersRes.data);
     } catch (error) {
       console.error('Failed to load data:', error);
@@ -320,6 +327,7 @@ export default function OrdersPage() {
               )}
             </TableBody>
           </Table>
+          <LoadMoreButton hasMore={hasMore} loading={loadingMore} onLoadMore={loadMore} />
         </CardContent>
       </Card>
     </div>
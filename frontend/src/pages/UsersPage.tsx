@@ -1,7 +1,9 @@
 import { useEffect, useState } from 'react';
 import { useAuth } from '@/contexts/AuthContext';
 import { api } from '@/services/api';
+import { useCursorPages } from '@/hooks/useCursorPages';
 import { Button } from '@/components/ui/button';
+import LoadMoreButton from '@/components/LoadMoreButton';
 import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card';
 import { Table, TableBody, TableCell, TableHead, TableHeader, TableRow } from '@/components/ui/table';
 import { Dialog, DialogContent, DialogHeader, DialogTitle, DialogTrigger } from '@/components/ui/dialog';
@@ -23,7 +25,13 @@ interface User {
 
 export default function UsersPage() {
   const { user: currentUser } = useAuth();
-  const [users, setUsers] = useState<User[]>([]);
+  const {
+    items: users,
+    hasMore,
+    loadingMore,
+    reload: reloadUsers,
+    loadMore,
+  } = useCursorPages<User>(api.getUsers);
   const [loading, setLoading] = useState(true);
   const [dialogOpen, setDialogOpen] = useState(false);
   const [editingUser, setEditingUser] = useState<User | null>(null);
@@ -43,8 +51,7 @@ export default function UsersPage() {
 
   const loadUsers = async () => {
     try {
-      const response = await api.getUsers();
-      setUsers(response.data);
+      await reloadUsers();
     } catch (error) {
       console.error('Failed to load users:', error);
       alert('Failed to load users. Please check your permissions.');
@@ -317,6 +324,7 @@ export default function UsersPage() {
               )}
             </TableBody>
           </Table>
+          <LoadMoreButton hasMore={hasMore} loading={loadingMore} onLoadMore={loadMore} />
         </CardContent>
       </Card>
     </div>
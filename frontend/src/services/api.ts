@@ -1,20 +1,35 @@
 import axiosInstance from "@/lib/axios";
 import type {
   Medicine,
+  StockLevel,
   Equipment,
   Supplier,
+  SupplierStats,
+  SupplierRanking,
   PurchaseOrder,
+  OrderTransitionResult,
+  ReorderSuggestion,
   MaintenanceRecord,
+  ReliabilityStats,
+  ExpiryAlert,
+  ExpiryCheckResult,
   DashboardStats,
+  Page,
+  CursorPage,
 } from "@/types";
 
+// List endpoints are keyset-paginated; pass the previous page's nextCursor to get the next one.
+const getPage = <T>(url: string, cursor?: string, size = 50) =>
+  axiosInstance.get<CursorPage<T>>(url, { params: { cursor, size } });
+
 export const api = {
   // Dashboard
   getDashboardStats: () =>
     axiosInstance.get<DashboardStats>("/api/dashboard/stats"),
 
   // Medicines
-  getMedicines: () => axiosInstance.get<Medicine[]>("/api/medicines"),
+  getMedicines: (cursor?: string, size?: number) =>
+    getPage<Medicine>("/api/medicines", cursor, size),
   getMedicine: (id: number) =>
     axiosInstance.get<Medicine>(`/api/medicines/${id}`),
   createMedicine: (data: Medicine) =>
@@ -22,15 +37,38 @@ export const api = {
   updateMedicine: (id: number, data: Medicine) =>
     axiosInstance.put<Medicine>(`/api/medicines/${id}`, data),
   deleteMedicine: (id: number) => axiosInstance.delete(`/api/medicines/${id}`),
+  dispenseMedicine: (id: number, quantity: number, reference?: string) =>
+    axiosInstance.post<StockLevel>(`/api/medicines/${id}/dispense`, {
+      quantity,
+      reference,
+    }),
+  receiveMedicine: (id: number, quantity: number, reference?: string) =>
+    axiosInstance.post<StockLevel>(`/api/medicines/${id}/receive`, {
+      quantity,
+      reference,
+    }),
   getLowStockMedicines: (threshold = 50) =>
     axiosInstance.get<Medicine[]>(
       `/api/medicines/low-stock?threshold=${threshold}`
     ),
-  getExpiringMedicines: (days = 30) =>
-    axiosInstance.get<Medicine[]>(`/api/medicines/expiring?days=${days}`),
+  getExpiringMedicines: (days = 30, page = 0, size = 50) =>
+    axiosInstance.get<Page<Medicine>>(
+      `/api/medicines/expiring?days=${days}&page=${page}&size=${size}`
+    ),
+  getExpiredMedicines: (page = 0, size = 50) =>
+    axiosInstance.get<Page<Medicine>>(
+      `/api/medicines/expired?page=${page}&size=${size}`
+    ),
+  getExpiryAlerts: (type?: "EXPIRED" | "EXPIRING", cursor?: string, size = 50) =>
+    axiosInstance.get<CursorPage<ExpiryAlert>>("/api/medicines/expiry-alerts", {
+      params: { type, cursor, size },
+    }),
+  runExpiryCheck: () =>
+    axiosInstance.post<ExpiryCheckResult>("/api/medicines/expiry-check"),
 
   // Equipment
-  getEquipment: () => axiosInstance.get<Equipment[]>("/api/equipment"),
+  getEquipment: (cursor?: string, size?: number) =>
+    getPage<Equipment>("/api/equipment", cursor, size),
   getEquipmentById: (id: number) =>
     axiosInstance.get<Equipment>(`/api/equipment/${id}`),
   createEquipment: (data: Equipment) =>
@@ -52,9 +90,22 @@ export const api = {
   updateSupplier: (id: number, data: Supplier) =>
     axiosInstance.put<Supplier>(`/api/suppliers/${id}`, data),
   deleteSupplier: (id: number) => axiosInstance.delete(`/api/suppliers/${id}`),
+  getSupplierStats: (id: number, months = 12) =>
+    axiosInstance.get<SupplierStats>(`/api/suppliers/${id}/stats`, {
+      params: { months },
+    }),
+  getSupplierRanking: (
+    by: "SPEND" | "ORDERS" | "LEAD_TIME" = "SPEND",
+    months = 12,
+    limit = 10
+  ) =>
+    axiosInstance.get<SupplierRanking[]>("/api/suppliers/ranking", {
+      params: { by, months, limit },
+    }),
 
   // Purchase Orders
-  getOrders: () => axiosInstance.get<PurchaseOrder[]>("/api/orders"),
+  getOrders: (cursor?: string, size?: number) =>
+    getPage<PurchaseOrder>("/api/orders", cursor, size),
   getOrder: (id: number) =>
     axiosInstance.get<PurchaseOrder>(`/api/orders/${id}`),
   createOrder: (data: PurchaseOrder) =>
@@ -62,10 +113,19 @@ export const api = {
   updateOrder: (id: number, data: PurchaseOrder) =>
     axiosInstance.put<PurchaseOrder>(`/api/orders/${id}`, data),
   deleteOrder: (id: number) => axiosInstance.delete(`/api/orders/${id}`),
+  transitionOrders: (orderIds: number[], status: PurchaseOrder["status"]) =>
+    axiosInstance.post<OrderTransitionResult>("/api/orders/transitions", {
+      orderIds,
+      status,
+    }),
+  getReorderSuggestions: () =>
+    axiosInstance.get<ReorderSuggestion[]>("/api/orders/reorder"),
+  generateReorders: () =>
+    axiosInstance.post<PurchaseOrder[]>("/api/orders/reorder"),
 
   // Maintenance Records
-  getMaintenanceRecords: () =>
-    axiosInstance.get<MaintenanceRecord[]>("/api/maintenance"),
+  getMaintenanceRecords: (cursor?: string, size?: number) =>
+    getPage<MaintenanceRecord>("/api/maintenance", cursor, size),
   getMaintenanceRecord: (id: number) =>
     axiosInstance.get<MaintenanceRecord>(`/api/maintenance/${id}`),
   getEquipmentMaintenanceRecords: (equipmentId: number) =>
@@ -78,9 +138,18 @@ export const api = {
     axiosInstance.put<MaintenanceRecord>(`/api/maintenance/${id}`, data),
   deleteMaintenanceRecord: (id: number) =>
     axiosInstance.delete(`/api/maintenance/${id}`),
+  getReliability: (groupBy: "CATEGORY" | "LOCATION" = "CATEGORY") =>
+    axiosInstance.get<ReliabilityStats[]>("/api/maintenance/reliability", {
+      params: { groupBy },
+    }),
+  getEquipmentReliability: (equipmentId: number) =>
+    axiosInstance.get<ReliabilityStats>(
+      `/api/maintenance/reliability/equipment/${equipmentId}`
+    ),
 
   // Users (Admin only)
-  getUsers: () => axiosInstance.get<any[]>("/api/users"),
+  getUsers: (cursor?: string, size?: number) =>
+    getPage<any>("/api/users", cursor, size),
   getUser: (id: number) => axiosInstance.get<any>(`/api/users/${id}`),
   createUser: (data: any) => axiosInstance.post<any>("/api/users", data),
   updateUser: (id: number, data: any) =>
@@ -30,6 +30,55 @@ export interface Medicine {
   active?: boolean;
   createdAt?: string;
   updatedAt?: string;
+  version?: number;
+}
+
+export interface OrderTransitionResult {
+  status: PurchaseOrder['status'];
+  updated: number;
+  results: {
+    orderId: number;
+    outcome: 'UPDATED' | 'UNCHANGED' | 'INVALID_TRANSITION' | 'NOT_FOUND';
+    currentStatus?: PurchaseOrder['status'];
+  }[];
+}
+
+export interface SupplierMonthlyStats {
+  month: string;
+  orderCount: number;
+  totalSpend: number;
+  deliveredCount: number;
+  averageLeadTimeDays?: number;
+}
+
+export interface SupplierStats extends Omit<SupplierMonthlyStats, 'month'> {
+  supplierId: number;
+  supplierName: string;
+  months: SupplierMonthlyStats[];
+}
+
+export interface SupplierRanking extends Omit<SupplierMonthlyStats, 'month'> {
+  rank: number;
+  supplierId: number;
+  supplierName: string;
+}
+
+export interface ReorderSuggestion {
+  name: string;
+  category: string;
+  supplierId: number;
+  onHand: number;
+  onOrder: number;
+  averageDailyDemand: number;
+  reorderPoint: number;
+  orderQuantity: number;
+  unitPrice?: number;
+}
+
+export interface StockLevel {
+  medicineId: number;
+  quantity: number;
+  version: number;
 }
 
 export interface Equipment {
@@ -57,6 +106,7 @@ export interface PurchaseOrder {
   orderedBy?: User;
   itemType: 'MEDICINE' | 'EQUIPMENT' | 'SUPPLIES';
   itemName?: string;
+  itemCategory?: string;
   quantity?: number;
   unitPrice?: number;
   totalAmount?: number;
@@ -79,6 +129,38 @@ export interface MaintenanceRecord {
   status: 'SCHEDULED' | 'IN_PROGRESS' | 'COMPLETED' | 'CANCELLED';
 }
 
+export interface ReliabilityStats {
+  key: string;
+  assetCount: number;
+  maintenanceCount: number;
+  totalCost: number;
+  failureCount: number;
+  mtbfDays?: number;
+  maintenancePerYear?: number;
+  lastFailureDate?: string;
+}
+
+export interface ExpiryAlert {
+  alertId: number;
+  medicineId: number;
+  medicineName: string;
+  batchNumber?: string;
+  expiryDate: string;
+  quantity?: number;
+  type: 'EXPIRED' | 'EXPIRING';
+  deactivated: boolean;
+  runDate: string;
+  createdAt: string;
+}
+
+export interface ExpiryCheckResult {
+  runDate: string;
+  expiredAlerts: number;
+  deactivated: number;
+  expiringAlerts: number;
+  resumed: boolean;
+}
+
 export interface DashboardStats {
   totalMedicines: number;
   totalEquipment: number;
@@ -89,6 +171,20 @@ export interface DashboardStats {
   pendingOrders: number;
 }
 
+export interface Page<T> {
+  content: T[];
+  totalElements: number;
+  totalPages: number;
+  number: number;
+  size: number;
+}
+
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor?: string;
+  hasMore: boolean;
+}
+
 export interface LoginRequest {
   username: string;
   password: string;
@@ -96,6 +192,8 @@ export interface LoginRequest {
 
 export interface LoginResponse {
   token: string;
+  refreshToken: string;
+  expiresIn: number;
   username: string;
   role: string;
   fullName: string;